@@ -0,0 +1,89 @@
+package raisetech.StudentManagement;
+
+import raisetech.StudentManagement.data.CourseStatus;
+import raisetech.StudentManagement.data.CourseStatusType;
+import raisetech.StudentManagement.data.Student;
+import raisetech.StudentManagement.data.StudentCourse;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ベンチマークで使う受講生・受講生コース情報・コースステータスのデータです。
+ * 受講生ID・受講生コースID・コースステータスIDは1からの連番で、データベースに登録した場合の自動採番と一致します。
+ */
+public class BenchmarkData {
+
+    static final CourseStatusType[] STATUSES = CourseStatusType.values();
+
+    private final List<Student> studentList;
+    private final List<StudentCourse> studentCourseList;
+    private final List<CourseStatus> courseStatusList;
+
+    private BenchmarkData(List<Student> studentList, List<StudentCourse> studentCourseList, List<CourseStatus> courseStatusList) {
+        this.studentList = studentList;
+        this.studentCourseList = studentCourseList;
+        this.courseStatusList = courseStatusList;
+    }
+
+    /**
+     * 指定された件数のデータを作成します。コースステータスは受講生コースごとに仮申込から順に遷移した履歴になります。
+     * @param studentCount 受講生の件数
+     * @param coursesPerStudent 受講生ごとの受講生コース情報の件数
+     * @param statusesPerCourse 受講生コースごとのコースステータスの件数（4件まで）
+     * @return ベンチマークのデータ
+     */
+    public static BenchmarkData generate(int studentCount, int coursesPerStudent, int statusesPerCourse) {
+        List<Student> studentList = new ArrayList<>(studentCount);
+        List<StudentCourse> studentCourseList = new ArrayList<>(studentCount * coursesPerStudent);
+        List<CourseStatus> courseStatusList = new ArrayList<>(studentCount * coursesPerStudent * statusesPerCourse);
+
+        LocalDateTime now = LocalDateTime.of(2024, 4, 1, 0, 0);
+        int courseId = 0;
+        int statusId = 0;
+        for (int studentId = 1; studentId <= studentCount; studentId++) {
+            Student student = new Student();
+            student.setId(studentId);
+            student.setName("受講生" + studentId);
+            student.setKanaName("ジュコウセイ" + studentId);
+            student.setNickname("ニックネーム" + studentId);
+            student.setMailAddress("student" + studentId + "@example.com");
+            student.setAddress("東京都");
+            student.setAge(20 + studentId % 40);
+            student.setGender(studentId % 2 == 0 ? "女" : "男");
+            studentList.add(student);
+
+            for (int i = 0; i < coursesPerStudent; i++) {
+                StudentCourse studentCourse = new StudentCourse();
+                studentCourse.setId(++courseId);
+                studentCourse.setStudentId(studentId);
+                studentCourse.setCourseName("コース" + (char) ('A' + i % 26));
+                studentCourse.setCourseStartAt(now);
+                studentCourse.setCourseEndAt(now.plusYears(1));
+                studentCourseList.add(studentCourse);
+
+                for (int j = 0; j < statusesPerCourse; j++) {
+                    CourseStatus courseStatus = new CourseStatus();
+                    courseStatus.setId(++statusId);
+                    courseStatus.setStudentsCoursesId(courseId);
+                    courseStatus.setStatus(STATUSES[j % STATUSES.length]);
+                    courseStatusList.add(courseStatus);
+                }
+            }
+        }
+        return new BenchmarkData(studentList, studentCourseList, courseStatusList);
+    }
+
+    public List<Student> getStudentList() {
+        return studentList;
+    }
+
+    public List<StudentCourse> getStudentCourseList() {
+        return studentCourseList;
+    }
+
+    public List<CourseStatus> getCourseStatusList() {
+        return courseStatusList;
+    }
+}
@@ -0,0 +1,161 @@
+package raisetech.StudentManagement;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * リクエスト処理をプラットフォームスレッドのプールで実行する場合と、仮想スレッドで実行する場合のスループットとレイテンシを比較するベンチマークです。
+ * JMHの {@link #CONCURRENCY} 個のスレッドがそれぞれリクエストを投入して完了を待つため、常にその件数のリクエストが同時に処理されます。
+ * 各リクエストはDB以外のブロッキングI/O（ioMillis）と、コネクションプールから取得した接続でのクエリ（DBでの待機 dbMillis を含む）を行います。
+ * スループット（ops/ms = リクエスト/ミリ秒）と、投入から完了までのレイテンシの分布（p0.50・p0.99 など）はJMHの結果に出力されます。
+ * <p>
+ * 既定のH2（インメモリ）はドライバー内でソケットI/Oを行わないため、仮想スレッドがキャリアスレッドに固定される（pinning）影響は現れません。
+ * 本番と同じドライバーでの影響を確認する場合は、ベンチマーク用のMySQLに接続して実行します（jdk.tracePinnedThreads を指定すると固定された箇所が出力されます）。
+ * <pre>
+ * ./gradlew jmhJar
+ * java -jar build/libs/StudentManagement-0.0.1-SNAPSHOT-jmh.jar ThreadModeBenchmark -jvmArgsAppend -Djdk.tracePinnedThreads=short \
+ *     -p jdbcUrl=jdbc:mysql://localhost:3306/benchmark -p username=root -p password=...
+ * </pre>
+ * MySQLではDBでの待機に SLEEP 関数を使い、待機中もドライバーがソケットの読み込みでブロックするようにします。
+ * ベンチマーク用のテーブル（thread_mode_benchmark）を作成して受講生を登録するため、本番のデータベースには接続しないでください。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(ThreadModeBenchmark.CONCURRENCY)
+@Fork(1)
+public class ThreadModeBenchmark {
+
+    /** 同時に処理するリクエスト数（プラットフォームスレッドのプールのスレッド数より多くする） */
+    static final int CONCURRENCY = 400;
+
+    private static final int STUDENT_COUNT = 1000;
+
+    @Param({"platform", "virtual"})
+    private String threadMode;
+
+    /** プラットフォームスレッドのプールのスレッド数（Tomcatの既定の最大スレッド数） */
+    @Param({"200"})
+    private int platformThreads;
+
+    /** コネクションプールの接続数（application-virtual-threads.properties と同じ値） */
+    @Param({"20"})
+    private int poolSize;
+
+    @Param({"50"})
+    private int ioMillis;
+
+    @Param({"2"})
+    private int dbMillis;
+
+    @Param({"jdbc:h2:mem:thread-mode;DB_CLOSE_DELAY=-1"})
+    private String jdbcUrl;
+
+    @Param({"sa"})
+    private String username;
+
+    @Param({""})
+    private String password;
+
+    private HikariDataSource dataSource;
+    private ExecutorService executor;
+    private String selectSql;
+
+    @Setup
+    public void setUp() throws SQLException {
+        HikariConfig config = new HikariConfig();
+        config.setJdbcUrl(jdbcUrl);
+        config.setUsername(username);
+        config.setPassword(password);
+        config.setMaximumPoolSize(poolSize);
+        config.setMinimumIdle(poolSize);
+        config.setConnectionTimeout(TimeUnit.SECONDS.toMillis(30));
+        dataSource = new HikariDataSource(config);
+
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS thread_mode_benchmark (id INT PRIMARY KEY, name VARCHAR(50) NOT NULL)");
+            statement.execute("DELETE FROM thread_mode_benchmark");
+            try (PreparedStatement insert = connection.prepareStatement("INSERT INTO thread_mode_benchmark (id, name) VALUES (?, ?)")) {
+                for (int id = 1; id <= STUDENT_COUNT; id++) {
+                    insert.setInt(1, id);
+                    insert.setString(2, "受講生" + id);
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+        }
+
+        selectSql = isMySql()
+                ? "SELECT name, SLEEP(" + dbMillis / 1000.0 + ") FROM thread_mode_benchmark WHERE id = ?"
+                : "SELECT name FROM thread_mode_benchmark WHERE id = ?";
+        executor = "virtual".equals(threadMode)
+                ? Executors.newVirtualThreadPerTaskExecutor()
+                : Executors.newFixedThreadPool(platformThreads);
+    }
+
+    @TearDown
+    public void tearDown() {
+        executor.shutdownNow();
+        dataSource.close();
+    }
+
+    @Benchmark
+    public void request() throws InterruptedException, ExecutionException {
+        executor.submit(this::handleRequest).get();
+    }
+
+    /**
+     * 1件のリクエストの処理です。DB以外のブロッキングI/Oの後に、接続を取得して受講生を主キーで検索します。
+     */
+    private void handleRequest() {
+        try {
+            Thread.sleep(ioMillis);
+            try (Connection connection = dataSource.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(selectSql)) {
+                statement.setInt(1, ThreadLocalRandom.current().nextInt(STUDENT_COUNT) + 1);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    resultSet.next();
+                }
+                if (!isMySql()) {
+                    // H2ではDBサーバーとの往復時間の代わりに、接続を保持したまま待機する
+                    Thread.sleep(dbMillis);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private boolean isMySql() {
+        return jdbcUrl.startsWith("jdbc:mysql:");
+    }
+}
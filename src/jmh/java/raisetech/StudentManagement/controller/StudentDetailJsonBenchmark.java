@@ -0,0 +1,62 @@
+package raisetech.StudentManagement.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import raisetech.StudentManagement.BenchmarkData;
+import raisetech.StudentManagement.controller.converter.StudentConverter;
+import raisetech.StudentManagement.domein.StudentDetail;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 受講生詳細のリストをJSONに変換する処理（/studentList のレスポンス）を計測するベンチマークです。
+ * ObjectMapper はSpring Bootと同じ既定値（日時を文字列で出力するなど）で作成します。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StudentDetailJsonBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int studentCount;
+
+    @Param({"3"})
+    private int coursesPerStudent;
+
+    @Param({"2"})
+    private int statusesPerCourse;
+
+    private List<StudentDetail> studentDetailList;
+    private ObjectWriter writer;
+
+    @Setup
+    public void setUp() {
+        BenchmarkData data = BenchmarkData.generate(studentCount, coursesPerStudent, statusesPerCourse);
+        studentDetailList = new StudentConverter().convertStudentDetails(
+                data.getStudentList(), data.getStudentCourseList(), data.getCourseStatusList());
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, StudentDetail.class));
+    }
+
+    @Benchmark
+    public byte[] writeStudentDetailList() throws JsonProcessingException {
+        return writer.writeValueAsBytes(studentDetailList);
+    }
+}
@@ -0,0 +1,62 @@
+package raisetech.StudentManagement.converter;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import raisetech.StudentManagement.BenchmarkData;
+import raisetech.StudentManagement.controller.converter.StudentConverter;
+import raisetech.StudentManagement.data.CourseStatus;
+import raisetech.StudentManagement.data.Student;
+import raisetech.StudentManagement.data.StudentCourse;
+import raisetech.StudentManagement.domein.StudentDetail;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * StudentConverter#convertStudentDetails の組み立て処理を計測するベンチマークです。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StudentConverterBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int studentCount;
+
+    @Param({"3"})
+    private int coursesPerStudent;
+
+    @Param({"2"})
+    private int statusesPerCourse;
+
+    private final StudentConverter converter = new StudentConverter();
+
+    private List<Student> studentList;
+    private List<StudentCourse> studentCourseList;
+    private List<CourseStatus> courseStatusList;
+
+    @Setup
+    public void setUp() {
+        BenchmarkData data = BenchmarkData.generate(studentCount, coursesPerStudent, statusesPerCourse);
+        studentList = data.getStudentList();
+        studentCourseList = data.getStudentCourseList();
+        courseStatusList = data.getCourseStatusList();
+    }
+
+    @Benchmark
+    public List<StudentDetail> convertStudentDetails() {
+        return converter.convertStudentDetails(studentList, studentCourseList, courseStatusList);
+    }
+}
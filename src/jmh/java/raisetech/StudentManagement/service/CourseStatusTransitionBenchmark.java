@@ -0,0 +1,69 @@
+package raisetech.StudentManagement.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import raisetech.StudentManagement.data.CourseStatusType;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * コースステータスの遷移の判定を計測するベンチマークです。
+ * 有効な遷移と無効な遷移を含むステータスの組み合わせを、1回の呼び出しで {@link #TRANSITIONS} 件判定します。
+ * 遷移表の参照のみの場合と、リクエストの値（表示名）からの変換を含む場合を計測します。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CourseStatusTransitionBenchmark {
+
+    static final int TRANSITIONS = 1024;
+
+    private CourseStatusType[] currentStatuses;
+    private CourseStatusType[] newStatuses;
+    private String[] newStatusLabels;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        CourseStatusType[] statuses = CourseStatusType.values();
+        currentStatuses = new CourseStatusType[TRANSITIONS];
+        newStatuses = new CourseStatusType[TRANSITIONS];
+        newStatusLabels = new String[TRANSITIONS];
+        for (int i = 0; i < TRANSITIONS; i++) {
+            currentStatuses[i] = statuses[random.nextInt(statuses.length)];
+            newStatuses[i] = statuses[random.nextInt(statuses.length)];
+            // リクエストの値を想定し、定数とは別のインスタンスの文字列にする
+            newStatusLabels[i] = new String(newStatuses[i].getLabel());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TRANSITIONS)
+    public void canTransition(Blackhole blackhole) {
+        for (int i = 0; i < TRANSITIONS; i++) {
+            blackhole.consume(CourseStatusStateMachine.canTransition(currentStatuses[i], newStatuses[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(TRANSITIONS)
+    public void canTransitionFromLabel(Blackhole blackhole) {
+        for (int i = 0; i < TRANSITIONS; i++) {
+            blackhole.consume(CourseStatusStateMachine.canTransition(currentStatuses[i], CourseStatusType.fromLabel(newStatusLabels[i])));
+        }
+    }
+}
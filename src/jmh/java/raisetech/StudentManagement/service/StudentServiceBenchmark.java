@@ -0,0 +1,138 @@
+package raisetech.StudentManagement.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import raisetech.StudentManagement.Application;
+import raisetech.StudentManagement.BenchmarkData;
+import raisetech.StudentManagement.domein.StudentDetail;
+import raisetech.StudentManagement.domein.StudentDetailPage;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * H2のデータベースに対して、StudentService の検索をマッパー・コンバーターを含めて計測するベンチマークです。
+ * Webサーバーを除いたアプリケーションを起動し、Flywayでスキーマを作成した後に受講生を studentCount 件登録します。
+ * キャッシュの効果を除くため、受講生詳細キャッシュは無効にして起動します。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class StudentServiceBenchmark {
+
+    private static final int BATCH_SIZE = 1000;
+
+    @Param({"1000", "10000", "100000"})
+    private int studentCount;
+
+    @Param({"3"})
+    private int coursesPerStudent;
+
+    @Param({"2"})
+    private int statusesPerCourse;
+
+    /** 受講生詳細の1ページの件数 */
+    @Param({"50"})
+    private int pageSize;
+
+    private ConfigurableApplicationContext context;
+    private StudentService service;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        // コマンドライン引数は application.properties より優先されるため、データソースなどの設定はここで上書きする
+        context = new SpringApplicationBuilder(Application.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.datasource.url=jdbc:h2:mem:student-service-" + studentCount + ";DB_CLOSE_DELAY=-1;MODE=MySQL",
+                        "--spring.datasource.username=sa",
+                        "--spring.datasource.password=",
+                        "--spring.datasource.driver-class-name=org.h2.Driver",
+                        "--student.cache.maximum-size=0",
+                        "--student.search-index.narrowing=true",
+                        "--student.current-status.backfill.on-startup=false");
+
+        seed(context.getBean(JdbcTemplate.class),
+                BenchmarkData.generate(studentCount, coursesPerStudent, statusesPerCourse));
+        context.getBean(CurrentCourseStatusBackfill.class).backfill();
+        context.getBean(StudentSearchIndex.class).rebuild();
+        service = context.getBean(StudentService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public StudentDetail searchStudent() {
+        return service.searchStudent(randomStudentId());
+    }
+
+    @Benchmark
+    public List<StudentDetail> searchStudentListByName() {
+        return service.searchStudentList("受講生" + randomStudentId(), null, null, null, null);
+    }
+
+    @Benchmark
+    public StudentDetailPage searchStudentPage() {
+        int after = ThreadLocalRandom.current().nextInt(Math.max(studentCount - pageSize, 1));
+        return service.searchStudentPage(null, null, null, null, null, after, pageSize);
+    }
+
+    private int randomStudentId() {
+        return ThreadLocalRandom.current().nextInt(studentCount) + 1;
+    }
+
+    /**
+     * ベンチマークのデータを一括で登録します。IDは自動採番され、{@link BenchmarkData} の連番と一致します。
+     */
+    private void seed(JdbcTemplate jdbcTemplate, BenchmarkData data) {
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO students(name, kana_name, nickname, mail_address, address, age, gender, remark, isDeleted) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0)",
+                data.getStudentList(), BATCH_SIZE, (statement, student) -> {
+                    statement.setString(1, student.getName());
+                    statement.setString(2, student.getKanaName());
+                    statement.setString(3, student.getNickname());
+                    statement.setString(4, student.getMailAddress());
+                    statement.setString(5, student.getAddress());
+                    statement.setInt(6, student.getAge());
+                    statement.setString(7, student.getGender());
+                    statement.setString(8, student.getRemark());
+                });
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO students_courses(student_id, course_name, course_start_at, course_end_at) VALUES (?, ?, ?, ?)",
+                data.getStudentCourseList(), BATCH_SIZE, (statement, studentCourse) -> {
+                    statement.setInt(1, studentCourse.getStudentId());
+                    statement.setString(2, studentCourse.getCourseName());
+                    statement.setTimestamp(3, Timestamp.valueOf(studentCourse.getCourseStartAt()));
+                    statement.setTimestamp(4, Timestamp.valueOf(studentCourse.getCourseEndAt()));
+                });
+        jdbcTemplate.batchUpdate(
+                "INSERT INTO course_status(students_courses_id, status) VALUES (?, ?)",
+                data.getCourseStatusList(), BATCH_SIZE, (statement, courseStatus) -> {
+                    statement.setInt(1, courseStatus.getStudentsCoursesId());
+                    statement.setInt(2, courseStatus.getStatus().getCode());
+                });
+    }
+}
@@ -0,0 +1,66 @@
+package raisetech.StudentManagement.loadtest;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 1種類のリクエストのレイテンシとレスポンスのステータスコードを記録します。
+ * レイテンシはすべて保持し、集計時に並べ替えてパーセンタイルを求めます。
+ */
+class LatencyRecorder {
+
+    private long[] latencyNanos = new long[1024];
+    private int count;
+    private int errors;
+    private final Map<Integer, Integer> statusCodes = new TreeMap<>();
+
+    /**
+     * @param nanos レイテンシ（ナノ秒）
+     * @param statusCode ステータスコード（通信に失敗した場合は0）
+     */
+    synchronized void record(long nanos, int statusCode) {
+        if (count == latencyNanos.length) {
+            latencyNanos = Arrays.copyOf(latencyNanos, count * 2);
+        }
+        latencyNanos[count++] = nanos;
+        statusCodes.merge(statusCode, 1, Integer::sum);
+        if (statusCode == 0 || statusCode >= 400) {
+            errors++;
+        }
+    }
+
+    synchronized Summary summarize(double elapsedSeconds) {
+        long[] sorted = Arrays.copyOf(latencyNanos, count);
+        Arrays.sort(sorted);
+        return new Summary(count, errors, count / elapsedSeconds,
+                percentileMillis(sorted, 0.50), percentileMillis(sorted, 0.90), percentileMillis(sorted, 0.99),
+                percentileMillis(sorted, 0.999), percentileMillis(sorted, 1.0), new TreeMap<>(statusCodes));
+    }
+
+    synchronized void mergeInto(LatencyRecorder total) {
+        for (int i = 0; i < count; i++) {
+            total.latencyNanos = total.count == total.latencyNanos.length
+                    ? Arrays.copyOf(total.latencyNanos, total.count * 2)
+                    : total.latencyNanos;
+            total.latencyNanos[total.count++] = latencyNanos[i];
+        }
+        total.errors += errors;
+        statusCodes.forEach((statusCode, n) -> total.statusCodes.merge(statusCode, n, Integer::sum));
+    }
+
+    private static double percentileMillis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1_000_000.0;
+    }
+
+    /**
+     * 集計結果です。レイテンシはミリ秒、スループットはリクエスト/秒です。
+     */
+    record Summary(int count, int errors, double throughput, double p50, double p90, double p99, double p999, double max,
+                   Map<Integer, Integer> statusCodes) {
+    }
+}
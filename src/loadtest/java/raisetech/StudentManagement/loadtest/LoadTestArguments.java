@@ -0,0 +1,36 @@
+package raisetech.StudentManagement.loadtest;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 「--名前=値」形式のコマンドライン引数です。
+ */
+class LoadTestArguments {
+
+    private final Map<String, String> values = new HashMap<>();
+
+    LoadTestArguments(String[] args) {
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("引数は --名前=値 の形式で指定してください: " + arg);
+            }
+            int separator = arg.indexOf('=');
+            values.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+    }
+
+    String get(String name, String defaultValue) {
+        return values.getOrDefault(name, defaultValue);
+    }
+
+    int getInt(String name, int defaultValue) {
+        String value = values.get(name);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+
+    long getLong(String name, long defaultValue) {
+        String value = values.get(name);
+        return value == null ? defaultValue : Long.parseLong(value);
+    }
+}
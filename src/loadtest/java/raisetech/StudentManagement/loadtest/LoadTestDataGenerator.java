@@ -0,0 +1,225 @@
+package raisetech.StudentManagement.loadtest;
+
+import org.flywaydb.core.Flyway;
+import raisetech.StudentManagement.data.CourseStatusType;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Random;
+
+/**
+ * 負荷試験用の受講生・受講生コース情報・コースステータスを生成してデータベースに登録します。
+ * H2（application-loadtest.properties のファイルDB）とMySQLのどちらにも登録でき、スキーマはアプリケーションと同じ
+ * Flywayのマイグレーションで作成します。既存の受講生データは削除してから登録します。
+ *
+ * <p>データは乱数のシードを指定すると毎回同じになります。実際の利用状況に近づけるため、件数と値の分布は偏らせます。
+ * <ul>
+ *   <li>受講生ごとのコース数は1件が最も多く、最大 max-courses 件まで減っていく分布</li>
+ *   <li>コース名と受講生の姓は一部の値に集中する分布（検索条件のヒット件数に差が出る）</li>
+ *   <li>コースステータスの履歴は仮申込のみのコースが最も多く、受講終了まで進んだコースが最も少ない分布</li>
+ * </ul>
+ *
+ * <p>引数（すべて省略可能）: --url, --user, --password, --students（受講生の件数）, --max-courses, --seed
+ */
+public class LoadTestDataGenerator {
+
+    static final String DEFAULT_URL = "jdbc:h2:file:./build/loadtest/studentdb;MODE=MySQL;AUTO_SERVER=TRUE";
+
+    static final String[] STATUSES = {"仮申込", "本申込", "受講中", "受講終了"};
+
+    /** コースステータスの履歴の件数（1〜4件）ごとの割合 */
+    private static final int[] STATUS_HISTORY_WEIGHTS = {40, 30, 20, 10};
+
+    private static final String[] COURSE_NAMES = {
+            "Javaフルコース", "AWSフルコース", "Webマーケティングコース", "デザインコース", "フロントエンドコース",
+            "Pythonコース", "データサイエンスコース", "映像制作コース", "英会話コース", "WordPress副業コース",
+            "Unityゲーム開発コース", "動画編集コース"};
+
+    private static final String[][] FAMILY_NAMES = {
+            {"佐藤", "サトウ"}, {"鈴木", "スズキ"}, {"高橋", "タカハシ"}, {"田中", "タナカ"}, {"伊藤", "イトウ"},
+            {"渡辺", "ワタナベ"}, {"山本", "ヤマモト"}, {"中村", "ナカムラ"}, {"小林", "コバヤシ"}, {"加藤", "カトウ"},
+            {"吉田", "ヨシダ"}, {"山田", "ヤマダ"}, {"佐々木", "ササキ"}, {"山口", "ヤマグチ"}, {"松本", "マツモト"},
+            {"井上", "イノウエ"}, {"木村", "キムラ"}, {"林", "ハヤシ"}, {"斎藤", "サイトウ"}, {"清水", "シミズ"}};
+
+    private static final String[][] GIVEN_NAMES = {
+            {"太郎", "タロウ"}, {"花子", "ハナコ"}, {"翔太", "ショウタ"}, {"美咲", "ミサキ"}, {"大輔", "ダイスケ"},
+            {"陽菜", "ヒナ"}, {"健太", "ケンタ"}, {"結衣", "ユイ"}, {"拓海", "タクミ"}, {"葵", "アオイ"}};
+
+    private static final String[] ADDRESSES = {"東京都", "大阪府", "神奈川県", "愛知県", "福岡県", "北海道", "沖縄県"};
+
+    private static final LocalDateTime FIRST_COURSE_START = LocalDateTime.of(2022, 4, 1, 0, 0);
+
+    private static final int BATCH_SIZE = 1000;
+
+    private final Random random;
+    private final ZipfSampler courseCountSampler;
+    private final ZipfSampler courseNameSampler = new ZipfSampler(COURSE_NAMES.length, 1.0);
+    private final ZipfSampler familyNameSampler = new ZipfSampler(FAMILY_NAMES.length, 0.8);
+    private final ZipfSampler addressSampler = new ZipfSampler(ADDRESSES.length, 1.2);
+
+    LoadTestDataGenerator(long seed, int maxCourses) {
+        this.random = new Random(seed);
+        this.courseCountSampler = new ZipfSampler(maxCourses, 1.5);
+    }
+
+    public static void main(String[] args) throws SQLException {
+        LoadTestArguments arguments = new LoadTestArguments(args);
+        String url = arguments.get("url", DEFAULT_URL);
+        String user = arguments.get("user", "sa");
+        String password = arguments.get("password", "");
+        int studentCount = arguments.getInt("students", 10000);
+        LoadTestDataGenerator generator = new LoadTestDataGenerator(
+                arguments.getLong("seed", 42), arguments.getInt("max-courses", 5));
+
+        Flyway.configure()
+                .dataSource(url, user, password)
+                .locations("classpath:db/migration")
+                .baselineOnMigrate(true)
+                .baselineVersion("1")
+                .load()
+                .migrate();
+
+        long startedAt = System.nanoTime();
+        try (Connection connection = DriverManager.getConnection(url, user, password)) {
+            connection.setAutoCommit(false);
+            Counts counts = generator.generate(connection, studentCount);
+            System.out.printf("受講生 %d 件、受講生コース情報 %d 件、コースステータス %d 件を登録しました（%d ms）%n",
+                    counts.students, counts.studentCourses, counts.courseStatuses,
+                    (System.nanoTime() - startedAt) / 1_000_000);
+        }
+    }
+
+    /**
+     * 既存の受講生データを削除し、指定された件数の受講生を登録します。
+     * 各テーブルのIDは削除時に1から採番し直すため、登録順の連番になります。
+     * 受講生コース情報の最新ステータスも、登録したコースステータスに合わせて設定します。
+     */
+    Counts generate(Connection connection, int studentCount) throws SQLException {
+        truncate(connection);
+
+        Counts counts = new Counts();
+        try (PreparedStatement insertStudent = connection.prepareStatement(
+                "INSERT INTO students(name, kana_name, nickname, mail_address, address, age, gender, remark, isDeleted) "
+                        + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, 0)");
+             PreparedStatement insertStudentCourse = connection.prepareStatement(
+                     "INSERT INTO students_courses(student_id, course_name, course_start_at, course_end_at, current_status_id, current_status) "
+                             + "VALUES (?, ?, ?, ?, ?, ?)");
+             PreparedStatement insertCourseStatus = connection.prepareStatement(
+                     "INSERT INTO course_status(students_courses_id, status) VALUES (?, ?)")) {
+
+            for (int studentId = 1; studentId <= studentCount; studentId++) {
+                addStudent(insertStudent, studentId);
+                counts.students++;
+
+                int courseCount = courseCountSampler.next(random) + 1;
+                for (int i = 0; i < courseCount; i++) {
+                    int studentCourseId = ++counts.studentCourses;
+                    int historySize = nextStatusHistorySize();
+                    for (int j = 0; j < historySize; j++) {
+                        insertCourseStatus.setInt(1, studentCourseId);
+                        insertCourseStatus.setInt(2, CourseStatusType.fromLabel(STATUSES[j]).getCode());
+                        insertCourseStatus.addBatch();
+                    }
+                    counts.courseStatuses += historySize;
+                    addStudentCourse(insertStudentCourse, studentId, counts.courseStatuses, STATUSES[historySize - 1]);
+                }
+
+                if (studentId % BATCH_SIZE == 0) {
+                    flush(connection, insertStudent, insertStudentCourse, insertCourseStatus);
+                }
+            }
+            flush(connection, insertStudent, insertStudentCourse, insertCourseStatus);
+        }
+
+        verifySequentialIds(connection, "students", counts.students);
+        verifySequentialIds(connection, "students_courses", counts.studentCourses);
+        verifySequentialIds(connection, "course_status", counts.courseStatuses);
+        return counts;
+    }
+
+    private void addStudent(PreparedStatement statement, int studentId) throws SQLException {
+        String[] familyName = FAMILY_NAMES[familyNameSampler.next(random)];
+        String[] givenName = GIVEN_NAMES[random.nextInt(GIVEN_NAMES.length)];
+        statement.setString(1, familyName[0] + givenName[0]);
+        statement.setString(2, familyName[1] + givenName[1]);
+        statement.setString(3, givenName[1] + studentId);
+        statement.setString(4, "student" + studentId + "@example.com");
+        statement.setString(5, ADDRESSES[addressSampler.next(random)]);
+        statement.setInt(6, 18 + random.nextInt(50));
+        int gender = random.nextInt(20);
+        statement.setString(7, gender < 10 ? "男" : gender < 19 ? "女" : "その他");
+        statement.setString(8, random.nextInt(10) == 0 ? "特記事項あり" : null);
+        statement.addBatch();
+    }
+
+    private void addStudentCourse(PreparedStatement statement, int studentId, int currentStatusId, String currentStatus)
+            throws SQLException {
+        LocalDateTime startAt = FIRST_COURSE_START.plusDays(random.nextInt(3 * 365));
+        statement.setInt(1, studentId);
+        statement.setString(2, COURSE_NAMES[courseNameSampler.next(random)]);
+        statement.setTimestamp(3, Timestamp.valueOf(startAt));
+        statement.setTimestamp(4, Timestamp.valueOf(startAt.plusMonths(random.nextBoolean() ? 6 : 12)));
+        statement.setInt(5, currentStatusId);
+        statement.setInt(6, CourseStatusType.fromLabel(currentStatus).getCode());
+        statement.addBatch();
+    }
+
+    private int nextStatusHistorySize() {
+        int value = random.nextInt(100);
+        for (int i = 0; i < STATUS_HISTORY_WEIGHTS.length; i++) {
+            value -= STATUS_HISTORY_WEIGHTS[i];
+            if (value < 0) {
+                return i + 1;
+            }
+        }
+        return STATUS_HISTORY_WEIGHTS.length;
+    }
+
+    private void flush(Connection connection, PreparedStatement... statements) throws SQLException {
+        for (PreparedStatement statement : statements) {
+            statement.executeBatch();
+        }
+        connection.commit();
+    }
+
+    /**
+     * 受講生データと変更履歴を削除し、IDと変更連番の採番を1からにします。
+     * 変更履歴を残すと、削除前の受講生IDの変更が登録し直した受講生の変更として配信されるため、あわせて削除します。
+     */
+    private void truncate(Connection connection) throws SQLException {
+        boolean h2 = "H2".equals(connection.getMetaData().getDatabaseProductName());
+        try (Statement statement = connection.createStatement()) {
+            for (String table : new String[]{"change_log", "course_status", "students_courses", "students"}) {
+                statement.execute("TRUNCATE TABLE " + table + (h2 ? " RESTART IDENTITY" : ""));
+            }
+        }
+        connection.commit();
+    }
+
+    /**
+     * 登録した件数とIDの最大値が一致することを確認します。
+     * 受講生コース情報とコースステータスの紐づけは連番を前提にしているため、一致しない場合は登録したデータを使えません。
+     */
+    private void verifySequentialIds(Connection connection, String table, int expected) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COUNT(*), COALESCE(MAX(id), 0) FROM " + table)) {
+            resultSet.next();
+            if (resultSet.getInt(1) != expected || resultSet.getInt(2) != expected) {
+                throw new IllegalStateException(table + " のIDが連番になっていません（件数: " + resultSet.getInt(1)
+                        + "、最大ID: " + resultSet.getInt(2) + "、期待値: " + expected + "）");
+            }
+        }
+    }
+
+    static class Counts {
+        int students;
+        int studentCourses;
+        int courseStatuses;
+    }
+}
@@ -0,0 +1,275 @@
+package raisetech.StudentManagement.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 起動中のアプリケーションに、受講生の検索・登録・コースステータスの更新を混ぜたリクエストを送る負荷試験のドライバーです。
+ * concurrency 件のクライアントが、応答を受け取るたびに次のリクエストを送ります（クローズドループ）。
+ * ウォームアップの後、計測期間中のリクエストについて種類ごとのスループットとレイテンシのパーセンタイルを出力し、
+ * 同じ内容をJSONのレポートに書き込みます。
+ *
+ * <p>引数（すべて省略可能）:
+ * --base-url, --duration（計測秒数）, --warmup（ウォームアップ秒数）, --concurrency, --seed,
+ * --mix（リクエストの割合。例: list=30,detail=50,register=10,status=10）, --report（レポートの出力先）
+ */
+public class LoadTestDriver {
+
+    /** リクエストの種類 */
+    enum Operation {
+        LIST("GET /studentList"),
+        DETAIL("GET /student/{id}"),
+        REGISTER("POST /registerStudent"),
+        STATUS("PUT /updateCourseStatus/{courseId}");
+
+        private final String label;
+
+        Operation(String label) {
+            this.label = label;
+        }
+    }
+
+    private static final String DEFAULT_MIX = "list=30,detail=50,register=10,status=10";
+
+    private final HttpClient client;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String baseUrl;
+    private final Map<Operation, Integer> mix;
+    private final Map<Operation, LatencyRecorder> recorders = new EnumMap<>(Operation.class);
+    private final AtomicInteger registeredCount = new AtomicInteger();
+    private WorkloadTargets targets;
+
+    LoadTestDriver(String baseUrl, Map<Operation, Integer> mix) {
+        this.baseUrl = baseUrl;
+        this.mix = mix;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        for (Operation operation : Operation.values()) {
+            recorders.put(operation, new LatencyRecorder());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        LoadTestArguments arguments = new LoadTestArguments(args);
+        String baseUrl = arguments.get("base-url", "http://localhost:8080");
+        int durationSeconds = arguments.getInt("duration", 60);
+        int warmupSeconds = arguments.getInt("warmup", 10);
+        int concurrency = arguments.getInt("concurrency", 32);
+        long seed = arguments.getLong("seed", 42);
+        String mix = arguments.get("mix", DEFAULT_MIX);
+        Path report = Path.of(arguments.get("report", "build/reports/loadtest/report.json"));
+
+        LoadTestDriver driver = new LoadTestDriver(baseUrl, parseMix(mix));
+        driver.targets = WorkloadTargets.discover(driver.client, driver.objectMapper, baseUrl);
+        System.out.printf("受講生 %d 件を対象に、%d 並列で %d 秒（ウォームアップ %d 秒）のリクエストを送ります: %s%n",
+                driver.targets.studentCount(), concurrency, durationSeconds, warmupSeconds, mix);
+
+        driver.run(concurrency, seed, warmupSeconds, durationSeconds);
+
+        Map<String, Object> result = driver.summarize(durationSeconds);
+        result.put("baseUrl", baseUrl);
+        result.put("concurrency", concurrency);
+        result.put("durationSeconds", durationSeconds);
+        result.put("seed", seed);
+        result.put("mix", mix);
+        Files.createDirectories(report.toAbsolutePath().getParent());
+        driver.objectMapper.enable(SerializationFeature.INDENT_OUTPUT).writeValue(report.toFile(), result);
+        System.out.println("レポート: " + report.toAbsolutePath());
+    }
+
+    /**
+     * クライアントを仮想スレッドで起動し、ウォームアップと計測期間が終わるまでリクエストを送ります。
+     * クライアントごとの乱数のシードはシードとクライアントの番号から決めるため、同じ引数なら同じ順序でリクエストを選びます。
+     */
+    void run(int concurrency, long seed, int warmupSeconds, int durationSeconds) throws Exception {
+        long measureFrom = System.nanoTime() + Duration.ofSeconds(warmupSeconds).toNanos();
+        long measureUntil = measureFrom + Duration.ofSeconds(durationSeconds).toNanos();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> clients = new ArrayList<>();
+            for (int i = 0; i < concurrency; i++) {
+                Random random = new Random(seed * 31 + i);
+                clients.add(executor.submit(() -> {
+                    while (System.nanoTime() < measureUntil) {
+                        Operation operation = nextOperation(random);
+                        long startedAt = System.nanoTime();
+                        int statusCode = execute(operation, random);
+                        if (startedAt >= measureFrom) {
+                            recorders.get(operation).record(System.nanoTime() - startedAt, statusCode);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : clients) {
+                future.get();
+            }
+        }
+    }
+
+    private Operation nextOperation(Random random) {
+        int total = mix.values().stream().mapToInt(Integer::intValue).sum();
+        int value = random.nextInt(total);
+        for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+            value -= entry.getValue();
+            if (value < 0) {
+                return entry.getKey();
+            }
+        }
+        return Operation.LIST;
+    }
+
+    /**
+     * リクエストを1件送ります。
+     * @return レスポンスのステータスコード。通信に失敗した場合は0
+     */
+    private int execute(Operation operation, Random random) {
+        try {
+            return switch (operation) {
+                case LIST -> send(HttpRequest.newBuilder(URI.create(baseUrl + "/studentList?" + listQuery(random))).GET());
+                case DETAIL -> send(HttpRequest.newBuilder(
+                        URI.create(baseUrl + "/student/" + targets.nextDetailStudentId(random))).GET());
+                case REGISTER -> register(random);
+                case STATUS -> updateCourseStatus(random);
+            };
+        } catch (IOException e) {
+            return 0;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return 0;
+        }
+    }
+
+    /**
+     * 一覧検索の条件です。ページ単位の全件検索、受講生名・コース名・ステータスによる絞り込みを混ぜます。
+     */
+    private String listQuery(Random random) {
+        int variant = random.nextInt(100);
+        if (variant < 40) {
+            int after = random.nextInt(Math.max(targets.studentCount(), 1));
+            return "limit=100&after=" + after;
+        }
+        if (variant < 70) {
+            return "name=" + encode(targets.nextNameFilter(random));
+        }
+        if (variant < 90) {
+            return "courseName=" + encode(targets.nextCourseName(random));
+        }
+        return "courseName=" + encode(targets.nextCourseName(random))
+                + "&status=" + encode(LoadTestDataGenerator.STATUSES[random.nextInt(LoadTestDataGenerator.STATUSES.length)]);
+    }
+
+    private int register(Random random) throws IOException, InterruptedException {
+        int n = registeredCount.incrementAndGet();
+        Map<String, Object> student = new LinkedHashMap<>();
+        student.put("name", "負荷試験" + n);
+        student.put("kanaName", "フカシケン" + n);
+        student.put("nickname", "loadtest" + n);
+        student.put("mailAddress", "loadtest" + n + "@example.com");
+        student.put("address", "東京都");
+        student.put("age", 20 + random.nextInt(40));
+        student.put("gender", random.nextBoolean() ? "男" : "女");
+        List<Map<String, Object>> studentCourseList = new ArrayList<>();
+        int courseCount = 1 + random.nextInt(2);
+        for (int i = 0; i < courseCount; i++) {
+            studentCourseList.add(Map.of("courseName", targets.nextCourseName(random)));
+        }
+
+        HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(baseUrl + "/registerStudent"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(
+                                Map.of("student", student, "studentCourseList", studentCourseList))))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() == 200) {
+            // 登録した受講生のコースもステータスの更新対象にする
+            targets.addStudentCourses(objectMapper.readTree(response.body()).path("studentCourseList"));
+        }
+        return response.statusCode();
+    }
+
+    private int updateCourseStatus(Random random) throws IOException, InterruptedException {
+        String[] transition = targets.claimStatusTransition(random);
+        if (transition == null) {
+            // 更新できるコースがなくなった場合は一覧検索に置き換える
+            return execute(Operation.LIST, random);
+        }
+        return send(HttpRequest.newBuilder(URI.create(baseUrl + "/updateCourseStatus/" + transition[0]
+                + "?status=" + encode(transition[1]))).PUT(HttpRequest.BodyPublishers.noBody()));
+    }
+
+    private int send(HttpRequest.Builder request) throws IOException, InterruptedException {
+        return client.send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    /**
+     * 種類ごとと全体の集計結果を出力し、レポートの内容として返します。
+     */
+    Map<String, Object> summarize(int durationSeconds) {
+        Map<String, Object> operations = new LinkedHashMap<>();
+        LatencyRecorder total = new LatencyRecorder();
+        System.out.printf("%n%-36s %8s %6s %9s %8s %8s %8s %8s %8s%n",
+                "request", "count", "errors", "req/s", "p50(ms)", "p90(ms)", "p99(ms)", "p99.9", "max(ms)");
+        for (Operation operation : Operation.values()) {
+            LatencyRecorder recorder = recorders.get(operation);
+            recorder.mergeInto(total);
+            LatencyRecorder.Summary summary = recorder.summarize(durationSeconds);
+            print(operation.label, summary);
+            operations.put(operation.label, summary);
+        }
+        LatencyRecorder.Summary totalSummary = total.summarize(durationSeconds);
+        print("total", totalSummary);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("operations", operations);
+        result.put("total", totalSummary);
+        return result;
+    }
+
+    private static void print(String label, LatencyRecorder.Summary summary) {
+        System.out.printf("%-36s %8d %6d %9.1f %8.1f %8.1f %8.1f %8.1f %8.1f %s%n", label, summary.count(), summary.errors(),
+                summary.throughput(), summary.p50(), summary.p90(), summary.p99(), summary.p999(), summary.max(),
+                summary.statusCodes());
+    }
+
+    static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] pair = entry.trim().split("=");
+            if (pair.length != 2) {
+                throw new IllegalArgumentException("リクエストの割合は 名前=割合 の形式で指定してください: " + entry);
+            }
+            weights.put(Operation.valueOf(pair[0].trim().toUpperCase()), Integer.parseInt(pair[1].trim()));
+        }
+        if (weights.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("リクエストの割合の合計は1以上である必要があります: " + mix);
+        }
+        return weights;
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,147 @@
+package raisetech.StudentManagement.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * 負荷試験のリクエストの対象（受講生ID・検索条件・ステータスを更新するコース）です。
+ * 試験の開始前に受講生詳細の一覧をページ単位で取得し、登録済みのデータから作成します。
+ * 受講生IDとコース名はZipf分布で選ぶため、一部の受講生やコースにリクエストが集中します。
+ */
+class WorkloadTargets {
+
+    private static final int DISCOVERY_PAGE_SIZE = 1000;
+
+    private final List<String> detailStudentIds = new ArrayList<>();
+    private final List<String> studentNames = new ArrayList<>();
+    private final List<String> courseNames = new ArrayList<>();
+    private ZipfSampler detailStudentSampler;
+    private ZipfSampler studentNameSampler;
+    private ZipfSampler courseNameSampler;
+
+    /** ステータスを更新できる（受講終了になっていない）受講生コースIDと、その最新ステータス */
+    private final List<String> openCourseIds = new ArrayList<>();
+    private final Map<String, String> openCourseStatuses = new HashMap<>();
+
+    /**
+     * 受講生詳細の一覧を取得してリクエストの対象を作成します。
+     */
+    static WorkloadTargets discover(HttpClient client, ObjectMapper objectMapper, String baseUrl)
+            throws IOException, InterruptedException {
+        WorkloadTargets targets = new WorkloadTargets();
+        Map<String, Integer> courseNameCounts = new HashMap<>();
+        String after = null;
+        do {
+            String uri = baseUrl + "/studentList?limit=" + DISCOVERY_PAGE_SIZE + (after == null ? "" : "&after=" + after);
+            HttpResponse<String> response = client.send(HttpRequest.newBuilder(URI.create(uri)).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                throw new IllegalStateException("受講生一覧を取得できません（" + response.statusCode() + "）: " + uri);
+            }
+            for (JsonNode studentDetail : objectMapper.readTree(response.body())) {
+                targets.addStudentDetail(studentDetail, courseNameCounts);
+            }
+            after = response.headers().firstValue("X-Next-Cursor").orElse(null);
+        } while (after != null);
+
+        if (targets.studentNames.isEmpty()) {
+            throw new IllegalStateException("受講生が登録されていません。先に LoadTestDataGenerator でデータを登録してください。");
+        }
+        courseNameCounts.entrySet().stream()
+                .sorted(Map.Entry.<String, Integer>comparingByValue(Comparator.reverseOrder()))
+                .forEach(entry -> targets.courseNames.add(entry.getKey()));
+        targets.detailStudentSampler = new ZipfSampler(targets.detailStudentIds.size(), 1.0);
+        targets.studentNameSampler = new ZipfSampler(targets.studentNames.size(), 1.0);
+        targets.courseNameSampler = new ZipfSampler(Math.max(targets.courseNames.size(), 1), 1.0);
+        return targets;
+    }
+
+    private void addStudentDetail(JsonNode studentDetail, Map<String, Integer> courseNameCounts) {
+        JsonNode student = studentDetail.path("student");
+        detailStudentIds.add(student.path("id").asText());
+        studentNames.add(student.path("name").asText());
+        addStudentCourses(studentDetail.path("studentCourseList"));
+        for (JsonNode studentCourse : studentDetail.path("studentCourseList")) {
+            courseNameCounts.merge(studentCourse.path("courseName").asText(), 1, Integer::sum);
+        }
+    }
+
+    /**
+     * 受講生コース情報のうち、ステータスを更新できるものを追加します。登録したばかりの受講生のコースもここで追加します。
+     */
+    synchronized void addStudentCourses(JsonNode studentCourseList) {
+        for (JsonNode studentCourse : studentCourseList) {
+            String status = studentCourse.path("currentStatus").asText("仮申込");
+            if (nextStatus(status) != null) {
+                String studentCourseId = studentCourse.path("id").asText();
+                if (openCourseStatuses.putIfAbsent(studentCourseId, status) == null) {
+                    openCourseIds.add(studentCourseId);
+                }
+            }
+        }
+    }
+
+    /**
+     * ステータスを更新するコースを選び、次のステータスに進めます。
+     * 同じコースに対して複数の更新が同時に行われないよう、選んだコースは応答を待たずに次のステータスにしておきます。
+     * @return 受講生コースIDと更新後のステータス。更新できるコースがない場合はnull
+     */
+    synchronized String[] claimStatusTransition(Random random) {
+        while (!openCourseIds.isEmpty()) {
+            int index = random.nextInt(openCourseIds.size());
+            String studentCourseId = openCourseIds.get(index);
+            String next = nextStatus(openCourseStatuses.get(studentCourseId));
+            if (next == null) {
+                // 末尾と入れ替えて削除する
+                openCourseIds.set(index, openCourseIds.get(openCourseIds.size() - 1));
+                openCourseIds.remove(openCourseIds.size() - 1);
+                openCourseStatuses.remove(studentCourseId);
+                continue;
+            }
+            openCourseStatuses.put(studentCourseId, next);
+            return new String[]{studentCourseId, next};
+        }
+        return null;
+    }
+
+    String nextDetailStudentId(Random random) {
+        return detailStudentIds.get(detailStudentSampler.next(random));
+    }
+
+    /**
+     * 受講生名の部分一致検索の条件です。よく使われる姓に一致しやすいよう、受講生名の先頭2文字を使います。
+     */
+    String nextNameFilter(Random random) {
+        String name = studentNames.get(studentNameSampler.next(random));
+        return name.substring(0, Math.min(2, name.length()));
+    }
+
+    String nextCourseName(Random random) {
+        return courseNames.isEmpty() ? "Java" : courseNames.get(courseNameSampler.next(random));
+    }
+
+    int studentCount() {
+        return studentNames.size();
+    }
+
+    private static String nextStatus(String status) {
+        for (int i = 0; i < LoadTestDataGenerator.STATUSES.length - 1; i++) {
+            if (LoadTestDataGenerator.STATUSES[i].equals(status)) {
+                return LoadTestDataGenerator.STATUSES[i + 1];
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,47 @@
+package raisetech.StudentManagement.loadtest;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * 0から件数-1までの順位を、Zipf分布（順位が小さいほど選ばれやすい偏った分布）に従って選ぶサンプラーです。
+ * 累積分布を作成時に計算し、1回の抽選は二分探索で行います。
+ */
+class ZipfSampler {
+
+    private final double[] cumulative;
+
+    /**
+     * @param size 選択肢の件数
+     * @param exponent 偏りの強さ（0で一様分布、大きいほど上位に偏る）
+     */
+    ZipfSampler(int size, double exponent) {
+        if (size < 1) {
+            throw new IllegalArgumentException("選択肢の件数は1以上である必要があります: " + size);
+        }
+        cumulative = new double[size];
+        double total = 0;
+        for (int rank = 0; rank < size; rank++) {
+            total += 1.0 / Math.pow(rank + 1, exponent);
+            cumulative[rank] = total;
+        }
+        for (int rank = 0; rank < size; rank++) {
+            cumulative[rank] /= total;
+        }
+    }
+
+    /**
+     * 順位を1つ選びます。
+     * @param random 乱数
+     * @return 0から件数-1までの順位
+     */
+    int next(Random random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        int rank = index >= 0 ? index : -index - 1;
+        return Math.min(rank, cumulative.length - 1);
+    }
+
+    int size() {
+        return cumulative.length;
+    }
+}
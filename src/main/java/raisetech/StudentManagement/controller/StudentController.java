@@ -1,21 +1,47 @@
 package raisetech.StudentManagement.controller;
 
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import io.swagger.v3.oas.annotations.Operation;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
-import jakarta.validation.constraints.Pattern;
-import jakarta.validation.constraints.Size;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import raisetech.StudentManagement.controller.converter.StudentCsvConverter;
 import raisetech.StudentManagement.data.CourseStatus;
+import raisetech.StudentManagement.data.CourseStatusType;
+import raisetech.StudentManagement.domein.ChangeLogPage;
 import raisetech.StudentManagement.domein.StudentDetail;
+import raisetech.StudentManagement.domein.StudentDetailCacheStats;
+import raisetech.StudentManagement.domein.StudentDetailPage;
+import raisetech.StudentManagement.domein.StudentFieldSet;
+import raisetech.StudentManagement.domein.StudentImportReport;
+import raisetech.StudentManagement.domein.StudentStatisticsSummary;
 import raisetech.StudentManagement.exceptionHandler.TestException;
+import raisetech.StudentManagement.service.StudentChangeFeed;
+import raisetech.StudentManagement.service.StudentImportService;
 import raisetech.StudentManagement.service.StudentService;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.NoSuchElementException;
@@ -27,34 +53,126 @@ import java.util.NoSuchElementException;
 @RestController
 public class StudentController {
 
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final int DEFAULT_PAGE_SIZE = 100;
+    static final int MAX_PAGE_SIZE = 1000;
+
     private StudentService service;
+    private StudentImportService importService;
+    private StudentChangeFeed changeFeed;
+    private StudentCsvConverter csvConverter;
+    private ObjectWriter studentDetailWriter;
+    private StudentFieldsWriter studentFieldsWriter;
+    private ObjectReader studentDetailReader;
 
     @Autowired
-    public StudentController(StudentService service) {
+    public StudentController(StudentService service, StudentImportService importService, StudentChangeFeed changeFeed,
+                             StudentCsvConverter csvConverter, ObjectMapper objectMapper) {
         this.service = service;
+        this.importService = importService;
+        this.changeFeed = changeFeed;
+        this.csvConverter = csvConverter;
+        this.studentDetailWriter = objectMapper.writerFor(StudentDetail.class);
+        this.studentFieldsWriter = new StudentFieldsWriter(objectMapper);
+        this.studentDetailReader = objectMapper.readerFor(StudentDetail.class);
     }
 
     /**
      * 受講生詳細の一覧検索です。
      * 条件指定が可能です。条件が指定されない場合は全件検索を行います。
+     * 取得件数を指定した場合は受講生ID順に1ページ分を返し、次のページがある場合は
+     * 次のページの取得に指定する受講生IDをレスポンスヘッダー（X-Next-Cursor）に設定します。
+     * 受講生一覧のETagを返し、If-None-Match が一致する場合は検索を行わずに304を返します。
+     * 一覧はETagの時点以降の内容で返すため、レプリカがETagの時点の変更を反映していない場合はプライマリで検索します。
+     * 取得する項目（fields）を指定した場合は、指定された項目の列のみを検索し、指定された項目のみをシリアライズして出力します。
+     * 受講生コース情報・コースステータスの項目を指定しない場合は、それらの検索を行いません。
      * @param name 受講生名（部分一致検索）
-     * @param courseName コース名（部分一致検索）
-     * @param startDate コース開始日（指定された日付以降）
-     * @param endDate コース終了日（指定された日付以前）
-     * @param status コースのステータス（指定されたステータス）
-     * @return 受講生詳細一覧（条件に一致するもの、または全件）
+     * @param courseName コース名（部分一致検索。一致するコースを持つ受講生と、そのコースのみを返す）
+     * @param startDate コース開始日（指定された日付以降。一致するコースを持つ受講生と、そのコースのみを返す）
+     * @param endDate コース終了日（指定された日付以前。一致するコースを持つ受講生と、そのコースのみを返す）
+     * @param status コースのステータス（指定されたステータスのコースを持つ受講生と、そのコースのみを返す）
+     * @param limit 1ページの取得件数
+     * @param after 前のページの最後の受講生ID（X-Next-Cursorの値）
+     * @param fields 取得する項目（student.name,studentCourseList.currentStatus のようにカンマ区切りで指定）
+     * @param request 条件付きGETの判定に使うリクエスト
+     * @return 受講生詳細一覧（条件に一致するもの、または全件）。変更がない場合はnull（304）。指定できない項目が含まれる場合は400
+     * @throws IOException 指定された項目のJSONへの変換に失敗した場合
      */
-    @Operation(summary = "一覧検索", description = "受講生の一覧を条件付きで検索します。")
+    @Operation(summary = "一覧検索", description = "受講生の一覧を条件付きで検索します。limitを指定するとページ単位で、fieldsを指定すると指定した項目のみを検索します。")
     @GetMapping("/studentList")
-    public List<StudentDetail> getStudentListWithConditions(
+    public ResponseEntity<?> getStudentListWithConditions(
             @RequestParam(value = "name", required = false) String name,
             @RequestParam(value = "courseName", required = false) String courseName,
             @RequestParam(value = "startDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)LocalDateTime
 startDate,
             @RequestParam(value = "endDate", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
-            @RequestParam(value = "status", required = false) String status
-    ) {
-        return service.searchStudentList(name, courseName, startDate, endDate, status);
+            @RequestParam(value = "status", required = false) String status,
+            @RequestParam(value = "limit", required = false) @Min(1) @Max(MAX_PAGE_SIZE) Integer limit,
+            @RequestParam(value = "after", required = false) @Min(0) Integer after,
+            @RequestParam(value = "fields", required = false) String fields,
+            WebRequest request
+    ) throws IOException {
+        StudentFieldSet fieldSet;
+        try {
+            fieldSet = fields == null ? null : StudentFieldSet.parse(fields);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("エラー: " + e.getMessage());
+        }
+        // 検索より前にETagを取得し、検索中の変更は次のリクエストで検知する
+        String eTag = service.getStudentListETag();
+        if (request.checkNotModified(eTag)) {
+            return null;
+        }
+        if (fieldSet != null) {
+            StudentDetailPage page = service.searchStudentListAsOf(eTag,
+                    () -> service.searchStudentFields(name, courseName, startDate, endDate, status, after, limit, fieldSet));
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.getNextCursor() != null) {
+                response.header(NEXT_CURSOR_HEADER, String.valueOf(page.getNextCursor()));
+            }
+            return response.contentType(MediaType.APPLICATION_JSON)
+                    .body(studentFieldsWriter.write(page.getStudentDetailList(), fieldSet));
+        }
+        if (limit == null && after == null) {
+            return ResponseEntity.ok(service.searchStudentListAsOf(eTag,
+                    () -> service.searchStudentList(name, courseName, startDate, endDate, status)));
+        }
+
+        StudentDetailPage page = service.searchStudentListAsOf(eTag,
+                () -> service.searchStudentPage(name, courseName, startDate, endDate, status,
+                        after, limit == null ? DEFAULT_PAGE_SIZE : limit));
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, String.valueOf(page.getNextCursor()));
+        }
+        return response.body(page.getStudentDetailList());
+    }
+
+    /**
+     * 全受講生の受講生詳細をNDJSON形式（1行に1件のJSON）で出力します。
+     * 受講生詳細は組み立てた順にレスポンスへ書き込むため、全件をメモリに保持しません。
+     * @param response レスポンス
+     * @throws IOException レスポンスへの書き込みに失敗した場合
+     */
+    @Operation(summary = "一覧エクスポート", description = "全受講生の詳細をNDJSON形式でストリーミング出力します。")
+    @GetMapping(value = "/studentList/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void exportStudentList(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        OutputStream outputStream = response.getOutputStream();
+        try {
+            service.exportStudentDetails(studentDetail -> {
+                try {
+                    outputStream.write(studentDetailWriter.writeValueAsBytes(studentDetail));
+                    outputStream.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        outputStream.flush();
     }
 
     @Operation(summary = "一覧検索（例外処理）", description = "受講生の一覧検索（エラー）")
@@ -66,20 +184,71 @@ startDate,
     /**
      * 受講生詳細の検索です。
      * IDに紐づく任意の受講生の情報を取得します。
+     * 受講生詳細のETagを返し、If-None-Match が一致する場合は検索を行わずに304を返します。
      * @param id 受講生ID
-     * @return 受講生
+     * @param request 条件付きGETの判定に使うリクエスト
+     * @return 受講生。変更がない場合はnull（304）
      */
     @Operation(summary = "受講生詳細検索", description = "IDに紐づく受講生の情報を検索します。")
     @GetMapping("/student/{id}")
-    public StudentDetail getStudent(
-            @PathVariable
-            @NotBlank
-            @Pattern(regexp = "^\\d+$")
-            @Size(min=1, max=3, message = "IDは1文字以上、3文字以内で指定してください") String id){
-        
+    public StudentDetail getStudent(@PathVariable @Min(0) Integer id, WebRequest request){
+        if (request.checkNotModified(service.getStudentETag(id))) {
+            return null;
+        }
         return service.searchStudent(id);
     }
 
+    /**
+     * 受講生詳細キャッシュの統計情報を取得します。
+     * @return ヒット数・ミス数・追い出し数などの統計情報
+     */
+    @Operation(summary = "受講生詳細キャッシュ統計", description = "受講生詳細キャッシュのヒット数・ミス数・追い出し数を取得します。")
+    @GetMapping("/studentCache/stats")
+    public StudentDetailCacheStats getStudentCacheStats() {
+        return service.getStudentDetailCacheStats();
+    }
+
+    /**
+     * 受講状況の統計を取得します。
+     * 登録や更新のたびに更新している件数を返すため、受講生一覧を取得して集計する必要はありません。
+     * @return コース名ごと・最新ステータスごと・月ごとの受講生コース情報の件数
+     */
+    @Operation(summary = "受講状況統計", description = "コース別・ステータス別・月別の受講生コース情報の件数を取得します。")
+    @GetMapping("/statistics")
+    public StudentStatisticsSummary getStudentStatistics() {
+        return service.getStudentStatistics();
+    }
+
+    /**
+     * 指定された変更連番より後の変更履歴を、変更連番順に取得します。
+     * 受講生一覧を全件取得し直す代わりに、前回の nextSince を指定して変更された受講生のみを取得し直すために使います。
+     * @param since この変更連番より後の変更履歴を取得します。
+     * @param limit 取得する最大件数
+     * @return 変更履歴と次回の取得時に指定する変更連番
+     */
+    @Operation(summary = "変更履歴取得", description = "指定した変更連番より後の受講生・受講生コース情報・コースステータスの変更履歴を取得します。")
+    @GetMapping("/changes")
+    public ChangeLogPage getChanges(
+            @RequestParam(value = "since", defaultValue = "0") @Min(0) long since,
+            @RequestParam(value = "limit", required = false) @Min(1) @Max(StudentChangeFeed.MAX_LIMIT) Integer limit) {
+        return changeFeed.searchChanges(since, limit == null ? StudentChangeFeed.MAX_LIMIT : limit);
+    }
+
+    /**
+     * 指定された変更連番より後の変更履歴を Server-Sent Events で購読します。
+     * イベントIDは変更連番のため、再接続時は Last-Event-ID ヘッダーの変更連番から再開します。
+     * @param since この変更連番より後の変更履歴を送信します。
+     * @param lastEventId 再接続時に送信された最後のイベントID。指定された場合は since より優先します。
+     * @return 変更履歴を送信するエミッター
+     */
+    @Operation(summary = "変更履歴購読", description = "指定した変更連番より後の変更履歴をServer-Sent Eventsで購読します。")
+    @GetMapping(value = "/changes/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(
+            @RequestParam(value = "since", defaultValue = "0") @Min(0) long since,
+            @RequestHeader(value = "Last-Event-ID", required = false) @Min(0) Long lastEventId) {
+        return changeFeed.subscribe(lastEventId != null ? lastEventId : since);
+    }
+
     /**
      * 受講生詳細の登録を行います。
      * @param studentDetail 受講生詳細
@@ -93,6 +262,39 @@ startDate,
         return ResponseEntity.ok(responseStudentDetail);
     }
 
+    /**
+     * 受講生詳細の一括登録を行います。
+     * 受講生詳細のJSON配列を1件ずつ読み込み、入力チェックを通過したものを一定件数ごとにまとめて登録します。
+     * 受講生詳細に変換できない要素は、その1件のみを失敗としてレポートに含めます。
+     * @param inputStream 受講生詳細のJSON配列
+     * @return 1件ごとの登録結果を含むレポート
+     * @throws IOException リクエストの読み込みに失敗した場合
+     */
+    @Operation(summary = "受講生一括登録（JSON）", description = "受講生詳細のJSON配列を一括登録し、1件ごとの結果を返します。")
+    @PostMapping(value = "/importStudents", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StudentImportReport> importStudents(InputStream inputStream) throws IOException {
+        try (MappingIterator<StudentDetail> studentDetails = studentDetailReader.readValues(inputStream)) {
+            return ResponseEntity.ok(importService.importStudents(studentDetails));
+        }
+    }
+
+    /**
+     * 受講生詳細の一括登録をCSVで行います。
+     * 1行目はヘッダー行（name,kanaName,nickname,mailAddress,address,age,gender,remark,courseNames）とし、
+     * 受講するコースは courseNames 列に「|」区切りで指定します。
+     * 読み込めない行がある場合は、その行を失敗としてレポートに含め、それまでの行を登録します。
+     * @param inputStream 受講生のCSV（UTF-8）
+     * @return 1件ごとの登録結果を含むレポート
+     * @throws IOException リクエストの読み込みに失敗した場合
+     */
+    @Operation(summary = "受講生一括登録（CSV）", description = "受講生のCSVを一括登録し、1件ごとの結果を返します。")
+    @PostMapping(value = "/importStudents", consumes = "text/csv")
+    public ResponseEntity<StudentImportReport> importStudentsFromCsv(InputStream inputStream) throws IOException {
+        try (Reader reader = new InputStreamReader(inputStream, StandardCharsets.UTF_8)) {
+            return ResponseEntity.ok(importService.importStudents(csvConverter.readStudentDetails(reader)));
+        }
+    }
+
     /**
      * コースステータスの登録を行います。
      * @param courseStatus コースステータス情報
@@ -113,28 +315,60 @@ startDate,
      * 受講生詳細の更新を行います。
      * キャンセルフラグの更新もここで行います（論理削除）。
      * @param studentDetail 受講生詳細
-     * @return 実行結果
+     * @return 実行結果。受講生のIDが指定されていない場合は400
      */
     @Operation(summary = "受講生詳細更新", description = "受講生詳細を更新します。")
     @PutMapping("/updateStudent")
     public ResponseEntity<String> updateStudent(
             @RequestBody @Valid StudentDetail studentDetail){
-        service.updateStudent(studentDetail);
-        return ResponseEntity.ok("更新処理が成功しました。");
+        try {
+            service.updateStudent(studentDetail);
+            return ResponseEntity.ok("更新処理が成功しました。");
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body("エラー: " + e.getMessage());
+        }
     }
 
+    /**
+     * コースステータスの更新を行います。
+     * 同じコースのステータスが同時に更新された場合は409を返すため、最新のステータスを取得し直してから再度実行します。
+     * @param courseId 受講生コースID
+     * @param status 更新後のステータス
+     * @return 実行結果
+     */
     @Operation(summary = "コースステータス更新", description = "受講生のコースステータスを更新します。")
     @PutMapping("/updateCourseStatus/{courseId}")
     public ResponseEntity<String> updateCourseStatus(
-            @PathVariable String courseId,
+            @PathVariable @Min(0) Integer courseId,
             @RequestParam @NotBlank String status) {
         try {
-            service.updateCourseStatus(courseId, status);
+            service.updateCourseStatus(courseId, CourseStatusType.fromLabel(status));
             return ResponseEntity.ok("コースステータスを更新しました。");
-        } catch (IllegalStateException e) {
+        } catch (IllegalArgumentException | IllegalStateException e) {
             return ResponseEntity.badRequest().body("エラー: " + e.getMessage());
         } catch (NoSuchElementException e) {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("エラー: 指定されたコースが見つかりません。");
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("エラー: コースステータスが同時に更新されました。再度お試しください。");
+        }
+    }
+
+    /**
+     * 最新ステータスが遷移元のステータスであるすべての受講生コースを、遷移先のステータスにまとめて更新します。
+     * @param from 遷移元のステータス
+     * @param to 遷移先のステータス
+     * @return 実行結果
+     */
+    @Operation(summary = "コースステータス一括更新", description = "指定したステータスのコースをまとめて次のステータスに更新します。")
+    @PutMapping("/transitionCourseStatuses")
+    public ResponseEntity<String> transitionCourseStatuses(
+            @RequestParam @NotBlank String from,
+            @RequestParam @NotBlank String to) {
+        try {
+            int updated = service.transitionCourseStatuses(CourseStatusType.fromLabel(from), CourseStatusType.fromLabel(to));
+            return ResponseEntity.ok(updated + "件のコースステータスを更新しました。");
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return ResponseEntity.badRequest().body("エラー: " + e.getMessage());
         }
     }
 
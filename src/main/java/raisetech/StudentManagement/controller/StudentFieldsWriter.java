@@ -0,0 +1,71 @@
+package raisetech.StudentManagement.controller;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import raisetech.StudentManagement.data.Student;
+import raisetech.StudentManagement.data.StudentCourse;
+import raisetech.StudentManagement.domein.StudentDetail;
+import raisetech.StudentManagement.domein.StudentFieldSet;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 受講生詳細の一覧を、指定された項目（fields パラメーター）のみのJSONで出力します。
+ * 受講生詳細・受講生・受講生コース情報にJacksonのプロパティフィルターを設定し、指定されていない項目はシリアライズしません。
+ * フィルターはアプリケーションのObjectMapperの複製にのみ設定するため、他のJSONの出力には影響しません。
+ * 複製は同じ設定を引き継ぐため、IDは文字列、ステータスは表示名で、受講生詳細と同じ形式で出力します。
+ */
+class StudentFieldsWriter {
+
+    private static final String STUDENT_DETAIL_FILTER = "studentDetailFields";
+    private static final String STUDENT_FILTER = "studentFields";
+    private static final String STUDENT_COURSE_FILTER = "studentCourseFields";
+
+    @JsonFilter(STUDENT_DETAIL_FILTER)
+    private abstract static class StudentDetailFields {
+    }
+
+    @JsonFilter(STUDENT_FILTER)
+    private abstract static class StudentFields {
+    }
+
+    @JsonFilter(STUDENT_COURSE_FILTER)
+    private abstract static class StudentCourseFields {
+    }
+
+    private ObjectWriter writer;
+
+    StudentFieldsWriter(ObjectMapper objectMapper) {
+        this.writer = objectMapper.copy()
+                .addMixIn(StudentDetail.class, StudentDetailFields.class)
+                .addMixIn(Student.class, StudentFields.class)
+                .addMixIn(StudentCourse.class, StudentCourseFields.class)
+                .writerFor(new TypeReference<List<StudentDetail>>() {
+                });
+    }
+
+    /**
+     * 受講生詳細の一覧を、指定された項目のみのJSONに変換します。
+     * @param studentDetailList 受講生詳細の一覧
+     * @param fieldSet 出力する項目
+     * @return 指定された項目のみの受講生詳細の一覧のJSON（UTF-8）
+     * @throws JsonProcessingException JSONへの変換に失敗した場合
+     */
+    byte[] write(List<StudentDetail> studentDetailList, StudentFieldSet fieldSet) throws JsonProcessingException {
+        Set<String> studentDetailProperties = fieldSet.includesStudentCourses()
+                ? Set.of("student", "studentCourseList")
+                : Set.of("student");
+        FilterProvider filters = new SimpleFilterProvider()
+                .addFilter(STUDENT_DETAIL_FILTER, SimpleBeanPropertyFilter.filterOutAllExcept(studentDetailProperties))
+                .addFilter(STUDENT_FILTER, SimpleBeanPropertyFilter.filterOutAllExcept(fieldSet.getStudentProperties()))
+                .addFilter(STUDENT_COURSE_FILTER, SimpleBeanPropertyFilter.filterOutAllExcept(fieldSet.getStudentCourseProperties()));
+        return writer.with(filters).writeValueAsBytes(studentDetailList);
+    }
+}
@@ -1,5 +1,7 @@
 package raisetech.StudentManagement.controller.converter;
 
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import org.springframework.stereotype.Component;
 import raisetech.StudentManagement.data.CourseStatus;
 import raisetech.StudentManagement.data.Student;
@@ -7,8 +9,9 @@ import raisetech.StudentManagement.data.StudentCourse;
 import raisetech.StudentManagement.domein.StudentDetail;
 
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
 
 /**
  * 受講生詳細を受講生や受講生コース情報、もしくはその逆の変換を行うコンバーターです。
@@ -16,9 +19,15 @@ import java.util.stream.Collectors;
 @Component
 public class StudentConverter {
 
+    /** 受講生詳細の組み立て時間（アプリケーションのメーターレジストリが登録されるグローバルレジストリに記録する） */
+    private final Timer assemblyTimer = Timer.builder("student.converter.assembly")
+            .description("受講生詳細の組み立て時間")
+            .register(Metrics.globalRegistry);
+
     /**
      * 受講生に紐づく受講生コース情報をマッピングする。
-     * 受講生コース情報は受講生に対して複数存在するのでループを回して受講生詳細情報を組み立てる。
+     * 受講生コース情報は受講生IDごとに、コースステータスは受講生コースIDごとに1回の走査でグループ化し、
+     * 受講生一覧の件数に比例する時間で受講生詳細情報を組み立てる。組み立て時間は student.converter.assembly に記録する。
      * @param studentList 受講生一覧
      * @param studentCourseList 受講生コース情報のリスト
      * @param courseStatusList コースステータスのリスト
@@ -28,15 +37,25 @@ public class StudentConverter {
             List<Student> studentList,
             List<StudentCourse> studentCourseList,
             List<CourseStatus> courseStatusList) {
+        return assemblyTimer.record(() -> assembleStudentDetails(studentList, studentCourseList, courseStatusList));
+    }
+
+    private List<StudentDetail> assembleStudentDetails(
+            List<Student> studentList,
+            List<StudentCourse> studentCourseList,
+            List<CourseStatus> courseStatusList) {
 
-        List<StudentDetail> studentDetails = new ArrayList<>();
+        Map<Integer, List<StudentCourse>> studentCourseMap = groupStudentCourses(studentCourseList);
+        Map<Integer, List<CourseStatus>> courseStatusMap = groupCourseStatuses(courseStatusList);
+
+        List<StudentDetail> studentDetails = new ArrayList<>(studentList.size());
 
         studentList.forEach(student -> {
             StudentDetail studentDetail = new StudentDetail();
             studentDetail.setStudent(student);
 
             // 受講生に紐づくコースを抽出
-            List<StudentCourse> convertStudentCourseList = extractStudentCourses(student, studentCourseList, courseStatusList);
+            List<StudentCourse> convertStudentCourseList = extractStudentCourses(student, studentCourseMap, courseStatusMap);
 
             studentDetail.setStudentCourseList(convertStudentCourseList);
             studentDetails.add(studentDetail);
@@ -48,24 +67,55 @@ public class StudentConverter {
     /**
      * 特定の受講生に紐づく受講生コース情報とそのステータスを抽出する。
      * @param student 受講生
-     * @param studentCourseList 受講生コース情報のリスト
-     * @param courseStatusList コースステータスのリスト
+     * @param studentCourseMap 受講生IDごとにグループ化した受講生コース情報
+     * @param courseStatusMap 受講生コースIDごとにグループ化したコースステータス
      * @return 受講生に紐づくコース情報のリスト
      */
     private List<StudentCourse> extractStudentCourses(
             Student student,
-            List<StudentCourse> studentCourseList,
-            List<CourseStatus> courseStatusList) {
+            Map<Integer, List<StudentCourse>> studentCourseMap,
+            Map<Integer, List<CourseStatus>> courseStatusMap) {
+
+        List<StudentCourse> matchedStudentCourseList = studentCourseMap.get(student.getId());
+        if (matchedStudentCourseList == null) {
+            return new ArrayList<>();
+        }
 
-        return studentCourseList.stream()
-                .filter(studentCourse -> student.getId().equals(studentCourse.getStudentId()))
-                .peek(studentCourse -> {
-                    // 各コースに紐づくステータスを抽出して設定
-                    List<CourseStatus> convertCourseStatusList = courseStatusList.stream()
-                            .filter(courseStatus -> studentCourse.getId().equals(String.valueOf(courseStatus.getStudentsCoursesId())))
-                            .collect(Collectors.toList());
-                    studentCourse.setCourseStatusList(convertCourseStatusList);
-                })
-                .collect(Collectors.toList());
+        List<StudentCourse> convertStudentCourseList = new ArrayList<>(matchedStudentCourseList.size());
+        matchedStudentCourseList.forEach(studentCourse -> {
+            // 各コースに紐づくステータスを抽出して設定
+            List<CourseStatus> matchedCourseStatusList = courseStatusMap.get(studentCourse.getId());
+            studentCourse.setCourseStatusList(matchedCourseStatusList == null
+                    ? new ArrayList<>()
+                    : new ArrayList<>(matchedCourseStatusList));
+            convertStudentCourseList.add(studentCourse);
+        });
+        return convertStudentCourseList;
+    }
+
+    /**
+     * 受講生コース情報を受講生IDごとにグループ化する。元のリストの順序はグループ内で保持される。
+     * @param studentCourseList 受講生コース情報のリスト
+     * @return 受講生IDをキーとした受講生コース情報のマップ
+     */
+    private Map<Integer, List<StudentCourse>> groupStudentCourses(List<StudentCourse> studentCourseList) {
+        Map<Integer, List<StudentCourse>> studentCourseMap = new HashMap<>();
+        studentCourseList.forEach(studentCourse -> studentCourseMap
+                .computeIfAbsent(studentCourse.getStudentId(), key -> new ArrayList<>())
+                .add(studentCourse));
+        return studentCourseMap;
+    }
+
+    /**
+     * コースステータスを受講生コースIDごとにグループ化する。元のリストの順序はグループ内で保持される。
+     * @param courseStatusList コースステータスのリスト
+     * @return 受講生コースIDをキーとしたコースステータスのマップ
+     */
+    private Map<Integer, List<CourseStatus>> groupCourseStatuses(List<CourseStatus> courseStatusList) {
+        Map<Integer, List<CourseStatus>> courseStatusMap = new HashMap<>();
+        courseStatusList.forEach(courseStatus -> courseStatusMap
+                .computeIfAbsent(courseStatus.getStudentsCoursesId(), key -> new ArrayList<>())
+                .add(courseStatus));
+        return courseStatusMap;
     }
 }
@@ -0,0 +1,84 @@
+package raisetech.StudentManagement.controller.converter;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVRecord;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.commons.lang3.math.NumberUtils;
+import org.springframework.stereotype.Component;
+import raisetech.StudentManagement.data.Student;
+import raisetech.StudentManagement.data.StudentCourse;
+import raisetech.StudentManagement.domein.StudentDetail;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * CSVの各行を受講生詳細に変換するコンバーターです。
+ * 1行目はヘッダー行とし、列名で値を取得します。受講したコースは courseNames 列に「|」区切りで指定します。
+ */
+@Component
+public class StudentCsvConverter {
+
+    private static final CSVFormat CSV_FORMAT = CSVFormat.DEFAULT.builder()
+            .setHeader()
+            .setSkipHeaderRecord(true)
+            .setTrim(true)
+            .setIgnoreEmptyLines(true)
+            .build();
+
+    /**
+     * CSVを1行ずつ受講生詳細に変換するイテレーターを返します。
+     * 行は読み込まれた時点で変換するため、CSV全体をメモリに保持しません。
+     * @param reader CSVのリーダー
+     * @return 受講生詳細のイテレーター
+     * @throws IOException ヘッダー行の読み込みに失敗した場合
+     */
+    public Iterator<StudentDetail> readStudentDetails(Reader reader) throws IOException {
+        Iterator<CSVRecord> records = CSV_FORMAT.parse(reader).iterator();
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return records.hasNext();
+            }
+
+            @Override
+            public StudentDetail next() {
+                return convertStudentDetail(records.next());
+            }
+        };
+    }
+
+    /**
+     * CSVの1行を受講生詳細に変換します。
+     * @param record CSVの1行
+     * @return 受講生詳細
+     */
+    StudentDetail convertStudentDetail(CSVRecord record) {
+        Student student = new Student();
+        student.setName(get(record, "name"));
+        student.setKanaName(get(record, "kanaName"));
+        student.setNickname(get(record, "nickname"));
+        student.setMailAddress(get(record, "mailAddress"));
+        student.setAddress(get(record, "address"));
+        // 数値でない年齢は入力チェックでエラーとなるよう負の値にする
+        String age = get(record, "age");
+        student.setAge(StringUtils.isEmpty(age) ? 0 : NumberUtils.toInt(age, -1));
+        student.setGender(get(record, "gender"));
+        student.setRemark(get(record, "remark"));
+
+        List<StudentCourse> studentCourseList = new ArrayList<>();
+        for (String courseName : StringUtils.split(StringUtils.defaultString(get(record, "courseNames")), '|')) {
+            StudentCourse studentCourse = new StudentCourse();
+            studentCourse.setCourseName(courseName.trim());
+            studentCourseList.add(studentCourse);
+        }
+        return new StudentDetail(student, studentCourseList);
+    }
+
+    private String get(CSVRecord record, String name) {
+        return record.isMapped(name) && record.isSet(name) ? record.get(name) : null;
+    }
+}
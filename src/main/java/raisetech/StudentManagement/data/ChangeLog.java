@@ -0,0 +1,53 @@
+package raisetech.StudentManagement.data;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Schema(description = "受講生・受講生コース情報・コースステータスの変更履歴")
+@Getter
+@Setter
+@NoArgsConstructor
+public class ChangeLog {
+
+    /** 変更された対象の種類 */
+    public enum EntityType {
+        STUDENT, STUDENT_COURSE, COURSE_STATUS
+    }
+
+    /** 変更の種類 */
+    public enum Operation {
+        INSERT, UPDATE
+    }
+
+    /** 変更連番（登録順に増加する。次回の取得時に since として指定する） */
+    private Long seq;
+
+    /** 変更された受講生の受講生ID（JSONでは従来どおり文字列で出力する） */
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    @Schema(type = "string", example = "1")
+    private Integer studentId;
+
+    private EntityType entityType;
+
+    /** 変更された受講生・受講生コース情報・コースステータスのID（JSONでは従来どおり文字列で出力する） */
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    @Schema(type = "string", example = "1")
+    private Integer entityId;
+
+    private Operation operation;
+
+    private LocalDateTime changedAt;
+
+    public ChangeLog(Integer studentId, EntityType entityType, Integer entityId, Operation operation) {
+        this.studentId = studentId;
+        this.entityType = entityType;
+        this.entityId = entityId;
+        this.operation = operation;
+    }
+
+}
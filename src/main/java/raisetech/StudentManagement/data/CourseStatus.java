@@ -1,8 +1,8 @@
 package raisetech.StudentManagement.data;
 
+import com.fasterxml.jackson.annotation.JsonFormat;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.NotNull;
-import jakarta.validation.constraints.Pattern;
 import lombok.Getter;
 import lombok.Setter;
 
@@ -11,13 +11,19 @@ import lombok.Setter;
 @Setter
 public class CourseStatus {
 
-    private String id;
+    /** コースステータスID（JSONでは従来どおり文字列で入出力する） */
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    @Schema(type = "string", example = "1")
+    private Integer id;
 
+    /** 受講生コースID（JSONでは従来どおり文字列で入出力する） */
     @NotNull
-    private String studentsCoursesId;
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    @Schema(type = "string", example = "1")
+    private Integer studentsCoursesId;
 
+    /** コースステータス（データベースにはコードで保持し、JSONでは表示名で入出力する） */
     @NotNull
-    @Pattern(regexp = "仮申込|本申込|受講中|受講終了", message = "無効なステータス値です")
-    private String status;
+    private CourseStatusType status;
 
 }
@@ -0,0 +1,86 @@
+package raisetech.StudentManagement.data;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonValue;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+
+import java.util.Optional;
+
+/**
+ * コースステータスの種類です。
+ * データベースには整数のコードで、JSONでは従来どおり表示名（仮申込・本申込・受講中・受講終了）で入出力します。
+ */
+@Schema(description = "コースステータス", type = "string", allowableValues = {"仮申込", "本申込", "受講中", "受講終了"})
+@Getter
+public enum CourseStatusType {
+
+    PROVISIONAL(1, "仮申込"),
+    CONFIRMED(2, "本申込"),
+    IN_PROGRESS(3, "受講中"),
+    COMPLETED(4, "受講終了");
+
+    /** コードを添字としたコースステータスの表（0は欠番） */
+    private static final CourseStatusType[] BY_CODE = new CourseStatusType[values().length + 1];
+
+    static {
+        for (CourseStatusType type : values()) {
+            BY_CODE[type.code] = type;
+        }
+    }
+
+    /** データベースに保持するコード */
+    private final int code;
+
+    /** 表示名 */
+    private final String label;
+
+    CourseStatusType(int code, String label) {
+        this.code = code;
+        this.label = label;
+    }
+
+    @JsonValue
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * コードに対応するコースステータスを返します。
+     * @param code データベースに保持するコード
+     * @return コースステータス
+     * @throws IllegalArgumentException 対応するコースステータスがない場合
+     */
+    public static CourseStatusType fromCode(int code) {
+        if (code <= 0 || code >= BY_CODE.length) {
+            throw new IllegalArgumentException("無効なステータスコードです: " + code);
+        }
+        return BY_CODE[code];
+    }
+
+    /**
+     * 表示名に対応するコースステータスを返します。
+     * @param label 表示名
+     * @return コースステータス
+     * @throws IllegalArgumentException 対応するコースステータスがない場合
+     */
+    @JsonCreator
+    public static CourseStatusType fromLabel(String label) {
+        return findByLabel(label)
+                .orElseThrow(() -> new IllegalArgumentException("無効なステータス値です: " + label));
+    }
+
+    /**
+     * 表示名に対応するコースステータスを検索します。
+     * @param label 表示名
+     * @return コースステータス。対応するコースステータスがない場合は空
+     */
+    public static Optional<CourseStatusType> findByLabel(String label) {
+        for (CourseStatusType type : values()) {
+            if (type.label.equals(label)) {
+                return Optional.of(type);
+            }
+        }
+        return Optional.empty();
+    }
+}
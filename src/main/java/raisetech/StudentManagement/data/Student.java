@@ -1,5 +1,6 @@
 package raisetech.StudentManagement.data;
 
+import com.fasterxml.jackson.annotation.JsonFormat;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.Min;
@@ -13,8 +14,10 @@ import lombok.Setter;
 @Setter
 public class Student {
 
-    @Pattern(regexp = "^\\d+$", message = "数字のみ入力するようにしてください。")
-    private String id;
+    /** 受講生ID（JSONでは従来どおり文字列で入出力する） */
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    @Schema(type = "string", example = "1")
+    private Integer id;
 
     @NotBlank
     private String name;
@@ -1,5 +1,6 @@
 package raisetech.StudentManagement.data;
 
+import com.fasterxml.jackson.annotation.JsonFormat;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Getter;
 import lombok.Setter;
@@ -12,11 +13,22 @@ import java.util.List;
 @Getter
 @Setter
 public class StudentCourse {
-    private String id;
-    private String studentId;
+    /** 受講生コースID（JSONでは従来どおり文字列で入出力する） */
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    @Schema(type = "string", example = "1")
+    private Integer id;
+
+    /** 受講生ID（JSONでは従来どおり文字列で入出力する） */
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    @Schema(type = "string", example = "1")
+    private Integer studentId;
+
     private String courseName;
     private LocalDateTime courseStartAt;
     private LocalDateTime courseEndAt;
 
+    /** 最新のコースステータス（コースステータスの履歴のうち最後に登録されたもの） */
+    private CourseStatusType currentStatus;
+
     private List<CourseStatus> courseStatusList = new ArrayList<>();
 }
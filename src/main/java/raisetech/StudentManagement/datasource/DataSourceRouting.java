@@ -0,0 +1,102 @@
+package raisetech.StudentManagement.datasource;
+
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.Callable;
+import java.util.function.Supplier;
+
+/**
+ * 検索をプライマリとレプリカのどちらで実行するかを、実行中のスレッドごとに判定します。
+ * 読み取り専用のトランザクション（{@code @Transactional(readOnly = true)}）の検索はレプリカ、それ以外はプライマリで実行します。
+ * 更新したクライアントの検索は、レプリカの遅延で更新前の内容を返さないよう、読み取り専用でもプライマリで実行します。
+ */
+public final class DataSourceRouting {
+
+    /** 検索を実行するデータベース */
+    public enum Route {
+        PRIMARY, REPLICA
+    }
+
+    /** 他のスレッドから引き継いだ振り分け先 */
+    private static final ThreadLocal<Route> INHERITED_ROUTE = new ThreadLocal<>();
+
+    /** 更新したクライアントの検索のため、プライマリで実行する場合はtrue */
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    private DataSourceRouting() {
+    }
+
+    /**
+     * 現在のスレッドの検索を実行するデータベースを判定します。
+     * @return 振り分け先
+     */
+    public static Route currentRoute() {
+        Route inherited = INHERITED_ROUTE.get();
+        if (inherited != null) {
+            return inherited;
+        }
+        if (Boolean.TRUE.equals(PRIMARY_REQUIRED.get())) {
+            return Route.PRIMARY;
+        }
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? Route.REPLICA : Route.PRIMARY;
+    }
+
+    /**
+     * 呼び出し元のスレッドの振り分け先を、別のスレッドで実行する処理に引き継ぎます。
+     * トランザクションは別のスレッドに引き継がれないため、読み取り専用のトランザクションから並列に実行する検索もレプリカで実行するために使います。
+     * @param task 別のスレッドで実行する処理
+     * @return 呼び出し元の振り分け先で実行する処理
+     */
+    public static <T> Callable<T> inheritRoute(Callable<T> task) {
+        Route route = currentRoute();
+        return () -> {
+            Route previous = INHERITED_ROUTE.get();
+            INHERITED_ROUTE.set(route);
+            try {
+                return task.call();
+            } finally {
+                restoreRoute(previous);
+            }
+        };
+    }
+
+    /**
+     * 処理の中の検索を、読み取り専用のトランザクションでもプライマリで実行します。
+     * レプリカの遅延で更新前の内容を共有のキャッシュに格納したり、最新のETagを付けて返したりしないために使います。
+     * 接続は最初のSQLの実行時に振り分けるため、トランザクションの中で既にSQLを実行した後に呼び出しても振り分け先は変わりません。
+     * @param task プライマリで実行する処理
+     * @return 処理の結果
+     */
+    public static <T> T onPrimary(Supplier<T> task) {
+        Route previous = INHERITED_ROUTE.get();
+        INHERITED_ROUTE.set(Route.PRIMARY);
+        try {
+            return task.get();
+        } finally {
+            restoreRoute(previous);
+        }
+    }
+
+    private static void restoreRoute(Route previous) {
+        if (previous == null) {
+            INHERITED_ROUTE.remove();
+        } else {
+            INHERITED_ROUTE.set(previous);
+        }
+    }
+
+    /**
+     * 現在のスレッドの検索を、読み取り専用のトランザクションでもプライマリで実行します。
+     * {@link #clear()} を呼び出すまで有効です。
+     */
+    static void requirePrimary() {
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+    }
+
+    /**
+     * 現在のスレッドの {@link #requirePrimary()} を解除します。
+     */
+    static void clear() {
+        PRIMARY_REQUIRED.remove();
+    }
+}
@@ -0,0 +1,73 @@
+package raisetech.StudentManagement.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * レプリカ（student.datasource.replica.url）が指定された場合に、プライマリとレプリカの接続プールを作成し、
+ * 読み取り専用の検索をレプリカに振り分けるデータソースをアプリケーションのデータソースにします。
+ * プライマリは spring.datasource、レプリカは student.datasource.replica の設定で作成します。
+ * レプリカが指定されない場合は、Spring Boot の既定どおり spring.datasource のみを使います。
+ */
+@Configuration
+@ConditionalOnProperty("student.datasource.replica.url")
+public class ReadWriteDataSourceConfig implements WebMvcConfigurer {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("student.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(@Value("${student.datasource.replica.url}") String url,
+                                              @Value("${student.datasource.replica.username:}") String username,
+                                              @Value("${student.datasource.replica.password:}") String password) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    /**
+     * アプリケーションのデータソースです。MyBatis・トランザクション・Flyway はこのデータソースを使います。
+     * 読み取り専用かどうかはトランザクションの開始後に確定するため、接続は最初のSQLの実行時に取得します。
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                 @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                                 @Value("${student.datasource.replica.fallback-to-primary:true}") boolean fallbackToPrimary,
+                                 @Value("${student.datasource.replica.retry-after:30s}") Duration retryAfter) {
+        return new LazyConnectionDataSourceProxy(
+                new ReadWriteRoutingDataSource(primaryDataSource, replicaDataSource, fallbackToPrimary, retryAfter));
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ReadYourWritesInterceptor(Clock.systemUTC()));
+    }
+}
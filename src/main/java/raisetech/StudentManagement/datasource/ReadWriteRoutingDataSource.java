@@ -0,0 +1,74 @@
+package raisetech.StudentManagement.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * 読み取り専用の検索をレプリカ、それ以外をプライマリの接続プールに振り分けるデータソースです。
+ * 振り分け先は {@link DataSourceRouting} で判定します。
+ * トランザクションの開始時ではなく最初のSQLの実行時に接続を取得する必要があるため、
+ * {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy} で包んで使います。
+ * レプリカに接続できない場合は、設定によりプライマリで検索するか、接続の失敗をそのまま呼び出し元に返します。
+ * プライマリで検索する場合は、接続できなかった後の一定時間はレプリカへの接続を試みずにプライマリで検索します。
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    private DataSource primary;
+    private DataSource replica;
+    private boolean fallbackToPrimary;
+    private Duration retryAfter;
+    /** レプリカへの接続を再び試みる時刻（System.nanoTime） */
+    private volatile long replicaRetryAt;
+    private volatile boolean replicaUnavailable;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, boolean fallbackToPrimary, Duration retryAfter) {
+        this.primary = primary;
+        this.replica = replica;
+        this.fallbackToPrimary = fallbackToPrimary;
+        this.retryAfter = retryAfter;
+        setTargetDataSources(Map.of(DataSourceRouting.Route.PRIMARY, primary, DataSourceRouting.Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (DataSourceRouting.currentRoute() == DataSourceRouting.Route.PRIMARY || isReplicaSuspended()) {
+            return DataSourceRouting.Route.PRIMARY;
+        }
+        return DataSourceRouting.Route.REPLICA;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (determineCurrentLookupKey() == DataSourceRouting.Route.PRIMARY) {
+            return primary.getConnection();
+        }
+        try {
+            Connection connection = replica.getConnection();
+            replicaUnavailable = false;
+            return connection;
+        } catch (SQLException e) {
+            if (!fallbackToPrimary) {
+                throw e;
+            }
+            replicaRetryAt = System.nanoTime() + retryAfter.toNanos();
+            replicaUnavailable = true;
+            return primary.getConnection();
+        }
+    }
+
+    /**
+     * レプリカに接続できなかった後、再び接続を試みるまでの間かどうかを判定します。
+     * @return レプリカへの接続を試みずにプライマリで検索する場合はtrue
+     */
+    boolean isReplicaSuspended() {
+        return replicaUnavailable && System.nanoTime() - replicaRetryAt < 0;
+    }
+}
@@ -0,0 +1,68 @@
+package raisetech.StudentManagement.datasource;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * 更新のリクエスト（GET・HEAD・OPTIONS 以外）が成功した場合に、プライマリで検索する期限をクッキーに設定します。
+ * クッキーはレスポンスの本文を書き込む前に、ステータスが 2xx の場合のみ設定するため、
+ * 入力チェックのエラーなどで更新されなかったリクエストでは、以降の検索がレプリカに振り分けられたままになります。
+ * @see ReadYourWritesInterceptor
+ */
+@ControllerAdvice
+@ConditionalOnProperty("student.datasource.replica.url")
+public class ReadYourWritesCookieAdvice implements ResponseBodyAdvice<Object> {
+
+    private Duration window;
+    private Clock clock;
+
+    @Autowired
+    public ReadYourWritesCookieAdvice(@Value("${student.datasource.read-your-writes-window:5s}") Duration window) {
+        this(window, Clock.systemUTC());
+    }
+
+    ReadYourWritesCookieAdvice(Duration window, Clock clock) {
+        this.window = window;
+        this.clock = clock;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (!ReadYourWritesInterceptor.isReadMethod(request.getMethod().name())
+                && response instanceof ServletServerHttpResponse servletResponse
+                && HttpStatusCode.valueOf(servletResponse.getServletResponse().getStatus()).is2xxSuccessful()) {
+            addCookie(servletResponse.getServletResponse());
+        }
+        return body;
+    }
+
+    private void addCookie(HttpServletResponse response) {
+        Cookie cookie = new Cookie(ReadYourWritesInterceptor.COOKIE_NAME, String.valueOf(clock.millis() + window.toMillis()));
+        cookie.setPath("/");
+        cookie.setHttpOnly(true);
+        cookie.setMaxAge((int) Math.max(1, window.toSeconds()));
+        response.addCookie(cookie);
+    }
+}
@@ -0,0 +1,76 @@
+package raisetech.StudentManagement.datasource;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.time.Clock;
+import java.util.Set;
+
+/**
+ * 更新したクライアントが、レプリカに反映される前の内容を検索しないようにするインターセプターです。
+ * 更新のリクエスト（GET・HEAD・OPTIONS 以外）はプライマリで実行し、
+ * 更新が成功したときに {@link ReadYourWritesCookieAdvice} がクッキーに設定した時刻までの同じクライアントの検索は、
+ * 読み取り専用のトランザクションでもプライマリで実行します。
+ */
+public class ReadYourWritesInterceptor implements AsyncHandlerInterceptor {
+
+    static final String COOKIE_NAME = "student-read-your-writes";
+
+    private static final Set<String> READ_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private Clock clock;
+
+    public ReadYourWritesInterceptor(Clock clock) {
+        this.clock = clock;
+    }
+
+    /**
+     * 検索のリクエストのメソッドかどうかを判定します。
+     * @param method HTTPメソッド
+     * @return GET・HEAD・OPTIONS の場合はtrue
+     */
+    static boolean isReadMethod(String method) {
+        return READ_METHODS.contains(method);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!isReadMethod(request.getMethod()) || primaryRequiredUntil(request) > clock.millis()) {
+            DataSourceRouting.requirePrimary();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        DataSourceRouting.clear();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        DataSourceRouting.clear();
+    }
+
+    /**
+     * クッキーに設定した、プライマリで検索する期限を取得します。
+     * @param request リクエスト
+     * @return 期限（エポックミリ秒）。クッキーがない場合や値が不正な場合は0
+     */
+    private long primaryRequiredUntil(HttpServletRequest request) {
+        if (request.getCookies() == null) {
+            return 0;
+        }
+        for (Cookie cookie : request.getCookies()) {
+            if (COOKIE_NAME.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 0;
+    }
+}
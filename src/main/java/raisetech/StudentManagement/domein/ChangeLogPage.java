@@ -0,0 +1,27 @@
+package raisetech.StudentManagement.domein;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import raisetech.StudentManagement.data.ChangeLog;
+
+import java.util.List;
+
+@Schema(description = "変更連番より後の変更履歴")
+@Getter
+@AllArgsConstructor
+public class ChangeLogPage {
+
+    private List<ChangeLog> changeLogList;
+
+    /**
+     * 次回の取得時に since として指定する変更連番。取得した変更履歴がない場合は指定された since と同じ値です。
+     */
+    private Long nextSince;
+
+    /**
+     * 続きの変更履歴がある可能性がある場合はtrueです。falseになるまで nextSince を指定して取得を続けます。
+     */
+    private boolean hasMore;
+
+}
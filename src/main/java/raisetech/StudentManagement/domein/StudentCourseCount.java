@@ -0,0 +1,23 @@
+package raisetech.StudentManagement.domein;
+
+import lombok.Getter;
+import lombok.Setter;
+import raisetech.StudentManagement.data.CourseStatusType;
+
+/**
+ * コース名・最新ステータス・受講期間の年月ごとに集計した受講生コース情報の件数です。
+ * 受講状況の統計を起動時に再構築する際に使います。
+ */
+@Getter
+@Setter
+public class StudentCourseCount {
+
+    private String courseName;
+    private CourseStatusType currentStatus;
+    private Integer startYear;
+    private Integer startMonth;
+    private Integer endYear;
+    private Integer endMonth;
+    private long courseCount;
+
+}
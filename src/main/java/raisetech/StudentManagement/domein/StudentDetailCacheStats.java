@@ -0,0 +1,18 @@
+package raisetech.StudentManagement.domein;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Schema(description = "受講生詳細キャッシュの統計情報")
+@Getter
+@AllArgsConstructor
+public class StudentDetailCacheStats {
+
+    private long size;
+    private long hitCount;
+    private long missCount;
+    private long evictionCount;
+    private double hitRate;
+
+}
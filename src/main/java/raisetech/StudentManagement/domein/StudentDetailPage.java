@@ -0,0 +1,21 @@
+package raisetech.StudentManagement.domein;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Schema(description = "受講生詳細の1ページ分の検索結果")
+@Getter
+@AllArgsConstructor
+public class StudentDetailPage {
+
+    private List<StudentDetail> studentDetailList;
+
+    /**
+     * 次のページを取得する際に指定する受講生ID。次のページが存在しない場合はnullです。
+     */
+    private Integer nextCursor;
+
+}
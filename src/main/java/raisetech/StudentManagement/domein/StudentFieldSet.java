@@ -0,0 +1,150 @@
+package raisetech.StudentManagement.domein;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 受講生詳細の一覧検索で取得・出力する項目（fields パラメーター）です。
+ * 項目は受講生詳細のJSONのパス（student.name、studentCourseList.currentStatus など）をカンマ区切りで指定し、
+ * student または studentCourseList のみを指定した場合はその配下のすべての項目を取得します。
+ * 検索する列は下記の対応表に含まれるもののみのため、指定された値がそのままSQLに含まれることはありません。
+ * 受講生ID・受講生コースID・受講生コース情報の受講生IDは、受講生詳細の組み立てに必要なため常に取得します。
+ */
+@Getter
+public class StudentFieldSet {
+
+    private static final String STUDENT = "student";
+    private static final String STUDENT_COURSE_LIST = "studentCourseList";
+    private static final String COURSE_STATUS_LIST = "courseStatusList";
+
+    /** 受講生の項目（JSONのプロパティ名）と列名の対応表 */
+    private static final Map<String, String> STUDENT_COLUMNS = new LinkedHashMap<>();
+
+    /** 受講生コース情報の項目（JSONのプロパティ名）と列名の対応表 */
+    private static final Map<String, String> STUDENT_COURSE_COLUMNS = new LinkedHashMap<>();
+
+    static {
+        STUDENT_COLUMNS.put("id", "id");
+        STUDENT_COLUMNS.put("name", "name");
+        STUDENT_COLUMNS.put("kanaName", "kana_name");
+        STUDENT_COLUMNS.put("nickname", "nickname");
+        STUDENT_COLUMNS.put("mailAddress", "mail_address");
+        STUDENT_COLUMNS.put("address", "address");
+        STUDENT_COLUMNS.put("age", "age");
+        STUDENT_COLUMNS.put("gender", "gender");
+        STUDENT_COLUMNS.put("remark", "remark");
+        STUDENT_COLUMNS.put("deleted", "isDeleted");
+
+        STUDENT_COURSE_COLUMNS.put("id", "id");
+        STUDENT_COURSE_COLUMNS.put("studentId", "student_id");
+        STUDENT_COURSE_COLUMNS.put("courseName", "course_name");
+        STUDENT_COURSE_COLUMNS.put("courseStartAt", "course_start_at");
+        STUDENT_COURSE_COLUMNS.put("courseEndAt", "course_end_at");
+        STUDENT_COURSE_COLUMNS.put("currentStatus", "current_status");
+    }
+
+    /** 出力する受講生の項目 */
+    private Set<String> studentProperties = new LinkedHashSet<>();
+
+    /** 出力する受講生コース情報の項目（コースステータスを含む場合は courseStatusList） */
+    private Set<String> studentCourseProperties = new LinkedHashSet<>();
+
+    private StudentFieldSet() {
+    }
+
+    /**
+     * fields パラメーターの値を解析します。
+     * @param fields カンマ区切りの項目
+     * @return 取得・出力する項目
+     * @throws IllegalArgumentException 指定できない項目が含まれる場合、または項目が指定されていない場合
+     */
+    public static StudentFieldSet parse(String fields) {
+        StudentFieldSet fieldSet = new StudentFieldSet();
+        for (String field : fields.split(",")) {
+            String trimmed = field.trim();
+            if (!trimmed.isEmpty()) {
+                fieldSet.add(trimmed);
+            }
+        }
+        if (fieldSet.studentProperties.isEmpty() && fieldSet.studentCourseProperties.isEmpty()) {
+            throw new IllegalArgumentException("取得する項目を指定してください。");
+        }
+        fieldSet.studentProperties.add("id");
+        if (!fieldSet.studentCourseProperties.isEmpty()) {
+            fieldSet.studentCourseProperties.add("id");
+        }
+        return fieldSet;
+    }
+
+    private void add(String field) {
+        if (field.equals(STUDENT)) {
+            studentProperties.addAll(STUDENT_COLUMNS.keySet());
+        } else if (field.equals(STUDENT_COURSE_LIST)) {
+            studentCourseProperties.addAll(STUDENT_COURSE_COLUMNS.keySet());
+            studentCourseProperties.add(COURSE_STATUS_LIST);
+        } else if (field.startsWith(STUDENT + ".") && STUDENT_COLUMNS.containsKey(field.substring(STUDENT.length() + 1))) {
+            studentProperties.add(field.substring(STUDENT.length() + 1));
+        } else if (field.startsWith(STUDENT_COURSE_LIST + ".")
+                && (STUDENT_COURSE_COLUMNS.containsKey(field.substring(STUDENT_COURSE_LIST.length() + 1))
+                || field.substring(STUDENT_COURSE_LIST.length() + 1).equals(COURSE_STATUS_LIST))) {
+            studentCourseProperties.add(field.substring(STUDENT_COURSE_LIST.length() + 1));
+        } else {
+            throw new IllegalArgumentException("指定できない項目です: " + field);
+        }
+    }
+
+    /**
+     * 受講生コース情報を検索するかを判定します。
+     * @return 受講生コース情報またはコースステータスの項目が指定された場合はtrue
+     */
+    public boolean includesStudentCourses() {
+        return !studentCourseProperties.isEmpty();
+    }
+
+    /**
+     * コースステータスを検索するかを判定します。
+     * @return コースステータスが指定された場合はtrue
+     */
+    public boolean includesCourseStatuses() {
+        return studentCourseProperties.contains(COURSE_STATUS_LIST);
+    }
+
+    /**
+     * 検索する受講生の列名を取得します。
+     * @return 受講生の列名（受講生IDを含む）
+     */
+    public List<String> getStudentColumns() {
+        return toColumns(studentProperties, STUDENT_COLUMNS);
+    }
+
+    /**
+     * 検索する受講生コース情報の列名を取得します。
+     * @return 受講生コース情報の列名（受講生コースIDと受講生IDを含む）
+     */
+    public List<String> getStudentCourseColumns() {
+        List<String> columns = toColumns(studentCourseProperties, STUDENT_COURSE_COLUMNS);
+        if (!columns.contains("student_id")) {
+            columns.add("student_id");
+        }
+        return columns;
+    }
+
+    /**
+     * 項目を対応表の順の列名に変換します。対応表にない項目（courseStatusList）は列名に含めません。
+     */
+    private List<String> toColumns(Set<String> properties, Map<String, String> columnMap) {
+        List<String> columns = new ArrayList<>();
+        columnMap.forEach((property, column) -> {
+            if (properties.contains(property)) {
+                columns.add(column);
+            }
+        });
+        return columns;
+    }
+}
@@ -0,0 +1,24 @@
+package raisetech.StudentManagement.domein;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+
+import java.util.List;
+
+@Schema(description = "受講生一括登録の結果レポート")
+@Getter
+public class StudentImportReport {
+
+    private int total;
+    private int succeeded;
+    private int failed;
+    private List<StudentImportResult> results;
+
+    public StudentImportReport(List<StudentImportResult> results) {
+        this.results = results;
+        this.total = results.size();
+        this.succeeded = (int) results.stream().filter(StudentImportResult::isSuccess).count();
+        this.failed = total - succeeded;
+    }
+
+}
@@ -0,0 +1,39 @@
+package raisetech.StudentManagement.domein;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Schema(description = "受講生一括登録の1件ごとの結果")
+@Getter
+@Setter
+public class StudentImportResult {
+
+    /**
+     * 登録データ内の位置（0始まり）
+     */
+    private int index;
+
+    private boolean success;
+
+    /**
+     * 登録に成功した場合に採番された受講生ID（JSONでは従来どおり文字列で出力する）
+     */
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    @Schema(type = "string", example = "1")
+    private Integer studentId;
+
+    /**
+     * 入力チェックや登録に失敗した理由
+     */
+    private List<String> messages = new ArrayList<>();
+
+    public StudentImportResult(int index) {
+        this.index = index;
+    }
+
+}
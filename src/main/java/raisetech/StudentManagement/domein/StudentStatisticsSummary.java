@@ -0,0 +1,29 @@
+package raisetech.StudentManagement.domein;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Map;
+
+@Schema(description = "受講状況の統計")
+@Getter
+@AllArgsConstructor
+public class StudentStatisticsSummary {
+
+    /**
+     * コース名ごとの受講生コース情報の件数
+     */
+    private Map<String, Long> courseCounts;
+
+    /**
+     * 最新ステータス（表示名）ごとの受講生コース情報の件数
+     */
+    private Map<String, Long> statusCounts;
+
+    /**
+     * 年月（yyyy-MM）ごとの、受講期間がその月を含む受講生コース情報の件数
+     */
+    private Map<String, Long> monthlyActiveCounts;
+
+}
@@ -1,5 +1,7 @@
 package raisetech.StudentManagement.exceptionHandler;
 
+import com.fasterxml.jackson.databind.RuntimeJsonMappingException;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -12,4 +14,14 @@ public class ExceptionHandlerClass {
         return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(ex.getMessage());
     }
 
+    @ExceptionHandler(RuntimeJsonMappingException.class)
+    public ResponseEntity<String> handleImportFormatException(RuntimeJsonMappingException ex){
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("登録データの形式が正しくありません: " + ex.getMessage());
+    }
+
+    @ExceptionHandler(QueryTimeoutException.class)
+    public ResponseEntity<String> handleQueryTimeoutException(QueryTimeoutException ex){
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("検索がタイムアウトしました。時間をおいて再度お試しください。");
+    }
+
 }
@@ -0,0 +1,45 @@
+package raisetech.StudentManagement.repository;
+
+import org.apache.ibatis.type.BaseTypeHandler;
+import org.apache.ibatis.type.JdbcType;
+import org.apache.ibatis.type.MappedJdbcTypes;
+import org.apache.ibatis.type.MappedTypes;
+import raisetech.StudentManagement.data.CourseStatusType;
+
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * コースステータスをデータベースの整数のコードと相互に変換するMyBatisのタイプハンドラーです。
+ * mybatis.type-handlers-package で登録し、CourseStatusType の引数と結果にはすべてこのハンドラーが使われます。
+ */
+@MappedTypes(CourseStatusType.class)
+@MappedJdbcTypes(JdbcType.TINYINT)
+public class CourseStatusTypeHandler extends BaseTypeHandler<CourseStatusType> {
+
+    @Override
+    public void setNonNullParameter(PreparedStatement ps, int i, CourseStatusType parameter, JdbcType jdbcType) throws SQLException {
+        ps.setInt(i, parameter.getCode());
+    }
+
+    @Override
+    public CourseStatusType getNullableResult(ResultSet rs, String columnName) throws SQLException {
+        return toCourseStatusType(rs.getInt(columnName), rs.wasNull());
+    }
+
+    @Override
+    public CourseStatusType getNullableResult(ResultSet rs, int columnIndex) throws SQLException {
+        return toCourseStatusType(rs.getInt(columnIndex), rs.wasNull());
+    }
+
+    @Override
+    public CourseStatusType getNullableResult(CallableStatement cs, int columnIndex) throws SQLException {
+        return toCourseStatusType(cs.getInt(columnIndex), cs.wasNull());
+    }
+
+    private CourseStatusType toCourseStatusType(int code, boolean wasNull) {
+        return wasNull ? null : CourseStatusType.fromCode(code);
+    }
+}
@@ -0,0 +1,98 @@
+package raisetech.StudentManagement.repository;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+
+/**
+ * マッパーのステートメントごとに実行時間と件数を記録するMyBatisのインターセプターです。
+ * 実行時間は student.mapper.statement、検索で取得した件数と更新した件数は student.mapper.rows に、
+ * ステートメント名（StudentRepository のメソッド名）をタグとして記録します。
+ * カーソルで取得する検索は、件数を数えずカーソルを開くまでの時間のみを記録します。
+ */
+@Intercepts({
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class, BoundSql.class}),
+        @Signature(type = Executor.class, method = "queryCursor",
+                args = {MappedStatement.class, Object.class, RowBounds.class}),
+        @Signature(type = Executor.class, method = "update",
+                args = {MappedStatement.class, Object.class})
+})
+@Component
+public class MapperMetricsInterceptor implements Interceptor {
+
+    static final String STATEMENT_TIMER = "student.mapper.statement";
+    static final String ROWS_SUMMARY = "student.mapper.rows";
+
+    private MeterRegistry registry;
+
+    @Autowired
+    public MapperMetricsInterceptor(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        MappedStatement mappedStatement = (MappedStatement) invocation.getArgs()[0];
+        String statement = statementName(mappedStatement);
+        String type = mappedStatement.getSqlCommandType().name();
+
+        Timer.Sample sample = Timer.start(registry);
+        String outcome = "error";
+        try {
+            Object result = invocation.proceed();
+            outcome = "success";
+            recordRows(statement, type, result);
+            return result;
+        } finally {
+            sample.stop(Timer.builder(STATEMENT_TIMER)
+                    .description("マッパーのステートメントの実行時間")
+                    .tag("statement", statement)
+                    .tag("type", type)
+                    .tag("outcome", outcome)
+                    .register(registry));
+        }
+    }
+
+    private void recordRows(String statement, String type, Object result) {
+        long rows;
+        if (result instanceof Collection<?> collection) {
+            rows = collection.size();
+        } else if (result instanceof Integer count && count >= 0) {
+            rows = count;
+        } else {
+            return;
+        }
+        DistributionSummary.builder(ROWS_SUMMARY)
+                .description("マッパーのステートメントで取得・更新した件数")
+                .baseUnit("rows")
+                .tag("statement", statement)
+                .tag("type", type)
+                .register(registry)
+                .record(rows);
+    }
+
+    /**
+     * ステートメントIDからマッパーのメソッド名を取り出します。
+     */
+    private String statementName(MappedStatement mappedStatement) {
+        String id = mappedStatement.getId();
+        return id.substring(id.lastIndexOf('.') + 1);
+    }
+}
@@ -0,0 +1,60 @@
+package raisetech.StudentManagement.repository;
+
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+/**
+ * 指定された処理の中で実行するSQLにのみ、実行時間の上限を設定するMyBatisのインターセプターです。
+ * 並列に実行する検索は呼び出し元が一定時間までしか完了を待たないため、待ちきれなかったSQLがデータベースで実行され続けないよう上限を設定します。
+ * エクスポートなど同じステートメントを呼び出し元のスレッドで実行する場合は、上限を設定しません。
+ */
+@Intercepts(@Signature(type = StatementHandler.class, method = "prepare", args = {Connection.class, Integer.class}))
+@Component
+public class QueryTimeoutInterceptor implements Interceptor {
+
+    /** 実行中のスレッドのSQLの実行時間の上限（秒） */
+    private static final ThreadLocal<Integer> TIMEOUT_SECONDS = new ThreadLocal<>();
+
+    /**
+     * 処理の中で実行するSQLに、実行時間の上限を設定します。
+     * JDBCの上限は秒単位のため、1秒未満は切り上げます。
+     * @param timeout 実行時間の上限
+     * @param task 実行する処理
+     * @return 実行時間の上限を設定して実行する処理
+     */
+    public static <T> Callable<T> withQueryTimeout(Duration timeout, Callable<T> task) {
+        int seconds = (int) Math.max(1, (timeout.toMillis() + 999) / 1000);
+        return () -> {
+            Integer previous = TIMEOUT_SECONDS.get();
+            TIMEOUT_SECONDS.set(seconds);
+            try {
+                return task.call();
+            } finally {
+                if (previous == null) {
+                    TIMEOUT_SECONDS.remove();
+                } else {
+                    TIMEOUT_SECONDS.set(previous);
+                }
+            }
+        };
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        Object statement = invocation.proceed();
+        Integer seconds = TIMEOUT_SECONDS.get();
+        if (seconds != null && statement instanceof Statement jdbcStatement) {
+            jdbcStatement.setQueryTimeout(seconds);
+        }
+        return statement;
+    }
+}
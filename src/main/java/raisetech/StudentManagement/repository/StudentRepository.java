@@ -1,12 +1,18 @@
 package raisetech.StudentManagement.repository;
 import org.apache.ibatis.annotations.*;
+import org.apache.ibatis.cursor.Cursor;
+import raisetech.StudentManagement.data.ChangeLog;
 import raisetech.StudentManagement.data.CourseStatus;
+import raisetech.StudentManagement.data.CourseStatusType;
 import raisetech.StudentManagement.data.StudentCourse;
 import raisetech.StudentManagement.data.Student;
+import raisetech.StudentManagement.domein.StudentCourseCount;
+import raisetech.StudentManagement.domein.StudentDetail;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * 受講生テーブルと受講生コース情報テーブルと紐づくRepositoryです。
@@ -20,12 +26,19 @@ public interface StudentRepository {
      */
     List<Student> search();
 
+    /**
+     * 受講生の全件を受講生ID順にカーソルで取得します。
+     * 全件をメモリに読み込まずに1件ずつ処理するため、トランザクション内で利用し、利用後はクローズしてください。
+     * @return 受講生のカーソル（全件）
+     */
+    Cursor<Student> searchStudentCursor();
+
     /**
      * 受講生の検索を行います。
      * @param id 受講生ID
      * @return 受講生
      */
-    Student searchStudent(String id);
+    Student searchStudent(Integer id);
 
     /**
      * 受講生のコース情報の全件検索を行います。
@@ -38,7 +51,14 @@ public interface StudentRepository {
      * @param studentId 受講生ID
      * @return 受講生IDに紐づく受講生コース情報
      */
-    List<StudentCourse> searchStudentCourse(String studentId);
+    List<StudentCourse> searchStudentCourse(Integer studentId);
+
+    /**
+     * 受講生コースIDに紐づく受講生IDを検索します。
+     * @param studentCourseId 受講生コースID
+     * @return 受講生ID。受講生コース情報が存在しない場合はnull
+     */
+    Integer searchStudentIdByStudentCourseId(Integer studentCourseId);
 
     /**
      * 指定された条件に一致する受講生を検索します。
@@ -47,19 +67,136 @@ public interface StudentRepository {
      */
     List<Student> searchWithConditions(@Param("name") String name);
 
+    /**
+     * 指定された条件に一致する受講生を、受講生ID順に指定したIDより後ろから最大件数分検索します。
+     * コースの条件またはステータスが指定された場合は、それらの条件に一致する受講生コース情報が存在する受講生のみを検索します。
+     * @param name 受講生名（部分一致検索）。nullの場合、条件に含めません。
+     * @param courseName コース名（部分一致検索）。nullの場合、条件に含めません。
+     * @param startDate コース開始日（指定された日付以降）。nullの場合、条件に含めません。
+     * @param endDate コース終了日（指定された日付以前）。nullの場合、条件に含めません。
+     * @param status 最新ステータス（完全一致検索）。nullの場合、条件に含めません。
+     * @param after この受講生IDより大きいIDの受講生を検索します。nullの場合、先頭から検索します。
+     * @param limit 取得する最大件数
+     * @return 検索結果に一致する受講生のリスト（受講生ID順）
+     */
+    List<Student> searchWithConditionsAfter(
+            @Param("name") String name,
+            @Param("courseName") String courseName,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate,
+            @Param("status") CourseStatusType status,
+            @Param("after") Integer after,
+            @Param("limit") int limit
+    );
+
+    /**
+     * 指定された条件に一致する受講生の、指定された列のみを受講生ID順に検索します。
+     * 条件は {@link #searchWithConditionsAfter} と同じです。
+     * @param columns 検索する列名（StudentFieldSet で許可された列名のみ）
+     * @param name 受講生名（部分一致検索）。nullの場合、条件に含めません。
+     * @param courseName コース名（部分一致検索）。nullの場合、条件に含めません。
+     * @param startDate コース開始日（指定された日付以降）。nullの場合、条件に含めません。
+     * @param endDate コース終了日（指定された日付以前）。nullの場合、条件に含めません。
+     * @param status 最新ステータス（完全一致検索）。nullの場合、条件に含めません。
+     * @param after この受講生IDより大きいIDの受講生を検索します。nullの場合、先頭から検索します。
+     * @param limit 取得する最大件数。nullの場合、すべて検索します。
+     * @return 検索結果に一致する受講生のリスト（受講生ID順）。検索しなかった列の値は設定されません。
+     */
+    List<Student> searchStudentColumnsAfter(
+            @Param("columns") List<String> columns,
+            @Param("name") String name,
+            @Param("courseName") String courseName,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate,
+            @Param("status") CourseStatusType status,
+            @Param("after") Integer after,
+            @Param("limit") Integer limit
+    );
+
+    /**
+     * 指定された条件に一致する受講生詳細を、受講生・受講生コース情報・コースステータスを結合した1回のクエリで検索します。
+     * 受講生名は受講生を絞り込みます。コース名・開始日・終了日は受講生コース情報と、条件に一致する受講生コース情報が存在する受講生を絞り込みます。
+     * ステータスはコースステータスに加えて、最新ステータスがそのステータスの受講生コース情報と、それが存在する受講生も絞り込みます。
+     * 受講生コースIDの候補は受講生コース情報のみを絞り込みます。
+     * @param name 受講生名（部分一致検索）。nullの場合、条件に含めません。
+     * @param courseName コース名（部分一致検索）。nullの場合、条件に含めません。
+     * @param startDate コース開始日（指定された日付以降）。nullの場合、条件に含めません。
+     * @param endDate コース終了日（指定された日付以前）。nullの場合、条件に含めません。
+     * @param status 最新ステータス（完全一致検索）。nullの場合、条件に含めません。
+     * @param studentIdList 検索対象とする受講生IDの候補。nullまたは空の場合、条件に含めません。
+     * @param studentCourseIdList 検索対象とする受講生コースIDの候補。nullの場合、条件に含めません。空の場合、受講生コース情報は一致しません。
+     * @return 検索結果に一致する受講生詳細のリスト（受講生ID順）
+     */
+    List<StudentDetail> searchStudentDetailsWithConditions(
+            @Param("name") String name,
+            @Param("courseName") String courseName,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate,
+            @Param("status") CourseStatusType status,
+            @Param("studentIdList") List<Integer> studentIdList,
+            @Param("studentCourseIdList") List<Integer> studentCourseIdList
+    );
+
     /**
      * 指定された条件に一致する受講生コース情報を検索します。
      * @param courseName コース名（部分一致検索）。nullの場合、条件に含めません。
      * @param startDate コース開始日（指定された日付以降）。nullの場合、条件に含めません。
      * @param endDate コース終了日（指定された日付以前）。nullの場合、条件に含めません。
-     * @param status コースのステータス（完全一致検索）。nullの場合、条件に含めません。
+     * @param status 最新ステータス（完全一致検索）。nullの場合、条件に含めません。
      * @return 検索結果に一致する受講生コース情報のリスト
      */
     List<StudentCourse> searchStudentCourseListWithConditions(
             String courseName,
             LocalDateTime startDate,
             LocalDateTime endDate,
-            String status
+            CourseStatusType status
+    );
+
+    /**
+     * 受講生IDの一覧に紐づく受講生コース情報のうち、指定された条件に一致するものを検索します。
+     * @param studentIdList 受講生IDの一覧（空でないこと）
+     * @param courseName コース名（部分一致検索）。nullの場合、条件に含めません。
+     * @param startDate コース開始日（指定された日付以降）。nullの場合、条件に含めません。
+     * @param endDate コース終了日（指定された日付以前）。nullの場合、条件に含めません。
+     * @param status 最新ステータスが指定されたステータスの受講生コース情報のみを検索します。nullの場合、条件に含めません。
+     * @return 検索結果に一致する受講生コース情報のリスト
+     */
+    List<StudentCourse> searchStudentCourseListByStudentIds(
+            @Param("studentIdList") List<Integer> studentIdList,
+            @Param("courseName") String courseName,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate,
+            @Param("status") CourseStatusType status
+    );
+
+    /**
+     * 受講生IDの一覧に紐づく受講生コース情報のうち、指定された条件に一致するものの指定された列のみを検索します。
+     * @param columns 検索する列名（StudentFieldSet で許可された列名のみ）
+     * @param studentIdList 受講生IDの一覧（空でないこと）
+     * @param courseName コース名（部分一致検索）。nullの場合、条件に含めません。
+     * @param startDate コース開始日（指定された日付以降）。nullの場合、条件に含めません。
+     * @param endDate コース終了日（指定された日付以前）。nullの場合、条件に含めません。
+     * @param status 最新ステータスが指定されたステータスの受講生コース情報のみを検索します。nullの場合、条件に含めません。
+     * @return 検索結果に一致する受講生コース情報のリスト（受講生コースID順）。検索しなかった列の値は設定されません。
+     */
+    List<StudentCourse> searchStudentCourseColumnsByStudentIds(
+            @Param("columns") List<String> columns,
+            @Param("studentIdList") List<Integer> studentIdList,
+            @Param("courseName") String courseName,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate,
+            @Param("status") CourseStatusType status
+    );
+
+    /**
+     * 受講生IDの一覧に紐づくCourseStatusのうち、指定されたステータスのものを検索します。
+     * @param studentIdList 受講生IDの一覧（空でないこと）
+     * @param status 検索するコースの状態。nullの場合、条件に含めません。
+     * @return 条件に一致するCourseStatusのリスト
+     */
+    List<CourseStatus> searchCourseStatusListByStudentIds(
+            @Param("studentIdList") List<Integer> studentIdList,
+            @Param("status") CourseStatusType status
     );
 
     /**
@@ -67,14 +204,14 @@ public interface StudentRepository {
      * @param status 検索するコースの状態
      * @return 条件に一致するCourseStatusのリスト
      */
-    List<CourseStatus> searchCourseStatusListWithConditions(@Param("status") String status);
+    List<CourseStatus> searchCourseStatusListWithConditions(@Param("status") CourseStatusType status);
 
     /**
      * 学生IDに基づいて、学生の受講したコースの状態を検索します。
      * @param studentId 学生のID
      * @return 学生IDに基づいて関連するCourseStatusのリスト
      */
-    List<CourseStatus> searchCourseStatusByStudentId(@Param("studentId") String studentId);
+    List<CourseStatus> searchCourseStatusByStudentId(@Param("studentId") Integer studentId);
 
 
     /**
@@ -85,6 +222,14 @@ public interface StudentRepository {
      */
     void registerStudent(Student student);
 
+    /**
+     * 受講生を1回のINSERTでまとめて新規登録します。
+     * IDは自動採番を行い、リストの各要素に設定します。
+     *
+     * @param studentList 受講生のリスト（空でないこと）
+     */
+    void registerStudentList(List<Student> studentList);
+
     /**
      * 受講生コース情報を新規登録します。
      * IDは自動採番を行う。
@@ -93,18 +238,114 @@ public interface StudentRepository {
      */
     void registerStudentCourse(StudentCourse studentCourse);
 
+    /**
+     * 受講生コース情報を1回のINSERTでまとめて新規登録します。
+     * IDは自動採番を行い、リストの各要素に設定します。
+     *
+     * @param studentCourseList 受講生コース情報のリスト（空でないこと）
+     */
+    void registerStudentCourseList(List<StudentCourse> studentCourseList);
+
     /**
      * 新しいCourseStatusを登録します。
      * @param courseStatus コースの状態
      */
     void registerCourseStatus(CourseStatus courseStatus);
 
+    /**
+     * CourseStatusを1回のINSERTでまとめて新規登録します。
+     * IDは自動採番を行い、リストの各要素に設定します。
+     * @param courseStatusList コースの状態のリスト（空でないこと）
+     */
+    void registerCourseStatusList(List<CourseStatus> courseStatusList);
+
     /**
      * 指定されたコースIDに基づき、最新のCourseStatusを検索します。
      * @param courseId コースのID
      * @return 指定されたコースIDに関連する最新のCourseStatus
      */
-    CourseStatus findLatestCourseStatusByCourseId(@Param("courseId") String courseId);
+    CourseStatus findLatestCourseStatusByCourseId(@Param("courseId") Integer courseId);
+
+    /**
+     * 指定されたコースIDの最新のCourseStatusを、受講生コース情報に保持した最新ステータスから主キーで検索します。
+     * @param courseId コースのID
+     * @return 指定されたコースIDの最新のCourseStatus。コースまたはコースステータスが存在しない場合はnull
+     */
+    CourseStatus findCurrentCourseStatusByCourseId(@Param("courseId") Integer courseId);
+
+    /**
+     * 受講生の受講生コース情報の行ロックを取得します。
+     * ロックはトランザクションのコミットまで保持されるため、同じ受講生の受講生コース情報の読み込みと更新が直列になります。
+     * @param studentId 受講生ID
+     * @return ロックした受講生コース情報のIDのリスト（ID順）
+     */
+    List<Integer> lockStudentCourseListByStudentId(@Param("studentId") Integer studentId);
+
+    /**
+     * 受講生コース情報の行ロックを取得して、受講生コース情報に保持した最新ステータスを主キーで検索します。
+     * ロックはトランザクションのコミットまで保持されるため、同じコースの最新ステータスの読み込みと更新が直列になります。
+     * @param courseId コースのID
+     * @return 最新のCourseStatus（コースステータスが存在しない場合は、IDとステータスがnull）。コースが存在しない場合はnull
+     */
+    CourseStatus findCurrentCourseStatusByCourseIdForUpdate(@Param("courseId") Integer courseId);
+
+    /**
+     * 受講生コース情報の最新ステータスを指定されたCourseStatusに更新します。
+     * より新しい（IDが大きい）CourseStatusが反映済みの場合は更新しません。
+     * @param courseStatus 最新のCourseStatus
+     */
+    void updateCurrentCourseStatus(CourseStatus courseStatus);
+
+    /**
+     * 受講生コース情報の最新ステータスが読み込んだ時点から変わっていない場合のみ、新しいステータスに更新します。
+     * 判定と更新を1回のUPDATEで行うため、同時に更新された場合はどちらか一方のみが成功します。
+     * @param current 読み込んだ時点の最新のCourseStatus
+     * @param newStatus 更新後のステータス
+     * @return 更新件数。他の更新によって最新ステータスが変わっていた場合は0
+     */
+    int transitionCurrentCourseStatus(@Param("current") CourseStatus current, @Param("newStatus") CourseStatusType newStatus);
+
+    /**
+     * 最新ステータスが指定されたステータスの受講生コース情報を、行ロックを取得して検索します。
+     * 同じトランザクションで続けて一括更新する対象を特定するために使います。
+     * @param status 最新ステータス
+     * @return 受講生コース情報のリスト（ID順）
+     */
+    List<StudentCourse> searchStudentCourseListByCurrentStatusForUpdate(@Param("status") CourseStatusType status);
+
+    /**
+     * 最新ステータスが遷移元のステータスである受講生コース情報を、まとめて遷移先のステータスに更新します。
+     * コースの件数にかかわらず1回のUPDATEで更新します。
+     * @param from 遷移元のステータス
+     * @param to 遷移先のステータス
+     * @return 更新した受講生コース情報の件数
+     */
+    int transitionAllCurrentCourseStatuses(@Param("from") CourseStatusType from, @Param("to") CourseStatusType to);
+
+    /**
+     * 最新ステータスが遷移先のステータスに更新された受講生コース情報について、最新のCourseStatusを遷移先のステータスに更新します。
+     * {@link #transitionAllCurrentCourseStatuses} の後に同じトランザクションで呼び出します。
+     * @param from 遷移元のステータス
+     * @param to 遷移先のステータス
+     * @return 更新したCourseStatusの件数
+     */
+    int transitionAllLatestCourseStatuses(@Param("from") CourseStatusType from, @Param("to") CourseStatusType to);
+
+    /**
+     * 受講生コース情報の最新ステータスを、コースステータスの履歴から再計算して更新します。
+     * @param studentCourseIdList 受講生コースIDのリスト（空でないこと）
+     */
+    void refreshCurrentCourseStatusList(@Param("studentCourseIdList") List<Integer> studentCourseIdList);
+
+    /**
+     * 指定された受講生コースIDより後ろの受講生コースIDを、ID順に最大件数分検索します。
+     * @param after この受講生コースIDより大きいIDを検索します。
+     * @param limit 取得する最大件数
+     * @param missingOnly trueの場合、コースステータスがあるのに最新ステータスが反映されていない受講生コース情報のみを検索します。
+     * @return 受講生コースIDのリスト（ID順）
+     */
+    List<Integer> searchStudentCourseIdsAfter(@Param("after") int after, @Param("limit") int limit,
+                                              @Param("missingOnly") boolean missingOnly);
 
     /**
      * 受講生を更新します。
@@ -112,6 +353,25 @@ public interface StudentRepository {
      */
     void updateStudent(Student student);
 
+    /**
+     * 受講生の指定された列のみを更新します。
+     * @param student 受講生
+     * @param columns 更新する列（Student のプロパティ名）。空でないこと
+     */
+    void updateStudentColumns(@Param("student") Student student, @Param("columns") Set<String> columns);
+
+    /**
+     * 複数の受講生コース情報のコース名を1回のUPDATEで更新します。
+     * @param studentCourseList 受講生コース情報のリスト（空でないこと）
+     */
+    void updateStudentCourseNameList(@Param("studentCourseList") List<StudentCourse> studentCourseList);
+
+    /**
+     * 複数のCourseStatusのステータスを1回のUPDATEで更新します。
+     * @param courseStatusList 更新するCourseStatusのリスト（空でないこと）
+     */
+    void updateCourseStatusList(@Param("courseStatusList") List<CourseStatus> courseStatusList);
+
     /**
      * 受講生コース情報のコース名を更新します。
      * @param studentCourse 受講生コース情報
@@ -123,4 +383,43 @@ public interface StudentRepository {
      * @param courseStatus 更新するCourseStatus。既存のCourseStatusのIDと一致するレコードが更新されます。
      */
     void updateCourseStatus(CourseStatus courseStatus);
+
+    /**
+     * 受講生コース情報をコース名・最新ステータス・受講期間の年月ごとに集計します。
+     * @return 集計した件数のリスト
+     */
+    List<StudentCourseCount> countStudentCourses();
+
+    /**
+     * 変更履歴を1回のINSERTでまとめて登録します。
+     * @param changeLogList 変更履歴のリスト（空でないこと）
+     */
+    void registerChangeLogList(List<ChangeLog> changeLogList);
+
+    /**
+     * 指定された変更連番より後の変更履歴を、変更連番順に最大件数分検索します。
+     * @param since この変更連番より大きい変更履歴を検索します。
+     * @param limit 取得する最大件数
+     * @return 変更履歴のリスト（変更連番順）
+     */
+    List<ChangeLog> searchChangeLogsAfter(@Param("since") long since, @Param("limit") int limit);
+
+    /**
+     * データベースの現在時刻を取得します。変更履歴の登録時刻と比較するために使います。
+     * @return データベースの現在時刻
+     */
+    LocalDateTime findCurrentTimestamp();
+
+    /**
+     * 変更履歴の最新の変更連番を取得します。
+     * @return 最新の変更連番。変更履歴がない場合は0
+     */
+    long findLatestChangeLogSeq();
+
+    /**
+     * 受講生の変更履歴の最新の変更連番を取得します。
+     * @param studentId 受講生ID
+     * @return 最新の変更連番。変更履歴がない場合は0
+     */
+    long findLatestChangeLogSeqByStudentId(@Param("studentId") Integer studentId);
 }
@@ -0,0 +1,53 @@
+package raisetech.StudentManagement.service;
+
+import raisetech.StudentManagement.data.CourseStatusType;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * コースステータスの遷移を判定するステートマシンです。
+ * 仮申込→本申込→受講中→受講終了の順に、1つ先のステータスへの遷移のみ有効です。
+ * 遷移の定義はクラスの初期化時に遷移元・遷移先を添字とする表に展開するため、判定は配列の参照のみで行えます。
+ */
+public final class CourseStatusStateMachine {
+
+    /** 遷移元ごとの遷移できるステータス */
+    private static final Map<CourseStatusType, Set<CourseStatusType>> DEFINITIONS = new EnumMap<>(CourseStatusType.class);
+
+    static {
+        DEFINITIONS.put(CourseStatusType.PROVISIONAL, EnumSet.of(CourseStatusType.CONFIRMED));
+        DEFINITIONS.put(CourseStatusType.CONFIRMED, EnumSet.of(CourseStatusType.IN_PROGRESS));
+        DEFINITIONS.put(CourseStatusType.IN_PROGRESS, EnumSet.of(CourseStatusType.COMPLETED));
+        DEFINITIONS.put(CourseStatusType.COMPLETED, EnumSet.noneOf(CourseStatusType.class));
+    }
+
+    /** 遷移元・遷移先の序数を添字とした遷移表 */
+    private static final boolean[][] TRANSITIONS = buildTransitions();
+
+    private CourseStatusStateMachine() {
+    }
+
+    /**
+     * ステータス遷移が有効かどうかを判定します。
+     * @param currentStatus 現在のステータス
+     * @param newStatus 更新後のステータス
+     * @return 有効なステータス遷移の場合はtrue。いずれかがnullの場合はfalse
+     */
+    public static boolean canTransition(CourseStatusType currentStatus, CourseStatusType newStatus) {
+        if (currentStatus == null || newStatus == null) {
+            return false;
+        }
+        return TRANSITIONS[currentStatus.ordinal()][newStatus.ordinal()];
+    }
+
+    private static boolean[][] buildTransitions() {
+        int size = CourseStatusType.values().length;
+        boolean[][] transitions = new boolean[size][size];
+        DEFINITIONS.forEach((currentStatus, newStatuses) -> newStatuses
+                .forEach(newStatus -> transitions[currentStatus.ordinal()][newStatus.ordinal()] = true));
+        return transitions;
+    }
+}
@@ -0,0 +1,85 @@
+package raisetech.StudentManagement.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import raisetech.StudentManagement.repository.StudentRepository;
+
+import java.util.List;
+
+/**
+ * 受講生コース情報の最新ステータスを、コースステータスの履歴から再計算して反映するバックフィル処理です。
+ * 受講生コースIDの順に一定件数ごとに分割し、分割したまとまりごとに1トランザクションで更新するため、
+ * 件数が多い場合も長時間のロックを取らずに既存データを反映できます。何度実行しても結果は同じです。
+ * 起動時のバックフィルは、最新ステータスがまだ反映されていない受講生コース情報のみを更新します。
+ */
+@Component
+public class CurrentCourseStatusBackfill {
+
+    private StudentRepository repository;
+    private TransactionTemplate transactionTemplate;
+    private int chunkSize;
+    private boolean runOnStartup;
+
+    @Autowired
+    public CurrentCourseStatusBackfill(StudentRepository repository, PlatformTransactionManager transactionManager,
+                                       @Value("${student.current-status.backfill.chunk-size:1000}") int chunkSize,
+                                       @Value("${student.current-status.backfill.on-startup:false}") boolean runOnStartup) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("student.current-status.backfill.chunk-size は1以上を指定してください: " + chunkSize);
+        }
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+        this.runOnStartup = runOnStartup;
+    }
+
+    /**
+     * 起動時のバックフィルが有効な場合に、最新ステータスが反映されていない受講生コース情報のみに最新ステータスを反映します。
+     * 既存データはV3のマイグレーションで反映済みのため、SQLで直接コースステータスを変更した場合などの反映漏れのみを更新します。
+     * 最新ステータスを集計する受講状況の統計の再構築より先に実行します。
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void backfillOnStartup() {
+        if (runOnStartup) {
+            backfillMissing();
+        }
+    }
+
+    /**
+     * 全受講生コース情報の最新ステータスを反映します。
+     * @return 反映した受講生コース情報の件数
+     */
+    public int backfill() {
+        return backfill(false);
+    }
+
+    /**
+     * コースステータスがあるのに最新ステータスが反映されていない受講生コース情報のみに、最新ステータスを反映します。
+     * @return 反映した受講生コース情報の件数
+     */
+    public int backfillMissing() {
+        return backfill(true);
+    }
+
+    private int backfill(boolean missingOnly) {
+        int after = 0;
+        int count = 0;
+        while (true) {
+            List<Integer> studentCourseIdList = repository.searchStudentCourseIdsAfter(after, chunkSize, missingOnly);
+            if (studentCourseIdList.isEmpty()) {
+                return count;
+            }
+            transactionTemplate.executeWithoutResult(status -> repository.refreshCurrentCourseStatusList(studentCourseIdList));
+            count += studentCourseIdList.size();
+            after = studentCourseIdList.get(studentCourseIdList.size() - 1);
+        }
+    }
+}
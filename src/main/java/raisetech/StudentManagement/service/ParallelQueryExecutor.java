@@ -0,0 +1,109 @@
+package raisetech.StudentManagement.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.stereotype.Component;
+import raisetech.StudentManagement.datasource.DataSourceRouting;
+import raisetech.StudentManagement.repository.QueryTimeoutInterceptor;
+
+import java.time.Duration;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 互いに依存しない検索を並列に実行するためのエグゼキューターです。
+ * 検索はアプリケーションのタスクエグゼキューター（仮想スレッドのプロファイルでは仮想スレッド）で実行し、
+ * すべての検索の完了を一定時間まで待ちます。時間内に完了しない場合や失敗した場合は、残りの検索を取り消します。
+ */
+@Component
+public class ParallelQueryExecutor {
+
+    private AsyncTaskExecutor executor;
+    private Duration timeout;
+
+    @Autowired
+    public ParallelQueryExecutor(@Qualifier("applicationTaskExecutor") AsyncTaskExecutor executor,
+                                 @Value("${student.query.timeout:5s}") Duration timeout) {
+        this.executor = executor;
+        this.timeout = timeout;
+    }
+
+    /**
+     * 検索を並列に実行します。
+     * 検索は呼び出し元のスレッドと同じデータベース（プライマリまたはレプリカ）で実行し、
+     * 完了を待つ時間と同じ時間をSQLの実行時間の上限に設定します。
+     * エグゼキューターが受け付けられない場合は、呼び出し元のスレッドで実行します。
+     * @param query 検索処理
+     * @return 検索結果
+     */
+    public <T> Future<T> submit(Callable<T> query) {
+        query = DataSourceRouting.inheritRoute(QueryTimeoutInterceptor.withQueryTimeout(timeout, query));
+        try {
+            return executor.submit(query);
+        } catch (TaskRejectedException e) {
+            FutureTask<T> task = new FutureTask<>(query);
+            task.run();
+            return task;
+        }
+    }
+
+    /**
+     * すべての検索の完了を待ちます。
+     * @param futures 検索結果
+     * @throws QueryTimeoutException タイムアウトまでに完了しなかった場合
+     */
+    public void awaitAll(Future<?>... futures) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        try {
+            for (Future<?> future : futures) {
+                future.get(Math.max(deadline - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+            }
+        } catch (TimeoutException e) {
+            cancelAll(futures);
+            throw new QueryTimeoutException("検索が " + timeout.toMillis() + "ms 以内に完了しませんでした。", e);
+        } catch (InterruptedException e) {
+            cancelAll(futures);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("検索の完了待ちが中断されました。", e);
+        } catch (ExecutionException e) {
+            cancelAll(futures);
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * 完了した検索の結果を取得します。{@link #awaitAll(Future[])} の後に呼び出します。
+     * @param future 検索結果
+     * @return 検索結果の値
+     */
+    public <T> T get(Future<T> future) {
+        if (!future.isDone()) {
+            throw new IllegalStateException("検索が完了していません。");
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException | ExecutionException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void cancelAll(Future<?>... futures) {
+        for (Future<?> future : futures) {
+            future.cancel(true);
+        }
+    }
+}
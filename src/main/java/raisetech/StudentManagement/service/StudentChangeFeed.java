@@ -0,0 +1,219 @@
+package raisetech.StudentManagement.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import raisetech.StudentManagement.data.ChangeLog;
+import raisetech.StudentManagement.domein.ChangeLogPage;
+import raisetech.StudentManagement.repository.StudentRepository;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 受講生・受講生コース情報・コースステータスの変更履歴を記録し、差分同期のために配信します。
+ * 変更履歴は変更と同じトランザクションで登録するため、ロールバックされた変更は記録されません。
+ * 書き込みは直列化しないため、変更連番は登録順に採番されますが、コミット順とは限りません。
+ * 先に採番されたトランザクションがまだコミットされていない間は変更連番に欠番ができるため、
+ * 取得・送信は欠番の手前で止め、欠番が埋まるか一定時間（ロールバックされたとみなす時間）が過ぎてから先に進みます。
+ * そのため、取得済みの変更連番より後の変更履歴を取得しても、後からコミットされた変更を取りこぼすことはありません。
+ * Server-Sent Events の購読者には、このインスタンスでのコミット後と一定間隔のポーリングで新しい変更履歴を送信します。
+ * 送信は専用の1つのスレッドで行い、検索で使うタスクエグゼキューターとは分けているため、
+ * 受信の遅い購読者への送信で待たされても、検索やコミットしたスレッドには影響しません。
+ */
+@Service
+public class StudentChangeFeed {
+
+    /** 1回に取得する変更履歴の最大件数 */
+    public static final int MAX_LIMIT = 1000;
+
+    static final String EVENT_NAME = "change";
+
+    private StudentRepository repository;
+    private Duration streamTimeout;
+    private Duration gapTimeout;
+    private List<Subscription> subscriptions = new CopyOnWriteArrayList<>();
+
+    /**
+     * 送信を行う専用のスレッドです。実行中の送信のほかに待機できる送信は1つのみで、それ以上の依頼は破棄します。
+     * 待機中の送信は実行時にデータベースから新しい変更履歴を検索するため、破棄された依頼の変更履歴も送信されます。
+     */
+    private ThreadPoolExecutor publisher = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(1), publisherThreadFactory(), new ThreadPoolExecutor.DiscardPolicy());
+
+    @Autowired
+    public StudentChangeFeed(StudentRepository repository,
+                             @Value("${student.changes.stream-timeout:30m}") Duration streamTimeout,
+                             @Value("${student.changes.gap-timeout:10s}") Duration gapTimeout) {
+        this.repository = repository;
+        this.streamTimeout = streamTimeout;
+        this.gapTimeout = gapTimeout;
+    }
+
+    private static CustomizableThreadFactory publisherThreadFactory() {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("student-change-feed-");
+        threadFactory.setDaemon(true);
+        return threadFactory;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        publisher.shutdownNow();
+    }
+
+    /**
+     * 変更履歴を呼び出し元のトランザクションで登録します。
+     * @param changeLogList 変更履歴のリスト。空の場合は何もしません。
+     */
+    public void record(List<ChangeLog> changeLogList) {
+        if (changeLogList.isEmpty()) {
+            return;
+        }
+        repository.registerChangeLogList(changeLogList);
+        TransactionHooks.afterCommit(this::publishAsync);
+    }
+
+    /**
+     * 指定された変更連番より後の変更履歴を、変更連番順に検索します。
+     * コミット待ちの可能性がある欠番がある場合は、欠番の手前までを返します。
+     * @param since この変更連番より後の変更履歴を検索します。
+     * @param limit 取得する最大件数
+     * @return 変更履歴と次回の取得時に指定する変更連番
+     */
+    @Transactional(readOnly = true)
+    public ChangeLogPage searchChanges(long since, int limit) {
+        List<ChangeLog> changeLogList = untilGap(since, repository.searchChangeLogsAfter(since, limit));
+        long nextSince = changeLogList.isEmpty() ? since : changeLogList.get(changeLogList.size() - 1).getSeq();
+        return new ChangeLogPage(changeLogList, nextSince, changeLogList.size() == limit);
+    }
+
+    /**
+     * 指定された変更連番より後の変更履歴を Server-Sent Events で購読します。
+     * 購読の開始時に未送信の変更履歴を送信し、以降は新しい変更履歴を変更連番をイベントIDとして送信します。
+     * @param since この変更連番より後の変更履歴を送信します。
+     * @return 変更履歴を送信するエミッター
+     */
+    public SseEmitter subscribe(long since) {
+        SseEmitter emitter = new SseEmitter(streamTimeout.toMillis());
+        Subscription subscription = new Subscription(emitter, since);
+        emitter.onCompletion(() -> subscriptions.remove(subscription));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> subscriptions.remove(subscription));
+        subscriptions.add(subscription);
+        publishAsync();
+        return emitter;
+    }
+
+    /**
+     * 他のインスタンスでコミットされた変更履歴も送信するため、購読者がいる間は一定間隔で送信を依頼します。
+     */
+    @Scheduled(fixedDelayString = "${student.changes.poll-interval:PT1S}")
+    public void poll() {
+        publishAsync();
+    }
+
+    /**
+     * 購読者に新しい変更履歴を送信します。送信を行う専用のスレッドでのみ実行するため、同時に実行されることはありません。
+     */
+    void publish() {
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+        long since = subscriptions.stream().mapToLong(Subscription::getCursor).min().orElse(0L);
+        List<ChangeLog> changeLogList;
+        do {
+            changeLogList = untilGap(since, repository.searchChangeLogsAfter(since, MAX_LIMIT));
+            if (changeLogList.isEmpty()) {
+                return;
+            }
+            for (Subscription subscription : subscriptions) {
+                subscription.send(changeLogList);
+            }
+            since = changeLogList.get(changeLogList.size() - 1).getSeq();
+        } while (changeLogList.size() == MAX_LIMIT);
+    }
+
+    /**
+     * 変更連番順の変更履歴から、欠番の手前までを返します。
+     * 欠番は、先に採番されたトランザクションがまだコミットされていないか、ロールバックされた場合にできます。
+     * 欠番の後の変更履歴の登録から一定時間が過ぎている場合は、ロールバックされたものとして欠番を読み飛ばします。
+     * @param since 取得済みの変更連番
+     * @param changeLogList 取得済みの変更連番より後の変更履歴（変更連番順）
+     * @return 欠番の手前までの変更履歴
+     */
+    private List<ChangeLog> untilGap(long since, List<ChangeLog> changeLogList) {
+        long expected = since + 1;
+        LocalDateTime gapDeadline = null;
+        for (int i = 0; i < changeLogList.size(); i++) {
+            ChangeLog changeLog = changeLogList.get(i);
+            if (changeLog.getSeq() != expected) {
+                if (gapDeadline == null) {
+                    gapDeadline = repository.findCurrentTimestamp().minus(gapTimeout);
+                }
+                if (changeLog.getChangedAt().isAfter(gapDeadline)) {
+                    return changeLogList.subList(0, i);
+                }
+            }
+            expected = changeLog.getSeq() + 1;
+        }
+        return changeLogList;
+    }
+
+    /**
+     * コミットしたスレッドを購読者への送信で待たせないよう、送信を専用のスレッドに依頼します。
+     * すでに送信が待機中の場合は、その送信に含まれるため依頼は破棄されます。
+     */
+    private void publishAsync() {
+        if (subscriptions.isEmpty()) {
+            return;
+        }
+        publisher.execute(this::publish);
+    }
+
+    /**
+     * 購読者ごとの送信済みの変更連番です。
+     */
+    private class Subscription {
+
+        private SseEmitter emitter;
+        private volatile long cursor;
+
+        Subscription(SseEmitter emitter, long cursor) {
+            this.emitter = emitter;
+            this.cursor = cursor;
+        }
+
+        long getCursor() {
+            return cursor;
+        }
+
+        void send(List<ChangeLog> changeLogList) {
+            try {
+                for (ChangeLog changeLog : changeLogList) {
+                    if (changeLog.getSeq() <= cursor) {
+                        continue;
+                    }
+                    emitter.send(SseEmitter.event()
+                            .id(String.valueOf(changeLog.getSeq()))
+                            .name(EVENT_NAME)
+                            .data(changeLog));
+                    cursor = changeLog.getSeq();
+                }
+            } catch (IOException | IllegalStateException e) {
+                subscriptions.remove(this);
+                emitter.completeWithError(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package raisetech.StudentManagement.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import raisetech.StudentManagement.data.CourseStatus;
+import raisetech.StudentManagement.data.Student;
+import raisetech.StudentManagement.data.StudentCourse;
+import raisetech.StudentManagement.domein.StudentDetail;
+import raisetech.StudentManagement.domein.StudentDetailCacheStats;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+
+/**
+ * 受講生IDをキーに組み立て済みの受講生詳細を保持するキャッシュです。
+ * 件数の上限（W-TinyLFUによる追い出し）と有効期間を持ち、受講生詳細は格納時と取得時に複製するため、
+ * 呼び出し元が受け取った受講生詳細を変更してもキャッシュの内容には影響しません。
+ * 読み込みの間に同じ受講生の受講生詳細が削除された場合は、読み込んだ内容が更新前のものである可能性があるため、キャッシュに残しません。
+ */
+@Component
+public class StudentDetailCache {
+
+    /** 削除回数を数える受講生IDの区分の数です。 */
+    private static final int INVALIDATION_STRIPES = 64;
+
+    private Cache<Integer, StudentDetail> cache;
+
+    /**
+     * 受講生IDの区分ごとの削除回数です。読み込みの前後で削除回数が変わった場合は、読み込んだ受講生詳細をキャッシュに残しません。
+     * 受講生IDごとに保持しないため、同じ区分の他の受講生の削除でもキャッシュに残さないことがあります。
+     */
+    private AtomicLongArray invalidations = new AtomicLongArray(INVALIDATION_STRIPES);
+
+    @Autowired
+    public StudentDetailCache(@Value("${student.cache.maximum-size:1000}") long maximumSize,
+                              @Value("${student.cache.expire-after-write:5m}") Duration expireAfterWrite) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(expireAfterWrite)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * 受講生詳細を取得します。キャッシュにない場合は読み込んでキャッシュに格納します。
+     * 読み込みの間に同じ受講生の受講生詳細が削除された場合は、読み込んだ受講生詳細を返しますがキャッシュには残しません。
+     * @param studentId 受講生ID
+     * @param loader キャッシュにない場合に受講生詳細を読み込む処理。存在しない場合はnullを返します。
+     * @return 受講生詳細の複製。存在しない場合はnull
+     */
+    public StudentDetail get(Integer studentId, Function<Integer, StudentDetail> loader) {
+        StudentDetail cached = cache.getIfPresent(studentId);
+        if (cached != null) {
+            return copyOf(cached);
+        }
+        int stripe = stripeOf(studentId);
+        long before = invalidations.get(stripe);
+        StudentDetail loaded = copyOf(loader.apply(studentId));
+        if (loaded == null) {
+            return null;
+        }
+        cache.put(studentId, loaded);
+        // 格納の前後どちらで削除されても、読み込み後の削除が反映されるよう格納した後に削除回数を確認する
+        if (invalidations.get(stripe) != before) {
+            cache.asMap().remove(studentId, loaded);
+        }
+        return copyOf(loaded);
+    }
+
+    /**
+     * 受講生詳細をキャッシュから削除します。
+     * トランザクション中の場合は、コミット前に別のリクエストが読み込んだ更新前の内容が残らないよう、コミット後にも削除します。
+     * @param studentId 受講生ID
+     */
+    public void invalidate(Integer studentId) {
+        if (studentId == null) {
+            return;
+        }
+        runNowAndAfterCommit(() -> {
+            invalidations.incrementAndGet(stripeOf(studentId));
+            cache.invalidate(studentId);
+        });
+    }
+
+    /**
+     * すべての受講生詳細をキャッシュから削除します。
+     */
+    public void invalidateAll() {
+        runNowAndAfterCommit(() -> {
+            for (int stripe = 0; stripe < INVALIDATION_STRIPES; stripe++) {
+                invalidations.incrementAndGet(stripe);
+            }
+            cache.invalidateAll();
+        });
+    }
+
+    /**
+     * キャッシュの統計情報を返します。
+     * @return ヒット数・ミス数・追い出し数などの統計情報
+     */
+    public StudentDetailCacheStats stats() {
+        CacheStats stats = cache.stats();
+        return new StudentDetailCacheStats(cache.estimatedSize(), stats.hitCount(), stats.missCount(),
+                stats.evictionCount(), stats.hitRate());
+    }
+
+    private static int stripeOf(Integer studentId) {
+        return Math.floorMod(studentId.hashCode(), INVALIDATION_STRIPES);
+    }
+
+    private void runNowAndAfterCommit(Runnable action) {
+        action.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionHooks.afterCommit(action);
+        }
+    }
+
+    /**
+     * 受講生詳細を複製します。受講生・受講生コース情報・コースステータスはすべて新しいインスタンスになります。
+     * @param studentDetail 受講生詳細
+     * @return 受講生詳細の複製。引数がnullの場合はnull
+     */
+    static StudentDetail copyOf(StudentDetail studentDetail) {
+        if (studentDetail == null) {
+            return null;
+        }
+        List<StudentCourse> studentCourseList = new ArrayList<>();
+        if (studentDetail.getStudentCourseList() != null) {
+            studentDetail.getStudentCourseList().forEach(studentCourse -> studentCourseList.add(copyOf(studentCourse)));
+        }
+        return new StudentDetail(copyOf(studentDetail.getStudent()), studentCourseList);
+    }
+
+    private static Student copyOf(Student student) {
+        if (student == null) {
+            return null;
+        }
+        Student copy = new Student();
+        copy.setId(student.getId());
+        copy.setName(student.getName());
+        copy.setKanaName(student.getKanaName());
+        copy.setNickname(student.getNickname());
+        copy.setMailAddress(student.getMailAddress());
+        copy.setAddress(student.getAddress());
+        copy.setAge(student.getAge());
+        copy.setGender(student.getGender());
+        copy.setRemark(student.getRemark());
+        copy.setDeleted(student.isDeleted());
+        return copy;
+    }
+
+    private static StudentCourse copyOf(StudentCourse studentCourse) {
+        StudentCourse copy = new StudentCourse();
+        copy.setId(studentCourse.getId());
+        copy.setStudentId(studentCourse.getStudentId());
+        copy.setCourseName(studentCourse.getCourseName());
+        copy.setCourseStartAt(studentCourse.getCourseStartAt());
+        copy.setCourseEndAt(studentCourse.getCourseEndAt());
+        copy.setCurrentStatus(studentCourse.getCurrentStatus());
+        List<CourseStatus> courseStatusList = new ArrayList<>();
+        if (studentCourse.getCourseStatusList() != null) {
+            studentCourse.getCourseStatusList().forEach(courseStatus -> courseStatusList.add(copyOf(courseStatus)));
+        }
+        copy.setCourseStatusList(courseStatusList);
+        return copy;
+    }
+
+    private static CourseStatus copyOf(CourseStatus courseStatus) {
+        CourseStatus copy = new CourseStatus();
+        copy.setId(courseStatus.getId());
+        copy.setStudentsCoursesId(courseStatus.getStudentsCoursesId());
+        copy.setStatus(courseStatus.getStatus());
+        return copy;
+    }
+}
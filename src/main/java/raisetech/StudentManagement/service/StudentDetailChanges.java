@@ -0,0 +1,163 @@
+package raisetech.StudentManagement.service;
+
+import lombok.Getter;
+import raisetech.StudentManagement.data.ChangeLog;
+import raisetech.StudentManagement.data.CourseStatus;
+import raisetech.StudentManagement.data.CourseStatusType;
+import raisetech.StudentManagement.data.Student;
+import raisetech.StudentManagement.data.StudentCourse;
+import raisetech.StudentManagement.domein.StudentDetail;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * 更新を依頼された受講生詳細と、データベースに保存されている受講生詳細との差分です。
+ * 受講生は変更された列を、受講生コース情報とコースステータスは変更された行のみを保持します。
+ * 保存されている受講生に紐づかない受講生コース情報・コースステータスは差分に含めません。
+ */
+@Getter
+class StudentDetailChanges {
+
+    /** 変更された受講生の列（Student のプロパティ名） */
+    private Set<String> studentColumns = new LinkedHashSet<>();
+
+    /** コース名が変更された受講生コース情報 */
+    private List<StudentCourse> studentCourseList = new ArrayList<>();
+
+    /** ステータスが変更されたコースステータス */
+    private List<CourseStatus> courseStatusList = new ArrayList<>();
+
+    /** コースステータスが変更された受講生コースID（最新ステータスの再計算の対象） */
+    private Set<Integer> statusChangedStudentCourseIds = new LinkedHashSet<>();
+
+    /** 保存されている受講生コース情報（受講生コースIDごと） */
+    private Map<Integer, StudentCourse> storedStudentCourses = new HashMap<>();
+
+    /** 最新ステータスが変わる受講生コース情報の、変更後の最新ステータス（受講生コースIDごと） */
+    private Map<Integer, CourseStatusType> currentStatuses = new HashMap<>();
+
+    /**
+     * 保存されている受講生詳細と比較して差分を求めます。
+     * @param stored データベースに保存されている受講生詳細
+     * @param requested 更新を依頼された受講生詳細
+     * @return 差分
+     */
+    static StudentDetailChanges between(StudentDetail stored, StudentDetail requested) {
+        StudentDetailChanges changes = new StudentDetailChanges();
+        changes.compareStudent(stored.getStudent(), requested.getStudent());
+
+        Map<Integer, StudentCourse> storedCourses = changes.storedStudentCourses;
+        Map<Integer, CourseStatus> storedStatuses = new HashMap<>();
+        stored.getStudentCourseList().forEach(studentCourse -> {
+            storedCourses.put(studentCourse.getId(), studentCourse);
+            studentCourse.getCourseStatusList().forEach(courseStatus -> storedStatuses.put(courseStatus.getId(), courseStatus));
+        });
+
+        if (requested.getStudentCourseList() == null) {
+            return changes;
+        }
+        requested.getStudentCourseList().forEach(studentCourse -> {
+            StudentCourse storedCourse = storedCourses.get(studentCourse.getId());
+            if (storedCourse == null) {
+                return;
+            }
+            if (!Objects.equals(storedCourse.getCourseName(), studentCourse.getCourseName())) {
+                changes.studentCourseList.add(studentCourse);
+            }
+            if (studentCourse.getCourseStatusList() == null) {
+                return;
+            }
+            studentCourse.getCourseStatusList().forEach(courseStatus -> {
+                CourseStatus storedStatus = storedStatuses.get(courseStatus.getId());
+                if (storedStatus == null || !storedCourse.getId().equals(storedStatus.getStudentsCoursesId())) {
+                    return;
+                }
+                if (courseStatus.getStatus() != null && storedStatus.getStatus() != courseStatus.getStatus()) {
+                    changes.courseStatusList.add(courseStatus);
+                    changes.statusChangedStudentCourseIds.add(storedCourse.getId());
+                    if (isLatest(storedCourse, storedStatus) && storedCourse.getCurrentStatus() != courseStatus.getStatus()) {
+                        changes.currentStatuses.put(storedCourse.getId(), courseStatus.getStatus());
+                    }
+                }
+            });
+        });
+        return changes;
+    }
+
+    /**
+     * コースステータスが受講生コース情報の最新（IDが最大）のコースステータスかどうかを判定します。
+     */
+    private static boolean isLatest(StudentCourse studentCourse, CourseStatus courseStatus) {
+        return studentCourse.getCourseStatusList().stream()
+                .allMatch(other -> other.getId() <= courseStatus.getId());
+    }
+
+    private void compareStudent(Student stored, Student requested) {
+        compare("name", stored.getName(), requested.getName());
+        compare("kanaName", stored.getKanaName(), requested.getKanaName());
+        compare("nickname", stored.getNickname(), requested.getNickname());
+        compare("mailAddress", stored.getMailAddress(), requested.getMailAddress());
+        compare("address", stored.getAddress(), requested.getAddress());
+        compare("age", stored.getAge(), requested.getAge());
+        compare("gender", stored.getGender(), requested.getGender());
+        compare("remark", stored.getRemark(), requested.getRemark());
+        compare("isDeleted", stored.isDeleted(), requested.isDeleted());
+    }
+
+    private void compare(String column, Object stored, Object requested) {
+        if (!Objects.equals(stored, requested)) {
+            studentColumns.add(column);
+        }
+    }
+
+    /**
+     * 変更がないかを判定します。
+     * @return 受講生・受講生コース情報・コースステータスのいずれも変更されていない場合はtrue
+     */
+    boolean isEmpty() {
+        return studentColumns.isEmpty() && studentCourseList.isEmpty() && courseStatusList.isEmpty();
+    }
+
+    /**
+     * 保存されている受講生詳細に差分を反映した、更新後の受講生詳細を組み立てます。
+     * 受講生は依頼された値（すべての列を比較して変更された列を更新するため、更新後の行と一致します）とし、
+     * 受講生コース情報は保存されているものの複製にコース名の変更のみを反映します。
+     * 依頼された受講生詳細のうち、保存されている受講生に紐づかない受講生コース情報は含みません。
+     * @param stored データベースに保存されている受講生詳細
+     * @param requested 更新を依頼された受講生詳細
+     * @return 更新後の受講生詳細
+     */
+    StudentDetail applyTo(StudentDetail stored, StudentDetail requested) {
+        StudentDetail applied = StudentDetailCache.copyOf(stored);
+        applied.setStudent(requested.getStudent());
+        Map<Integer, String> courseNames = new HashMap<>();
+        studentCourseList.forEach(studentCourse -> courseNames.put(studentCourse.getId(), studentCourse.getCourseName()));
+        applied.getStudentCourseList().stream()
+                .filter(studentCourse -> courseNames.containsKey(studentCourse.getId()))
+                .forEach(studentCourse -> studentCourse.setCourseName(courseNames.get(studentCourse.getId())));
+        return applied;
+    }
+
+    /**
+     * 差分を変更履歴に変換します。
+     * @param studentId 受講生ID
+     * @return 変更された受講生・受講生コース情報・コースステータスごとの変更履歴
+     */
+    List<ChangeLog> toChangeLogList(Integer studentId) {
+        List<ChangeLog> changeLogList = new ArrayList<>();
+        if (!studentColumns.isEmpty()) {
+            changeLogList.add(new ChangeLog(studentId, ChangeLog.EntityType.STUDENT, studentId, ChangeLog.Operation.UPDATE));
+        }
+        studentCourseList.forEach(studentCourse -> changeLogList.add(new ChangeLog(studentId,
+                ChangeLog.EntityType.STUDENT_COURSE, studentCourse.getId(), ChangeLog.Operation.UPDATE)));
+        courseStatusList.forEach(courseStatus -> changeLogList.add(new ChangeLog(studentId,
+                ChangeLog.EntityType.COURSE_STATUS, courseStatus.getId(), ChangeLog.Operation.UPDATE)));
+        return changeLogList;
+    }
+}
@@ -0,0 +1,184 @@
+package raisetech.StudentManagement.service;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+import raisetech.StudentManagement.data.CourseStatus;
+import raisetech.StudentManagement.data.Student;
+import raisetech.StudentManagement.data.StudentCourse;
+import raisetech.StudentManagement.domein.StudentDetail;
+import raisetech.StudentManagement.domein.StudentImportReport;
+import raisetech.StudentManagement.domein.StudentImportResult;
+import raisetech.StudentManagement.repository.StudentRepository;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 受講生詳細を一括登録するサービスです。
+ * 入力チェックを通過した受講生詳細を一定件数ごとにまとめ、まとまりごとに1トランザクションで登録します。
+ */
+@Service
+public class StudentImportService {
+
+    private StudentRepository repository;
+    private StudentService studentService;
+    private Validator validator;
+    private TransactionTemplate transactionTemplate;
+    private int chunkSize;
+
+    @Autowired
+    public StudentImportService(StudentRepository repository, StudentService studentService, Validator validator,
+                                PlatformTransactionManager transactionManager,
+                                @Value("${student.import.chunk-size:500}") int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("student.import.chunk-size は1以上を指定してください: " + chunkSize);
+        }
+        this.repository = repository;
+        this.studentService = studentService;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * 受講生詳細を一括登録します。
+     * 受講生詳細は1件ずつ読み込んで入力チェックを行い、チェックを通過したものを一定件数ごとに登録します。
+     * 登録に失敗した場合は、そのまとまりに含まれる受講生詳細のみが失敗となります。
+     * 受講生詳細に変換できない登録データはその1件のみを失敗とし、続きの登録データを読み込みます。
+     * 登録データの構文が壊れていて続きを読み込めない場合は、その位置を失敗として読み込みを終了し、
+     * それまでに読み込んだ受講生詳細を登録します。
+     * @param studentDetails 登録する受講生詳細
+     * @return 1件ごとの登録結果を含むレポート
+     */
+    public StudentImportReport importStudents(Iterator<StudentDetail> studentDetails) {
+        List<StudentImportResult> resultList = new ArrayList<>();
+        List<StudentDetail> chunk = new ArrayList<>(chunkSize);
+        List<StudentImportResult> chunkResultList = new ArrayList<>(chunkSize);
+
+        while (true) {
+            try {
+                if (!studentDetails.hasNext()) {
+                    break;
+                }
+            } catch (RuntimeException e) {
+                // 次の登録データの位置を特定できないため、以降は読み込まない
+                StudentImportResult result = new StudentImportResult(resultList.size());
+                result.setMessages(List.of("登録データを読み込めないため、以降の登録データは処理していません: " + e.getMessage()));
+                resultList.add(result);
+                break;
+            }
+            StudentImportResult result = new StudentImportResult(resultList.size());
+            resultList.add(result);
+
+            StudentDetail studentDetail;
+            try {
+                studentDetail = studentDetails.next();
+            } catch (RuntimeException e) {
+                result.setMessages(List.of("登録データの形式が正しくありません: " + e.getMessage()));
+                continue;
+            }
+
+            List<String> violationMessages = validate(studentDetail);
+            if (!violationMessages.isEmpty()) {
+                result.setMessages(violationMessages);
+                continue;
+            }
+
+            chunk.add(studentDetail);
+            chunkResultList.add(result);
+            if (chunk.size() == chunkSize) {
+                importChunk(chunk, chunkResultList);
+                chunk.clear();
+                chunkResultList.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            importChunk(chunk, chunkResultList);
+        }
+
+        return new StudentImportReport(resultList);
+    }
+
+    /**
+     * 受講生詳細の入力チェックを行います。
+     * 受講生コース情報に含まれるコースステータスは、受講生詳細の登録・更新のAPIでは入力チェックしないため、登録データに限りここでチェックします。
+     * @param studentDetail 受講生詳細
+     * @return 入力チェックのエラーメッセージ（エラーがない場合は空）
+     */
+    private List<String> validate(StudentDetail studentDetail) {
+        if (studentDetail == null || studentDetail.getStudent() == null) {
+            return List.of("受講生が指定されていません。");
+        }
+        Set<ConstraintViolation<StudentDetail>> violations = validator.validate(studentDetail);
+        List<String> messages = violations.stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .collect(Collectors.toList());
+        messages.addAll(validateCourseStatuses(studentDetail.getStudentCourseList()));
+        messages.sort(null);
+        return messages;
+    }
+
+    /**
+     * 受講生コース情報に含まれるコースステータスの入力チェックを行います。
+     * @param studentCourseList 受講生コース情報のリスト
+     * @return 入力チェックのエラーメッセージ（エラーがない場合は空）
+     */
+    private List<String> validateCourseStatuses(List<StudentCourse> studentCourseList) {
+        List<String> messages = new ArrayList<>();
+        if (studentCourseList == null) {
+            return messages;
+        }
+        for (int i = 0; i < studentCourseList.size(); i++) {
+            StudentCourse studentCourse = studentCourseList.get(i);
+            if (studentCourse == null || studentCourse.getCourseStatusList() == null) {
+                continue;
+            }
+            for (int j = 0; j < studentCourse.getCourseStatusList().size(); j++) {
+                CourseStatus courseStatus = studentCourse.getCourseStatusList().get(j);
+                if (courseStatus == null) {
+                    continue;
+                }
+                String path = "studentCourseList[" + i + "].courseStatusList[" + j + "].";
+                validator.validate(courseStatus).forEach(violation ->
+                        messages.add(path + violation.getPropertyPath() + ": " + violation.getMessage()));
+            }
+        }
+        return messages;
+    }
+
+    /**
+     * 受講生詳細のまとまりを1トランザクションで登録し、結果を設定します。
+     * @param chunk 受講生詳細のまとまり
+     * @param chunkResultList 受講生詳細に対応する登録結果
+     */
+    private void importChunk(List<StudentDetail> chunk, List<StudentImportResult> chunkResultList) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                List<Student> studentList = chunk.stream()
+                        .map(StudentDetail::getStudent)
+                        .collect(Collectors.toList());
+                repository.registerStudentList(studentList);
+                studentService.registerStudentCourses(chunk);
+            });
+        } catch (DataAccessException | TransactionException e) {
+            chunkResultList.forEach(result -> result.setMessages(List.of("登録に失敗しました: " + e.getMostSpecificCause().getMessage())));
+            return;
+        }
+
+        for (int i = 0; i < chunk.size(); i++) {
+            StudentImportResult result = chunkResultList.get(i);
+            result.setSuccess(true);
+            result.setStudentId(chunk.get(i).getStudent().getId());
+        }
+    }
+}
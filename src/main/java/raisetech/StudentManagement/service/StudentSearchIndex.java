@@ -0,0 +1,253 @@
+package raisetech.StudentManagement.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import raisetech.StudentManagement.data.Student;
+import raisetech.StudentManagement.data.StudentCourse;
+import raisetech.StudentManagement.repository.StudentRepository;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 受講生名（名前・カナ名）とコース名の部分一致検索に使うN-gram（1文字・2文字）の転置インデックスです。
+ * 起動時に全件から構築し、受講生・受講生コース情報の登録と更新のコミット後に差分を反映します。
+ * 検索結果は部分一致する可能性のあるIDの候補（上位集合）であり、最終的な判定はデータベースの部分一致検索で行います。
+ * インデックスはこのインスタンスでの変更しか反映しないため、他のインスタンスや直接のSQLで変更された行は候補に含まれません。
+ * そのため候補での絞り込みは、すべての変更がこのインスタンスを経由する場合に限り student.search-index.narrowing=true で有効にします。
+ * 無効の場合はインデックスを構築も更新もせず、候補を返しません。呼び出し元は {@link #isEnabled()} で反映自体を省略できます。
+ */
+@Component
+public class StudentSearchIndex {
+
+    private StudentRepository repository;
+    private boolean narrowing;
+
+    private volatile NgramIndex studentNameIndex = new NgramIndex();
+    private volatile NgramIndex courseNameIndex = new NgramIndex();
+    private volatile boolean ready = false;
+
+    /** 再構築中に反映された受講生と受講生コース情報（再構築中でない場合はnull）。ロックはこのインスタンスです。 */
+    private List<Student> pendingStudentList;
+    private List<StudentCourse> pendingStudentCourseList;
+
+    @Autowired
+    public StudentSearchIndex(StudentRepository repository,
+                              @Value("${student.search-index.narrowing:false}") boolean narrowing) {
+        this.repository = repository;
+        this.narrowing = narrowing;
+    }
+
+    /**
+     * 候補での絞り込みが有効かどうかを返します。無効の場合、インデックスへの反映は何もしません。
+     * @return student.search-index.narrowing が true の場合はtrue
+     */
+    public boolean isEnabled() {
+        return narrowing;
+    }
+
+    /**
+     * 全受講生と全受講生コース情報からインデックスを構築します。
+     * 検索中のインデックスはそのままにして新しいインデックスに読み込み、読み込み中にコミットされた変更を反映してから入れ替えます。
+     * そのため、読み込んだ時点より新しい変更が読み込んだ内容で上書きされることはありません。
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!narrowing) {
+            return;
+        }
+        synchronized (this) {
+            pendingStudentList = new ArrayList<>();
+            pendingStudentCourseList = new ArrayList<>();
+        }
+        NgramIndex newStudentNameIndex = new NgramIndex();
+        NgramIndex newCourseNameIndex = new NgramIndex();
+        try {
+            repository.search().forEach(student -> putStudent(newStudentNameIndex, student));
+            repository.searchStudentCourseList().forEach(studentCourse -> putStudentCourse(newCourseNameIndex, studentCourse));
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                pendingStudentList = null;
+                pendingStudentCourseList = null;
+            }
+            throw e;
+        }
+        synchronized (this) {
+            pendingStudentList.forEach(student -> putStudent(newStudentNameIndex, student));
+            pendingStudentCourseList.forEach(studentCourse -> putStudentCourse(newCourseNameIndex, studentCourse));
+            pendingStudentList = null;
+            pendingStudentCourseList = null;
+            studentNameIndex = newStudentNameIndex;
+            courseNameIndex = newCourseNameIndex;
+            ready = true;
+        }
+    }
+
+    /**
+     * 受講生の名前とカナ名をインデックスに反映します。登録済みの場合は置き換えます。
+     * @param student 受講生
+     */
+    public synchronized void indexStudent(Student student) {
+        if (!narrowing || student.getId() == null) {
+            return;
+        }
+        putStudent(studentNameIndex, student);
+        if (pendingStudentList != null) {
+            pendingStudentList.add(student);
+        }
+    }
+
+    /**
+     * 受講生コース情報のコース名をインデックスに反映します。登録済みの場合は置き換えます。
+     * @param studentCourse 受講生コース情報
+     */
+    public synchronized void indexStudentCourse(StudentCourse studentCourse) {
+        if (!narrowing || studentCourse.getId() == null) {
+            return;
+        }
+        putStudentCourse(courseNameIndex, studentCourse);
+        if (pendingStudentCourseList != null) {
+            pendingStudentCourseList.add(studentCourse);
+        }
+    }
+
+    private void putStudent(NgramIndex index, Student student) {
+        index.put(student.getId(), student.getName(), student.getKanaName());
+    }
+
+    private void putStudentCourse(NgramIndex index, StudentCourse studentCourse) {
+        if (studentCourse.getId() != null) {
+            index.put(studentCourse.getId(), studentCourse.getCourseName());
+        }
+    }
+
+    /**
+     * 名前またはカナ名が指定された文字列を含む可能性のある受講生IDの候補を検索します。
+     * @param name 受講生名
+     * @return 受講生IDの候補。インデックスが利用できない場合は空
+     */
+    public Optional<Set<Integer>> findStudentIdCandidates(String name) {
+        return ready ? studentNameIndex.search(name) : Optional.empty();
+    }
+
+    /**
+     * コース名が指定された文字列を含む可能性のある受講生コースIDの候補を検索します。
+     * @param courseName コース名
+     * @return 受講生コースIDの候補。インデックスが利用できない場合は空
+     */
+    public Optional<Set<Integer>> findStudentCourseIdCandidates(String courseName) {
+        return ready ? courseNameIndex.search(courseName) : Optional.empty();
+    }
+
+    /**
+     * 文字列の表記ゆれをデータベースの照合順序より広く同一視するよう正規化します。
+     * 互換文字の統一・濁点などの結合文字の除去・カタカナのひらがな化・小文字化を行います。
+     * @param text 文字列
+     * @return 正規化した文字列
+     */
+    static String normalize(String text) {
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFKD);
+        StringBuilder builder = new StringBuilder(decomposed.length());
+        decomposed.codePoints().forEach(codePoint -> {
+            int type = Character.getType(codePoint);
+            if (type == Character.NON_SPACING_MARK || type == Character.COMBINING_SPACING_MARK
+                    || codePoint == 0x309B || codePoint == 0x309C) {
+                return;
+            }
+            if (codePoint >= 0x30A1 && codePoint <= 0x30F6) {
+                codePoint -= 0x60;
+            }
+            builder.appendCodePoint(Character.toLowerCase(codePoint));
+        });
+        return builder.toString();
+    }
+
+    /**
+     * IDごとの文字列から1文字と2文字の部分文字列を索引するN-gramインデックスです。
+     */
+    static class NgramIndex {
+
+        private final Map<String, Set<Integer>> postings = new ConcurrentHashMap<>();
+        private final Map<Integer, Set<String>> indexedGrams = new ConcurrentHashMap<>();
+
+        /**
+         * IDに紐づく文字列を索引します。同じIDの以前の索引は置き換えます。
+         * 同時に検索された場合も候補が上位集合のままとなるよう、新しい索引を追加してから以前の索引を削除します。
+         */
+        synchronized void put(Integer id, String... texts) {
+            Set<String> grams = new HashSet<>();
+            for (String text : texts) {
+                if (text != null) {
+                    addGrams(normalize(text), grams);
+                }
+            }
+            grams.forEach(gram -> postings.computeIfAbsent(gram, key -> ConcurrentHashMap.newKeySet()).add(id));
+            Set<String> previousGrams = indexedGrams.put(id, grams);
+            if (previousGrams != null) {
+                previousGrams.stream()
+                        .filter(gram -> !grams.contains(gram))
+                        .forEach(gram -> postings.computeIfPresent(gram, (key, ids) -> {
+                            ids.remove(id);
+                            return ids.isEmpty() ? null : ids;
+                        }));
+            }
+        }
+
+        /**
+         * 指定された文字列を含む可能性のあるIDを検索します。
+         * 検索文字列が空の場合やLIKEのワイルドカードを含む場合は、インデックスで絞り込めないため空を返します。
+         */
+        Optional<Set<Integer>> search(String query) {
+            if (query == null || query.isEmpty() || query.contains("%") || query.contains("_") || query.contains("\\")) {
+                return Optional.empty();
+            }
+            String normalized = normalize(query);
+            if (normalized.isEmpty()) {
+                return Optional.empty();
+            }
+
+            Set<String> queryGrams = new HashSet<>();
+            if (normalized.codePointCount(0, normalized.length()) == 1) {
+                queryGrams.add(normalized);
+            } else {
+                addBigrams(normalized, queryGrams);
+            }
+
+            Set<Integer> candidates = null;
+            for (String gram : queryGrams) {
+                Set<Integer> ids = postings.getOrDefault(gram, Set.of());
+                if (candidates == null) {
+                    candidates = new HashSet<>(ids);
+                } else {
+                    candidates.retainAll(ids);
+                }
+                if (candidates.isEmpty()) {
+                    break;
+                }
+            }
+            return Optional.of(candidates);
+        }
+
+        private static void addGrams(String text, Collection<String> grams) {
+            text.codePoints().forEach(codePoint -> grams.add(new String(Character.toChars(codePoint))));
+            addBigrams(text, grams);
+        }
+
+        private static void addBigrams(String text, Collection<String> grams) {
+            List<Integer> codePoints = text.codePoints().boxed().toList();
+            for (int i = 0; i + 1 < codePoints.size(); i++) {
+                grams.add(new String(Character.toChars(codePoints.get(i))) + new String(Character.toChars(codePoints.get(i + 1))));
+            }
+        }
+    }
+}
@@ -1,18 +1,34 @@
 package raisetech.StudentManagement.service;
 
+import org.apache.ibatis.cursor.Cursor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import raisetech.StudentManagement.controller.converter.StudentConverter;
+import raisetech.StudentManagement.data.ChangeLog;
 import raisetech.StudentManagement.data.CourseStatus;
+import raisetech.StudentManagement.data.CourseStatusType;
 import raisetech.StudentManagement.data.StudentCourse;
 import raisetech.StudentManagement.data.Student;
+import raisetech.StudentManagement.datasource.DataSourceRouting;
 import raisetech.StudentManagement.domein.StudentDetail;
+import raisetech.StudentManagement.domein.StudentDetailCacheStats;
+import raisetech.StudentManagement.domein.StudentDetailPage;
+import raisetech.StudentManagement.domein.StudentFieldSet;
+import raisetech.StudentManagement.domein.StudentStatisticsSummary;
 import raisetech.StudentManagement.repository.StudentRepository;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
@@ -22,53 +38,314 @@ import java.util.stream.Collectors;
 @Service
 public class StudentService {
 
+    /** エクスポート時に受講生コース情報とコースステータスをまとめて検索する受講生の件数 */
+    static final int EXPORT_BATCH_SIZE = 500;
+
+    /** 検索インデックスで絞り込んだIDの候補をクエリの条件に含める最大件数。超える場合は候補で絞り込みません。 */
+    static final int MAX_INDEX_CANDIDATES = 1000;
+
     private StudentRepository repository;
     private StudentConverter converter;
+    private StudentDetailCache studentDetailCache;
+    private StudentSearchIndex searchIndex;
+    private ParallelQueryExecutor parallelQueries;
+    private StudentVersionRegistry versions;
+    private StudentChangeFeed changeFeed;
+    private StudentStatistics statistics;
 
     @Autowired
-    public StudentService(StudentRepository repository, StudentConverter converter){
+    public StudentService(StudentRepository repository, StudentConverter converter, StudentDetailCache studentDetailCache,
+                          StudentSearchIndex searchIndex, ParallelQueryExecutor parallelQueries, StudentVersionRegistry versions,
+                          StudentChangeFeed changeFeed, StudentStatistics statistics){
         this.repository = repository;
         this.converter = converter;
+        this.studentDetailCache = studentDetailCache;
+        this.searchIndex = searchIndex;
+        this.parallelQueries = parallelQueries;
+        this.versions = versions;
+        this.changeFeed = changeFeed;
+        this.statistics = statistics;
     }
 
     /**
      * 受講生詳細の検索です。
      * 条件が指定されない場合は全件検索を行います。
+     * コースの条件（コース名・受講開始日・受講終了日）とステータスは、条件に一致するコースを持つ受講生と、そのコースのみを返します。
+     * 受講生・受講生コース情報・コースステータスは1回のクエリで結合して取得します。
+     * 受講生名とコース名は、検索インデックスで一致する可能性のあるIDの候補が得られた場合に、その候補をクエリの条件に含めます。
+     * インデックスはこのインスタンスでの変更しか反映しないため、候補がない場合も絞り込まずにクエリを実行します。
      *
      * @param name 受講生の名前
      * @param courseName コース名
      * @param startDate 受講開始日
      * @param endDate 受講終了日
+     * @param status コースのステータス（表示名）。該当するステータスがない場合は空の一覧を返します。
      * @return 条件に合致した、または全件の受講生一覧
      */
+    @Transactional(readOnly = true)
     public List<StudentDetail> searchStudentList(String name, String courseName, LocalDateTime startDate, LocalDateTime endDate, String status) {
-        List<Student> studentList = repository.searchWithConditions(name);
-        List<StudentCourse> studentCourseList = repository.searchStudentCourseListWithConditions(courseName, startDate, endDate, status);
-        List<CourseStatus> courseStatusList = repository.searchCourseStatusListWithConditions(status);
+        if (isUnknownStatus(status)) {
+            return new ArrayList<>();
+        }
+        List<Integer> studentIdList = searchIndex.findStudentIdCandidates(name)
+                .map(this::toCandidateList)
+                .orElse(null);
+        List<Integer> studentCourseIdList = searchIndex.findStudentCourseIdCandidates(courseName)
+                .map(this::toCandidateList)
+                .orElse(null);
+
+        return repository.searchStudentDetailsWithConditions(name, courseName, startDate, endDate, toCourseStatusType(status),
+                studentIdList, studentCourseIdList);
+    }
+
+    /**
+     * 検索条件のステータスが、どのコースステータスの表示名にも該当しないかを判定します。
+     * @param status コースのステータス（表示名）
+     * @return 該当するコースステータスがない場合はtrue。nullの場合は条件に含めないためfalse
+     */
+    private boolean isUnknownStatus(String status) {
+        return status != null && CourseStatusType.findByLabel(status).isEmpty();
+    }
+
+    private CourseStatusType toCourseStatusType(String status) {
+        return status == null ? null : CourseStatusType.fromLabel(status);
+    }
+
+    /**
+     * 検索インデックスで絞り込んだIDの候補を、クエリの条件に含めるID順のリストにします。
+     * @param candidates IDの候補
+     * @return IDの候補のリスト。候補がない場合（インデックスに反映されていない行がありうるため）や、
+     *         候補が多すぎて絞り込みの効果がない場合はnull
+     */
+    private List<Integer> toCandidateList(Set<Integer> candidates) {
+        if (candidates.isEmpty() || candidates.size() > MAX_INDEX_CANDIDATES) {
+            return null;
+        }
+        return candidates.stream()
+                .sorted()
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 受講生詳細の1ページ分の検索です。
+     * 条件は {@link #searchStudentList} と同じです。
+     * 受講生ID順に、指定されたIDより後ろの受講生を最大件数分取得し、そのページの受講生に紐づく受講生コース情報と
+     * コースステータスのみを検索して組み立てます。受講生コース情報とコースステータスは並列に検索します。
+     *
+     * @param name 受講生の名前
+     * @param courseName コース名
+     * @param startDate 受講開始日
+     * @param endDate 受講終了日
+     * @param status コースのステータス（表示名）。該当するステータスがない場合は空のページを返します。
+     * @param after 前のページの最後の受講生ID。nullの場合は先頭のページを検索します。
+     * @param limit 1ページの最大件数
+     * @return 受講生詳細の1ページ分の検索結果
+     */
+    @Transactional(readOnly = true)
+    public StudentDetailPage searchStudentPage(String name, String courseName, LocalDateTime startDate, LocalDateTime endDate, String status,
+                                               Integer after, int limit) {
+        if (isUnknownStatus(status)) {
+            return new StudentDetailPage(new ArrayList<>(), null);
+        }
+        CourseStatusType statusType = toCourseStatusType(status);
+        // 次のページの有無を判定するため1件多く取得する
+        List<Student> studentList = repository.searchWithConditionsAfter(name, courseName, startDate, endDate, statusType, after, limit + 1);
+        Integer nextCursor = null;
+        if (studentList.size() > limit) {
+            studentList = new ArrayList<>(studentList.subList(0, limit));
+            nextCursor = studentList.get(limit - 1).getId();
+        }
+        if (studentList.isEmpty()) {
+            return new StudentDetailPage(new ArrayList<>(), null);
+        }
+
+        List<Integer> studentIdList = studentList.stream()
+                .map(Student::getId)
+                .collect(Collectors.toList());
+        Future<List<StudentCourse>> studentCourseList = parallelQueries.submit(
+                () -> repository.searchStudentCourseListByStudentIds(studentIdList, courseName, startDate, endDate, statusType));
+        Future<List<CourseStatus>> courseStatusList = parallelQueries.submit(
+                () -> repository.searchCourseStatusListByStudentIds(studentIdList, statusType));
+        parallelQueries.awaitAll(studentCourseList, courseStatusList);
+
+        return new StudentDetailPage(converter.convertStudentDetails(studentList,
+                parallelQueries.get(studentCourseList), parallelQueries.get(courseStatusList)), nextCursor);
+    }
+
+    /**
+     * 受講生詳細の、指定された項目のみの検索です。
+     * 受講生と受講生コース情報は指定された項目の列のみを検索し、受講生コース情報・コースステータスの項目が
+     * 指定されない場合はそれらの検索を行いません。条件は {@link #searchStudentPage} と同じです。
+     * 受講生コース情報とコースステータスは、受講生の一定件数ごとに並列に検索します。
+     *
+     * @param name 受講生の名前
+     * @param courseName コース名
+     * @param startDate 受講開始日
+     * @param endDate 受講終了日
+     * @param status コースのステータス（表示名）。該当するステータスがない場合は空のページを返します。
+     * @param after 前のページの最後の受講生ID。nullの場合は先頭から検索します。
+     * @param limit 1ページの最大件数。nullの場合はすべて検索します。
+     * @param fields 取得する項目
+     * @return 受講生詳細の検索結果。指定されていない項目の値は設定されません。
+     */
+    @Transactional(readOnly = true)
+    public StudentDetailPage searchStudentFields(String name, String courseName, LocalDateTime startDate, LocalDateTime endDate, String status,
+                                                 Integer after, Integer limit, StudentFieldSet fields) {
+        if (isUnknownStatus(status)) {
+            return new StudentDetailPage(new ArrayList<>(), null);
+        }
+        CourseStatusType statusType = toCourseStatusType(status);
+        // 次のページの有無を判定するため1件多く取得する
+        List<Student> studentList = repository.searchStudentColumnsAfter(fields.getStudentColumns(), name, courseName, startDate, endDate,
+                statusType, after, limit == null ? null : limit + 1);
+        Integer nextCursor = null;
+        if (limit != null && studentList.size() > limit) {
+            studentList = new ArrayList<>(studentList.subList(0, limit));
+            nextCursor = studentList.get(limit - 1).getId();
+        }
+        if (!fields.includesStudentCourses()) {
+            List<StudentDetail> studentDetailList = studentList.stream()
+                    .map(student -> new StudentDetail(student, null))
+                    .collect(Collectors.toList());
+            return new StudentDetailPage(studentDetailList, nextCursor);
+        }
+
+        List<StudentCourse> studentCourseList = new ArrayList<>();
+        List<CourseStatus> courseStatusList = new ArrayList<>();
+        for (int from = 0; from < studentList.size(); from += EXPORT_BATCH_SIZE) {
+            List<Integer> studentIdList = studentList.subList(from, Math.min(from + EXPORT_BATCH_SIZE, studentList.size())).stream()
+                    .map(Student::getId)
+                    .collect(Collectors.toList());
+            Future<List<StudentCourse>> studentCourseFuture = parallelQueries.submit(() -> repository.searchStudentCourseColumnsByStudentIds(
+                    fields.getStudentCourseColumns(), studentIdList, courseName, startDate, endDate, statusType));
+            if (fields.includesCourseStatuses()) {
+                Future<List<CourseStatus>> courseStatusFuture = parallelQueries.submit(
+                        () -> repository.searchCourseStatusListByStudentIds(studentIdList, statusType));
+                parallelQueries.awaitAll(studentCourseFuture, courseStatusFuture);
+                courseStatusList.addAll(parallelQueries.get(courseStatusFuture));
+            } else {
+                parallelQueries.awaitAll(studentCourseFuture);
+            }
+            studentCourseList.addAll(parallelQueries.get(studentCourseFuture));
+        }
+
+        return new StudentDetailPage(converter.convertStudentDetails(studentList, studentCourseList, courseStatusList), nextCursor);
+    }
+
+    /**
+     * 全受講生の受講生詳細を受講生ID順に1件ずつ出力します。
+     * 受講生はカーソルで読み込み、一定件数ごとに受講生コース情報とコースステータスを検索して組み立てるため、
+     * 受講生の件数にかかわらずメモリ使用量は一定です。
+     * @param consumer 組み立てた受講生詳細を受け取る処理
+     */
+    @Transactional(readOnly = true)
+    public void exportStudentDetails(Consumer<StudentDetail> consumer) {
+        try (Cursor<Student> cursor = repository.searchStudentCursor()) {
+            List<Student> studentList = new ArrayList<>(EXPORT_BATCH_SIZE);
+            for (Student student : cursor) {
+                studentList.add(student);
+                if (studentList.size() == EXPORT_BATCH_SIZE) {
+                    exportStudentDetailBatch(studentList, consumer);
+                    studentList.clear();
+                }
+            }
+            if (!studentList.isEmpty()) {
+                exportStudentDetailBatch(studentList, consumer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 
-        return converter.convertStudentDetails(studentList, studentCourseList, courseStatusList);
+    /**
+     * 受講生の一覧に紐づく受講生コース情報とコースステータスを検索し、組み立てた受講生詳細を出力します。
+     * @param studentList 受講生の一覧
+     * @param consumer 組み立てた受講生詳細を受け取る処理
+     */
+    private void exportStudentDetailBatch(List<Student> studentList, Consumer<StudentDetail> consumer) {
+        List<Integer> studentIdList = studentList.stream()
+                .map(Student::getId)
+                .collect(Collectors.toList());
+        List<StudentCourse> studentCourseList = repository.searchStudentCourseListByStudentIds(studentIdList, null, null, null, null);
+        List<CourseStatus> courseStatusList = repository.searchCourseStatusListByStudentIds(studentIdList, null);
+
+        converter.convertStudentDetails(studentList, studentCourseList, courseStatusList).forEach(consumer);
     }
 
     /**
      * 受講生詳細検索です。
-     * IDに紐づく受講生情報を取得した後、その受講生に紐づく受講生コース情報を取得して設定します。
+     * IDに紐づく受講生情報と、その受講生に紐づく受講生コース情報・コースステータスを1回のクエリで取得して設定します。
+     * 組み立てた受講生詳細はキャッシュし、受講生・コースステータスの更新時に破棄します。
+     * キャッシュはすべてのクライアントで共有するため、レプリカの遅延で更新前の内容を格納しないよう、
+     * キャッシュにない場合の検索はプライマリで実行します。
      * @param id 受講生ID
-     * @return 受講生詳細
+     * @return 受講生詳細。受講生が存在しない場合はnull
      */
-    public StudentDetail searchStudent(String id){
-        Student student = repository.searchStudent(id);
-        List<StudentCourse> studentCourseList = repository.searchStudentCourse(student.getId());
-        List<CourseStatus> courseStatusList = repository.searchCourseStatusByStudentId(student.getId());
+    @Transactional(readOnly = true)
+    public StudentDetail searchStudent(Integer id){
+        return studentDetailCache.get(id, key -> DataSourceRouting.onPrimary(() -> loadStudentDetail(key)));
+    }
 
-        // StudentCourseにCourseStatusを紐付ける
-        studentCourseList.forEach(studentCourse -> {
-            List<CourseStatus> matchedStatusList = courseStatusList.stream()
-                    .filter(status -> studentCourse.getId().equals(String.valueOf(status.getStudentsCoursesId())))
-                    .collect(Collectors.toList());
-            studentCourse.setCourseStatusList(matchedStatusList);
-        });
+    /**
+     * IDに紐づく受講生詳細をリポジトリから読み込みます。
+     * 受講生・受講生コース情報・コースステータスを結合して1回のクエリで検索するため、
+     * 1つの接続で同じ時点のデータから組み立てられます。
+     * @param id 受講生ID
+     * @return 受講生詳細。受講生が存在しない場合はnull
+     */
+    private StudentDetail loadStudentDetail(Integer id) {
+        List<StudentDetail> studentDetailList = repository.searchStudentDetailsWithConditions(
+                null, null, null, null, null, List.of(id), null);
+        return studentDetailList.isEmpty() ? null : studentDetailList.get(0);
+    }
 
-        return new StudentDetail(student, studentCourseList);
+    /**
+     * 受講生詳細のETagを取得します。受講生・受講生コース情報・コースステータスが変更されると変わります。
+     * 受講生詳細の検索・組み立ては行わず、変更履歴の最新の変更連番のみを取得するため、条件付きGETの検証に使えます。
+     * @param id 受講生ID
+     * @return 受講生詳細の弱いETag
+     */
+    public String getStudentETag(Integer id) {
+        return versions.studentETag(id);
+    }
+
+    /**
+     * 受講生詳細の一覧のETagを取得します。いずれかの受講生詳細が登録・変更されると変わります。
+     * @return 受講生詳細の一覧の弱いETag
+     */
+    public String getStudentListETag() {
+        return versions.listETag();
+    }
+
+    /**
+     * 受講生詳細の一覧を、ETagの時点以降の内容で検索します。
+     * 読み取り専用の検索はレプリカで実行するため、レプリカがETagの時点の変更をまだ反映していない場合は、
+     * 更新前の一覧が最新のETagで保存されないよう、プライマリで検索します。
+     * @param listETag 検索より前に取得した受講生詳細の一覧のETag（{@link #getStudentListETag()}）
+     * @param search 一覧の検索（searchStudentList・searchStudentPage・searchStudentFields）
+     * @return 検索結果
+     */
+    public <T> T searchStudentListAsOf(String listETag, Supplier<T> search) {
+        if (versions.isListReplicated(listETag)) {
+            return search.get();
+        }
+        return DataSourceRouting.onPrimary(search);
+    }
+
+    /**
+     * 受講生詳細キャッシュの統計情報を取得します。
+     * @return ヒット数・ミス数・追い出し数などの統計情報
+     */
+    public StudentDetailCacheStats getStudentDetailCacheStats() {
+        return studentDetailCache.stats();
+    }
+
+    /**
+     * 受講状況の統計を取得します。統計は登録や更新のたびに更新しているため、検索は行いません。
+     * @return コース名ごと・最新ステータスごと・月ごとの受講生コース情報の件数
+     */
+    public StudentStatisticsSummary getStudentStatistics() {
+        return statistics.summary();
     }
 
     /**
@@ -79,39 +356,111 @@ public class StudentService {
      */
     @Transactional
     public StudentDetail registerStudent(StudentDetail studentDetail) {
-        Student student = studentDetail.getStudent();
-        repository.registerStudent(student);
-
-        studentDetail.getStudentCourseList().forEach(studentCourse -> {
-            initStudentsCourse(studentCourse, student.getId());
-            repository.registerStudentCourse(studentCourse);
-
-            // 初期ステータスをCourseStatusに登録
-            CourseStatus initialStatus = new CourseStatus();
-            initialStatus.setStudentsCoursesId(String.valueOf(studentCourse.getId()));
-            initialStatus.setStatus("仮申込");
-            repository.registerCourseStatus(initialStatus);
+        repository.registerStudent(studentDetail.getStudent());
+        registerStudentCourses(List.of(studentDetail));
+        return studentDetail;
+    }
+
+    /**
+     * 登録済みの受講生に紐づく受講生コース情報と初期ステータスを登録します。
+     * 受講生コース情報と初期ステータスはそれぞれ1回のINSERTでまとめて登録し、最新ステータスも1回のUPDATEで反映するため、
+     * コース数にかかわらず実行するSQLは一定です。
+     * 登録した受講生と受講生コース情報は、検索インデックスでの絞り込みが有効な場合にコミット後に検索インデックスに反映します。
+     * 受講生・受講生コース情報・初期ステータスの登録は、同じトランザクションで変更履歴に記録し、コミット後に受講状況の統計に反映します。
+     * @param studentDetailList 受講生のIDが採番済みの受講生詳細のリスト
+     */
+    @Transactional
+    public void registerStudentCourses(List<StudentDetail> studentDetailList) {
+        if (searchIndex.isEnabled()) {
+            TransactionHooks.afterCommit(() -> studentDetailList.forEach(this::indexStudentDetail));
+        }
+
+        List<ChangeLog> changeLogList = new ArrayList<>();
+        studentDetailList.forEach(studentDetail -> changeLogList.add(new ChangeLog(studentDetail.getStudent().getId(),
+                ChangeLog.EntityType.STUDENT, studentDetail.getStudent().getId(), ChangeLog.Operation.INSERT)));
+
+        List<StudentCourse> studentCourseList = new ArrayList<>();
+        studentDetailList.forEach(studentDetail -> {
+            if (studentDetail.getStudentCourseList() == null) {
+                return;
+            }
+            studentDetail.getStudentCourseList().forEach(studentCourse -> {
+                initStudentsCourse(studentCourse, studentDetail.getStudent().getId());
+                studentCourseList.add(studentCourse);
+            });
         });
+        if (studentCourseList.isEmpty()) {
+            changeFeed.record(changeLogList);
+            return;
+        }
+        repository.registerStudentCourseList(studentCourseList);
 
-        return studentDetail;
+        // 初期ステータスをCourseStatusに登録
+        List<CourseStatus> initialStatusList = studentCourseList.stream()
+                .map(studentCourse -> {
+                    CourseStatus initialStatus = new CourseStatus();
+                    initialStatus.setStudentsCoursesId(studentCourse.getId());
+                    initialStatus.setStatus(CourseStatusType.PROVISIONAL);
+                    return initialStatus;
+                })
+                .collect(Collectors.toList());
+        repository.registerCourseStatusList(initialStatusList);
+        repository.refreshCurrentCourseStatusList(studentCourseList.stream()
+                .map(StudentCourse::getId)
+                .collect(Collectors.toList()));
+
+        studentCourseList.forEach(studentCourse -> {
+            changeLogList.add(new ChangeLog(studentCourse.getStudentId(),
+                    ChangeLog.EntityType.STUDENT_COURSE, studentCourse.getId(), ChangeLog.Operation.INSERT));
+            statistics.recordEnrollment(studentCourse.getCourseName(), studentCourse.getCourseStartAt(),
+                    studentCourse.getCourseEndAt(), CourseStatusType.PROVISIONAL);
+        });
+        for (int i = 0; i < studentCourseList.size(); i++) {
+            changeLogList.add(new ChangeLog(studentCourseList.get(i).getStudentId(),
+                    ChangeLog.EntityType.COURSE_STATUS, initialStatusList.get(i).getId(), ChangeLog.Operation.INSERT));
+        }
+        changeFeed.record(changeLogList);
     }
 
     /**
      * コースステータスの登録を行います。
+     * 登録したコースステータスは同じトランザクションで受講生コース情報の最新ステータスに反映し、コミット後に受講状況の統計に反映します。
      * @param courseStatus 登録するコースステータス
-     * @throws IllegalArgumentException 引数が無効な場合
+     * @throws IllegalArgumentException 引数が無効な場合、または受講生コース情報が存在しない場合
      */
+    @Transactional
     public void registerCourseStatus(CourseStatus courseStatus) {
         // Validation: studentsCoursesId と status の必須チェック
-        if (courseStatus.getStudentsCoursesId() == null || courseStatus.getStudentsCoursesId().isEmpty()) {
+        if (courseStatus.getStudentsCoursesId() == null) {
             throw new IllegalArgumentException("コースステータスの登録に必要な 'studentsCoursesId' が指定されていません。");
         }
-        if (courseStatus.getStatus() == null || courseStatus.getStatus().isEmpty()) {
+        if (courseStatus.getStatus() == null) {
             throw new IllegalArgumentException("コースステータスの登録に必要な 'status' が指定されていません。");
         }
 
+        // 同じコースへの登録が同時に行われても直前の最新ステータスが確定するよう、受講生コース情報の行ロックを取得して読み込む
+        CourseStatus previous = repository.findCurrentCourseStatusByCourseIdForUpdate(courseStatus.getStudentsCoursesId());
+        if (previous == null) {
+            throw new IllegalArgumentException("指定された受講生コース情報が存在しません: " + courseStatus.getStudentsCoursesId());
+        }
+
         // コースステータスをリポジトリに登録
         repository.registerCourseStatus(courseStatus);
+        repository.updateCurrentCourseStatus(courseStatus);
+        recordCourseStatusChange(courseStatus, ChangeLog.Operation.INSERT);
+        statistics.recordStatusTransition(previous.getStatus(), courseStatus.getStatus(), 1);
+    }
+
+    /**
+     * コースステータスの変更を、受講生コース情報を持つ受講生の変更履歴として記録します（受講生詳細と一覧のETagが変わります）。
+     * あわせて、その受講生の受講生詳細をキャッシュから削除します。
+     * @param courseStatus 登録・更新したコースステータス
+     * @param operation 変更の種類
+     */
+    private void recordCourseStatusChange(CourseStatus courseStatus, ChangeLog.Operation operation) {
+        Integer studentId = repository.searchStudentIdByStudentCourseId(courseStatus.getStudentsCoursesId());
+        studentDetailCache.invalidate(studentId);
+        changeFeed.record(List.of(new ChangeLog(studentId, ChangeLog.EntityType.COURSE_STATUS, courseStatus.getId(), operation)));
     }
 
 
@@ -121,52 +470,137 @@ public class StudentService {
      * @param studentCourse 受講生コース情報
      * @param id 受講生
      */
-    void initStudentsCourse(StudentCourse studentCourse, String id) {
+    void initStudentsCourse(StudentCourse studentCourse, Integer id) {
         LocalDateTime now = LocalDateTime.now();
 
-        studentCourse.setStudentId(String.valueOf(id));
+        studentCourse.setStudentId(id);
         studentCourse.setCourseStartAt(now);
         studentCourse.setCourseEndAt(now.plusYears(1));
     }
 
     /**
      * 受講生詳細の更新を行います。
-     * 受講生と受講生コース情報をそれぞれ更新します。
+     * 受講生の受講生コース情報の行ロックを取得してから、保存されている受講生詳細を1回のクエリで取得して比較し、変更された受講生の列と、変更された受講生コース情報・コースステータスの行のみを更新します。
+     * 受講生コース情報とコースステータスは、変更された行の件数にかかわらずそれぞれ1回のUPDATEでまとめて更新します。
+     * コースステータスを更新した受講生コース情報は、最新ステータスを再計算します。
+     * 更新した受講生・受講生コース情報・コースステータスは、同じトランザクションで変更履歴に記録します。
+     * 変更がない場合や受講生が存在しない場合は何も更新しません。
+     * 検索インデックスでの絞り込みが有効な場合は、保存されている受講生詳細に変更を反映したものをコミット後に検索インデックスに反映します。
      * @param studentDetail 受講生詳細
+     * @throws IllegalArgumentException 受講生のIDが指定されていない場合
      */
     @Transactional
     public void updateStudent(StudentDetail studentDetail) {
-        repository.updateStudent(studentDetail.getStudent());
-        studentDetail.getStudentCourseList().forEach(studentCourse -> {
-                repository.updateStudentCourse(studentCourse);
-                studentCourse.getCourseStatusList().forEach(repository::updateCourseStatus);
-        });
+        Integer studentId = studentDetail.getStudent().getId();
+        if (studentId == null) {
+            throw new IllegalArgumentException("更新する受講生のIDを指定してください。");
+        }
+        // 統計の増減を読み込んだ値から求めるため、受講生コース情報をロックしてから読み込む
+        repository.lockStudentCourseListByStudentId(studentId);
+        List<StudentDetail> storedList = repository.searchStudentDetailsWithConditions(
+                null, null, null, null, null, List.of(studentId), null);
+        if (storedList.isEmpty()) {
+            return;
+        }
+        StudentDetailChanges changes = StudentDetailChanges.between(storedList.get(0), studentDetail);
+        if (changes.isEmpty()) {
+            return;
+        }
+
+        if (!changes.getStudentColumns().isEmpty()) {
+            repository.updateStudentColumns(studentDetail.getStudent(), changes.getStudentColumns());
+        }
+        if (!changes.getStudentCourseList().isEmpty()) {
+            repository.updateStudentCourseNameList(changes.getStudentCourseList());
+        }
+        if (!changes.getCourseStatusList().isEmpty()) {
+            repository.updateCourseStatusList(changes.getCourseStatusList());
+            repository.refreshCurrentCourseStatusList(new ArrayList<>(changes.getStatusChangedStudentCourseIds()));
+        }
+        changeFeed.record(changes.toChangeLogList(studentId));
+        changes.getStudentCourseList().forEach(studentCourse -> statistics.recordCourseRename(
+                changes.getStoredStudentCourses().get(studentCourse.getId()).getCourseName(), studentCourse.getCourseName()));
+        changes.getCurrentStatuses().forEach((studentCourseId, currentStatus) -> statistics.recordStatusTransition(
+                changes.getStoredStudentCourses().get(studentCourseId).getCurrentStatus(), currentStatus, 1));
+        studentDetailCache.invalidate(studentId);
+        if (searchIndex.isEnabled()) {
+            StudentDetail updated = changes.applyTo(storedList.get(0), studentDetail);
+            TransactionHooks.afterCommit(() -> indexStudentDetail(updated));
+        }
+    }
+
+    /**
+     * 受講生詳細の受講生と受講生コース情報を検索インデックスに反映します。
+     * @param studentDetail 受講生詳細
+     */
+    private void indexStudentDetail(StudentDetail studentDetail) {
+        searchIndex.indexStudent(studentDetail.getStudent());
+        if (studentDetail.getStudentCourseList() != null) {
+            studentDetail.getStudentCourseList().forEach(searchIndex::indexStudentCourse);
+        }
     }
 
     /**
      * 新しいステータスに更新します。
      * ただし、有効なステータス遷移のみ許可されます。
+     * 現在のステータスは受講生コース情報に保持した最新ステータスから主キーで取得し、
+     * 読み込んだステータスから変わっていない場合のみ更新する条件付きのUPDATEで反映します。
+     * 読み込みから更新までの間に他の更新が反映されていた場合は、行ロックを保持したまま待つことはせずに競合として失敗します。
      * @param courseId 更新対象のコースID
      * @param newStatus 更新後のステータス
      * @throws IllegalStateException 無効なステータス遷移が試みられた場合
+     * @throws OptimisticLockingFailureException 同じコースのステータスが同時に更新された場合
      */
     @Transactional
-    public void updateCourseStatus(String courseId, String newStatus) {
+    public void updateCourseStatus(Integer courseId, CourseStatusType newStatus) {
         // コース情報をリポジトリから取得
-        CourseStatus courseStatus = repository.findLatestCourseStatusByCourseId(courseId);
+        CourseStatus courseStatus = repository.findCurrentCourseStatusByCourseId(courseId);
         if (courseStatus == null) {
             throw new NoSuchElementException("指定されたコースステータスが見つかりません: " + courseId);
         }
         // 現在のステータスをチェックして更新
-        String currentStatus = courseStatus.getStatus();
-        if ((currentStatus.equals("仮申込") && newStatus.equals("本申込"))||
-            (currentStatus.equals("本申込") && newStatus.equals("受講中"))||
-            (currentStatus.equals("受講中") && newStatus.equals("受講終了"))){
+        CourseStatusType currentStatus = courseStatus.getStatus();
+        if (CourseStatusStateMachine.canTransition(currentStatus, newStatus)){
+            if (repository.transitionCurrentCourseStatus(courseStatus, newStatus) == 0) {
+                throw new OptimisticLockingFailureException("コースステータスが同時に更新されました: " + courseId);
+            }
             courseStatus.setStatus(newStatus);
             repository.updateCourseStatus(courseStatus);
+            recordCourseStatusChange(courseStatus, ChangeLog.Operation.UPDATE);
+            statistics.recordStatusTransition(currentStatus, newStatus, 1);
         } else {
-            throw new IllegalStateException("無効なステータス遷移：" + currentStatus + "->" + newStatus);
+            throw new IllegalStateException("無効なステータス遷移：" + currentStatus.getLabel() + "->" + newStatus.getLabel());
+        }
+    }
+
+    /**
+     * 最新ステータスが遷移元のステータスであるすべての受講生コースを、遷移先のステータスに更新します。
+     * 受講開始時に本申込のコースをまとめて受講中にする場合などに使います。
+     * 受講生コース情報の最新ステータスとコースステータスはそれぞれ1回のUPDATEで更新するため、コースの件数にかかわらず実行するSQLは一定です。
+     * 更新の対象は先に行ロックを取得して特定し、更新した受講生コース情報を同じトランザクションで変更履歴に記録します。
+     * @param from 遷移元のステータス
+     * @param to 遷移先のステータス
+     * @return 更新した受講生コースの件数
+     * @throws IllegalStateException 無効なステータス遷移が指定された場合
+     */
+    @Transactional
+    public int transitionCourseStatuses(CourseStatusType from, CourseStatusType to) {
+        if (!CourseStatusStateMachine.canTransition(from, to)) {
+            throw new IllegalStateException("無効なステータス遷移：" + from.getLabel() + "->" + to.getLabel());
+        }
+        List<StudentCourse> targetList = repository.searchStudentCourseListByCurrentStatusForUpdate(from);
+        if (targetList.isEmpty()) {
+            return 0;
         }
+        int updated = repository.transitionAllCurrentCourseStatuses(from, to);
+        repository.transitionAllLatestCourseStatuses(from, to);
+        changeFeed.record(targetList.stream()
+                .map(studentCourse -> new ChangeLog(studentCourse.getStudentId(),
+                        ChangeLog.EntityType.STUDENT_COURSE, studentCourse.getId(), ChangeLog.Operation.UPDATE))
+                .collect(Collectors.toList()));
+        statistics.recordStatusTransition(from, to, updated);
+        studentDetailCache.invalidateAll();
+        return updated;
     }
 
 }
@@ -0,0 +1,246 @@
+package raisetech.StudentManagement.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import raisetech.StudentManagement.data.CourseStatusType;
+import raisetech.StudentManagement.domein.StudentCourseCount;
+import raisetech.StudentManagement.domein.StudentStatisticsSummary;
+import raisetech.StudentManagement.repository.StudentRepository;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * コース名ごと・最新ステータスごと・月ごとの受講生コース情報の件数を保持する受講状況の統計です。
+ * 起動時にデータベースの集計から再構築し、以降は登録やステータスの更新のたびにコミット後に件数を増減するため、
+ * 統計の取得時に受講生コース情報を検索することはありません。
+ * 件数は LongAdder で保持するため、同時に更新されても更新どうしが競合しません。
+ * 再構築は集計のスナップショットを確定させる間のみ件数を増減するトランザクションのコミットを待たせ、
+ * 集計中にコミットされた増減は入れ替える件数にも反映するため、
+ * 再構築中の変更が失われたり、集計に含まれた変更が二重に加算されたりすることはありません。
+ * 月ごとの件数は、受講期間（コース開始日の月からコース終了日の月まで）がその月を含む受講生コース情報の件数です。
+ * 論理削除された受講生の受講生コース情報も件数に含みます。
+ * 受講生詳細キャッシュと同様に、複数インスタンスで動かす場合は他のインスタンスでの変更は再起動まで反映されません。
+ */
+@Component
+public class StudentStatistics {
+
+    private StudentRepository repository;
+    private TransactionTemplate transactionTemplate;
+    private volatile Counts counts = new Counts();
+
+    /**
+     * 件数の増減（共有）と、再構築のスナップショットの確定・件数の入れ替え（排他）のロックです。
+     * 件数を増減するトランザクションはコミットの直前から増減を終えるまで共有ロックを保持するため、
+     * 再構築の集計には、増減を終えた変更のみが含まれます。
+     */
+    private ReadWriteLock rebuildLock = new ReentrantReadWriteLock();
+
+    /**
+     * 再構築の集計のスナップショットを確定させた後にコミットされた件数の増減です。再構築中でない場合はnullです。
+     * 集計に含まれない増減のため、入れ替える件数にも反映します。
+     */
+    private Queue<Consumer<Counts>> pendingUpdates;
+
+    @Autowired
+    public StudentStatistics(StudentRepository repository, PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    /**
+     * 起動時に統計を再構築します。最新ステータスを集計に使うため、最新ステータスのバックフィルの後に実行します。
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public void rebuildOnStartup() {
+        rebuild();
+    }
+
+    /**
+     * データベースの集計から統計を再構築します。
+     * 受講生コース情報をコース名・最新ステータス・受講期間の年月ごとに1回のクエリで集計するため、
+     * 受講生コース情報を1件ずつ読み込むことはありません。
+     * 集計は新しい件数に読み込んでから入れ替えるため、再構築中も統計の取得には再構築前の件数が返ります。
+     * 件数を増減するトランザクションのコミットを待たせるのは、REPEATABLE READのトランザクションで最初の読み込みを行い
+     * 集計のスナップショットを確定させる間と、件数を入れ替える間のみです。
+     * スナップショットの確定後にコミットされた増減は集計に含まれないため、入れ替える件数にも反映します。
+     */
+    public synchronized void rebuild() {
+        try {
+            Counts rebuilt = transactionTemplate.execute(status -> {
+                rebuildLock.writeLock().lock();
+                try {
+                    // 最初の読み込みで集計のスナップショットを確定させ、以降にコミットされる増減を保持する
+                    repository.findLatestChangeLogSeq();
+                    pendingUpdates = new ConcurrentLinkedQueue<>();
+                } finally {
+                    rebuildLock.writeLock().unlock();
+                }
+                return aggregate();
+            });
+            rebuildLock.writeLock().lock();
+            try {
+                pendingUpdates.forEach(update -> update.accept(rebuilt));
+                counts = rebuilt;
+            } finally {
+                rebuildLock.writeLock().unlock();
+            }
+        } finally {
+            rebuildLock.writeLock().lock();
+            try {
+                pendingUpdates = null;
+            } finally {
+                rebuildLock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * 受講生コース情報の集計を新しい件数に読み込みます。
+     */
+    private Counts aggregate() {
+        Counts aggregated = new Counts();
+        for (StudentCourseCount count : repository.countStudentCourses()) {
+            aggregated.addCourse(count.getCourseName(), count.getCourseCount());
+            if (count.getCurrentStatus() != null) {
+                aggregated.statusCounts.get(count.getCurrentStatus()).add(count.getCourseCount());
+            }
+            if (count.getStartYear() != null && count.getEndYear() != null) {
+                aggregated.addMonthlyActive(YearMonth.of(count.getStartYear(), count.getStartMonth()),
+                        YearMonth.of(count.getEndYear(), count.getEndMonth()), count.getCourseCount());
+            }
+        }
+        return aggregated;
+    }
+
+    /**
+     * 受講生コース情報が登録されたことを記録します。
+     * トランザクション中の場合はコミット後に記録し、ロールバックされた場合は記録しません。
+     * @param courseName コース名
+     * @param courseStartAt コース開始日
+     * @param courseEndAt コース終了日
+     * @param status 初期ステータス
+     */
+    public void recordEnrollment(String courseName, LocalDateTime courseStartAt, LocalDateTime courseEndAt, CourseStatusType status) {
+        record(counts -> {
+            counts.addCourse(courseName, 1);
+            counts.statusCounts.get(status).increment();
+            if (courseStartAt != null && courseEndAt != null) {
+                counts.addMonthlyActive(YearMonth.from(courseStartAt), YearMonth.from(courseEndAt), 1);
+            }
+        });
+    }
+
+    /**
+     * 受講生コース情報のコース名が変更されたことを記録します。
+     * @param from 変更前のコース名
+     * @param to 変更後のコース名
+     * @see #recordEnrollment
+     */
+    public void recordCourseRename(String from, String to) {
+        record(counts -> {
+            counts.addCourse(from, -1);
+            counts.addCourse(to, 1);
+        });
+    }
+
+    /**
+     * 受講生コース情報の最新ステータスが変更されたことを記録します。
+     * @param from 変更前の最新ステータス。nullの場合は変更後のステータスの件数のみを増やします。
+     * @param to 変更後の最新ステータス
+     * @param count 変更された受講生コース情報の件数
+     * @see #recordEnrollment
+     */
+    public void recordStatusTransition(CourseStatusType from, CourseStatusType to, long count) {
+        record(counts -> {
+            if (from != null) {
+                counts.statusCounts.get(from).add(-count);
+            }
+            counts.statusCounts.get(to).add(count);
+        });
+    }
+
+    /**
+     * 受講状況の統計を取得します。
+     * 件数は保持している値を返すため、受講生コース情報の件数によらず一定の時間で取得できます。
+     * @return コース名ごと・最新ステータスごと・月ごとの件数
+     */
+    public StudentStatisticsSummary summary() {
+        Counts counts = this.counts;
+        Map<String, Long> courses = new TreeMap<>();
+        counts.courseCounts.forEach((courseName, count) -> {
+            long value = count.sum();
+            if (value != 0) {
+                courses.put(courseName, value);
+            }
+        });
+        Map<String, Long> statuses = new LinkedHashMap<>();
+        counts.statusCounts.forEach((status, count) -> statuses.put(status.getLabel(), count.sum()));
+        Map<String, Long> months = new TreeMap<>();
+        counts.monthlyActiveCounts.forEach((month, count) -> months.put(month.toString(), count.sum()));
+        return new StudentStatisticsSummary(courses, statuses, months);
+    }
+
+    /**
+     * トランザクション中の場合はコミット後に件数を増減し、ロールバックされた場合は増減しません。
+     * コミットの直前から増減を終えるまで再構築のスナップショットの確定と件数の入れ替えを待たせます。
+     * 再構築中の場合は、入れ替える件数にも反映するために増減を保持します。
+     */
+    private void record(Consumer<Counts> update) {
+        TransactionHooks.afterCommit(rebuildLock.readLock(), () -> {
+            update.accept(counts);
+            if (pendingUpdates != null) {
+                pendingUpdates.add(update);
+            }
+        });
+    }
+
+    /**
+     * コース名ごと・最新ステータスごと・月ごとの件数です。再構築のたびに新しいインスタンスに入れ替えます。
+     */
+    private static class Counts {
+
+        private Map<String, LongAdder> courseCounts = new ConcurrentHashMap<>();
+        private Map<CourseStatusType, LongAdder> statusCounts = new EnumMap<>(CourseStatusType.class);
+        private Map<YearMonth, LongAdder> monthlyActiveCounts = new ConcurrentHashMap<>();
+
+        Counts() {
+            for (CourseStatusType status : CourseStatusType.values()) {
+                statusCounts.put(status, new LongAdder());
+            }
+        }
+
+        void addCourse(String courseName, long count) {
+            // コース名が未設定の受講生コース情報はコース名ごとの件数に含めない
+            if (courseName != null) {
+                courseCounts.computeIfAbsent(courseName, key -> new LongAdder()).add(count);
+            }
+        }
+
+        void addMonthlyActive(YearMonth start, YearMonth end, long count) {
+            for (YearMonth month = start; !month.isAfter(end); month = month.plusMonths(1)) {
+                monthlyActiveCounts.computeIfAbsent(month, key -> new LongAdder()).add(count);
+            }
+        }
+    }
+}
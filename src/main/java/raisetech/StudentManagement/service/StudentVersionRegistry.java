@@ -0,0 +1,54 @@
+package raisetech.StudentManagement.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import raisetech.StudentManagement.repository.StudentRepository;
+
+/**
+ * 受講生詳細と受講生一覧の変更を検知するためのETagを組み立てます。
+ * 受講生の登録・更新やコースステータスの登録・更新は、同じトランザクションで変更履歴（change_log）に記録されるため、
+ * 変更履歴の最新の変更連番をバージョンとしてETagを組み立てます。
+ * バージョンはデータベースから取得するため、複数インスタンスで動かす場合や再起動後も同じ内容には同じETagが付き、
+ * 他のインスタンスでの変更も次の条件付きGETで検知されます。
+ * 検索や組み立てを行わずに主キー・インデックスのみで変更の有無を判定できます。
+ * ETagはトランザクションの外（プライマリ）で取得し、レプリカの遅延した変更連番からは組み立てません。
+ */
+@Component
+public class StudentVersionRegistry {
+
+    private StudentRepository repository;
+
+    @Autowired
+    public StudentVersionRegistry(StudentRepository repository) {
+        this.repository = repository;
+    }
+
+    /**
+     * 受講生詳細のETagを返します。受講生の変更履歴が記録されると変わります。
+     * @param studentId 受講生ID
+     * @return 受講生詳細の弱いETag
+     */
+    public String studentETag(Integer studentId) {
+        return "W/\"s" + studentId + "-" + repository.findLatestChangeLogSeqByStudentId(studentId) + "\"";
+    }
+
+    /**
+     * 受講生一覧のETagを返します。いずれかの受講生の変更履歴が記録されると変わります。
+     * @return 受講生一覧の弱いETag
+     */
+    public String listETag() {
+        return "W/\"l" + repository.findLatestChangeLogSeq() + "\"";
+    }
+
+    /**
+     * 受講生一覧のETagの時点までの変更が、読み取り専用の検索の振り分け先（レプリカ）に反映済みかを判定します。
+     * 振り分け先の最新の変更連番は比較にのみ使い、ETagには使いません。
+     * @param listETag プライマリで取得した受講生一覧のETag
+     * @return 振り分け先の最新の変更連番がETagの変更連番と一致する場合はtrue
+     */
+    @Transactional(readOnly = true)
+    public boolean isListReplicated(String listETag) {
+        return listETag.equals(listETag());
+    }
+}
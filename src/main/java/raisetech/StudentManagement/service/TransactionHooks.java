@@ -0,0 +1,74 @@
+package raisetech.StudentManagement.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.locks.Lock;
+
+/**
+ * トランザクションのコミット後に処理を実行するためのユーティリティです。
+ */
+final class TransactionHooks {
+
+    private TransactionHooks() {
+    }
+
+    /**
+     * トランザクション中の場合はコミット後に、トランザクション外の場合は直ちに処理を実行します。
+     * ロールバックされた場合は実行しません。
+     * @param action 実行する処理
+     */
+    static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    /**
+     * {@link #afterCommit(Runnable)} と同様にコミット後に処理を実行し、コミットの直前から処理の完了までロックを保持します。
+     * ロックを排他的に取得している間は、このトランザクションのコミットとコミット後の処理が待たされます。
+     * トランザクション外の場合は、ロックを取得して直ちに処理を実行します。
+     * @param lock コミットと処理の間に保持するロック（ロールバックされた場合も解放します）
+     * @param action 実行する処理
+     */
+    static void afterCommit(Lock lock, Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            lock.lock();
+            try {
+                action.run();
+            } finally {
+                lock.unlock();
+            }
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private boolean locked;
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                lock.lock();
+                locked = true;
+            }
+
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (locked) {
+                    locked = false;
+                    lock.unlock();
+                }
+            }
+        });
+    }
+}
@@ -1,3 +1,4 @@
+-- 受講生・受講生コース情報・コースステータスのテーブル
 CREATE TABLE IF NOT EXISTS students
 (
     id INT PRIMARY KEY AUTO_INCREMENT,
@@ -21,8 +22,9 @@ CREATE TABLE IF NOT EXISTS students_courses
     course_end_at TIMESTAMP
 );
 
-CREATE TABLE IF NOT EXISTS course_status (
+CREATE TABLE IF NOT EXISTS course_status
+(
     id INT PRIMARY KEY AUTO_INCREMENT,
     students_courses_id INT NOT NULL,
     status VARCHAR(20) NOT NULL
-);
\ No newline at end of file
+);
@@ -0,0 +1,5 @@
+-- 受講生IDによる受講生コース情報の検索・結合用（受講生コースID順に取得できるようIDを含める）
+CREATE INDEX idx_students_courses_student_id ON students_courses (student_id, id);
+
+-- 受講生コースIDによるコースステータスの検索・結合と、最新のコースステータスの取得（ORDER BY id DESC LIMIT 1）用
+CREATE INDEX idx_course_status_students_courses_id ON course_status (students_courses_id, id);
@@ -0,0 +1,11 @@
+-- 受講生コースごとの最新のコースステータス（course_status の履歴のうちIDが最大の行）を保持する列
+ALTER TABLE students_courses ADD COLUMN current_status_id INT;
+ALTER TABLE students_courses ADD COLUMN current_status VARCHAR(20);
+
+-- 既存データの最新ステータスを反映する（反映しないと、既存の受講生コース情報はステータスの更新・絞り込み・統計の対象にならない）
+UPDATE students_courses
+SET current_status_id = (SELECT MAX(cs.id) FROM course_status cs WHERE cs.students_courses_id = students_courses.id);
+UPDATE students_courses
+SET current_status = (SELECT cs.status FROM course_status cs WHERE cs.id = students_courses.current_status_id);
+
+CREATE INDEX idx_students_courses_current_status ON students_courses (current_status);
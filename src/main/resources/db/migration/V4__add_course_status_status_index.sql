@@ -0,0 +1,3 @@
+-- ステータスによる絞り込み（受講生・受講生コース情報の準結合）用
+-- ステータスから受講生コースを引く場合と、受講生コースごとにステータスの有無を確認する場合の両方に使う
+CREATE INDEX idx_course_status_status ON course_status (status, students_courses_id);
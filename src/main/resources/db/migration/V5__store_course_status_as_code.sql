@@ -0,0 +1,32 @@
+-- コースステータスを表示名の文字列ではなく整数のコードで保持する
+-- コードは CourseStatusType と対応する（1: 仮申込、2: 本申込、3: 受講中、4: 受講終了）
+ALTER TABLE course_status ADD COLUMN status_code TINYINT;
+UPDATE course_status
+SET status_code = CASE status
+    WHEN '仮申込' THEN 1
+    WHEN '本申込' THEN 2
+    WHEN '受講中' THEN 3
+    WHEN '受講終了' THEN 4
+END;
+-- 対応するコードがない表示名はNULLのまま残るため、表示名の列を削除する前にここでマイグレーションを失敗させる
+-- （読み込めないコードに変換すると、そのコースステータスを含む検索がすべて失敗するため）
+ALTER TABLE course_status MODIFY status_code TINYINT NOT NULL;
+-- V4のステータスの索引は、検索が受講生コース情報の最新ステータスを使うようになり使われていないため、作り直さずに削除する
+DROP INDEX idx_course_status_status ON course_status;
+ALTER TABLE course_status DROP COLUMN status;
+ALTER TABLE course_status RENAME COLUMN status_code TO status;
+ALTER TABLE course_status ADD CONSTRAINT chk_course_status_status CHECK (status BETWEEN 1 AND 4);
+
+-- 受講生コース情報の最新ステータスも同じコードで保持する
+ALTER TABLE students_courses ADD COLUMN current_status_code TINYINT;
+UPDATE students_courses
+SET current_status_code = CASE current_status
+    WHEN '仮申込' THEN 1
+    WHEN '本申込' THEN 2
+    WHEN '受講中' THEN 3
+    WHEN '受講終了' THEN 4
+END;
+DROP INDEX idx_students_courses_current_status ON students_courses;
+ALTER TABLE students_courses DROP COLUMN current_status;
+ALTER TABLE students_courses RENAME COLUMN current_status_code TO current_status;
+CREATE INDEX idx_students_courses_current_status ON students_courses (current_status);
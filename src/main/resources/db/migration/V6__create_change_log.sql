@@ -0,0 +1,10 @@
+-- 受講生・受講生コース情報・コースステータスの変更履歴（差分同期で変更連番より後の変更のみを取得する）
+CREATE TABLE change_log
+(
+    seq BIGINT PRIMARY KEY AUTO_INCREMENT,
+    student_id INT NOT NULL,
+    entity_type VARCHAR(20) NOT NULL,
+    entity_id INT NOT NULL,
+    operation VARCHAR(10) NOT NULL,
+    changed_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
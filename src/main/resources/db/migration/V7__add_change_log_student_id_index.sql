@@ -0,0 +1,2 @@
+-- 受講生詳細のETagで、受講生ごとの最新の変更連番をインデックスのみで取得する
+CREATE INDEX idx_change_log_student_id_seq ON change_log (student_id, seq);
@@ -3,19 +3,44 @@ package raisetech.StudentManagement.controller;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Validation;
 import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import raisetech.StudentManagement.controller.converter.StudentCsvConverter;
+import raisetech.StudentManagement.data.ChangeLog;
+import raisetech.StudentManagement.data.CourseStatus;
+import raisetech.StudentManagement.data.CourseStatusType;
 import raisetech.StudentManagement.data.Student;
+import raisetech.StudentManagement.data.StudentCourse;
+import raisetech.StudentManagement.domein.ChangeLogPage;
+import raisetech.StudentManagement.domein.StudentDetail;
+import raisetech.StudentManagement.domein.StudentDetailPage;
+import raisetech.StudentManagement.domein.StudentImportReport;
+import raisetech.StudentManagement.domein.StudentImportResult;
+import raisetech.StudentManagement.domein.StudentStatisticsSummary;
+import raisetech.StudentManagement.service.StudentChangeFeed;
+import raisetech.StudentManagement.service.StudentImportService;
 import raisetech.StudentManagement.service.StudentService;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
@@ -23,11 +48,13 @@ import static org.mockito.Mockito.*;
 
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 
 
 @WebMvcTest(StudentController.class)
+@Import(StudentCsvConverter.class)
 class StudentControllerTest {
 
     @Autowired
@@ -36,8 +63,21 @@ class StudentControllerTest {
     @MockBean
     private StudentService service;
 
+    @MockBean
+    private StudentImportService importService;
+
+    @MockBean
+    private StudentChangeFeed changeFeed;
+
     private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
 
+    @BeforeEach
+    void before() {
+        // 一覧の検索はETagの時点以降の内容で検索する処理を経由して実行される
+        when(service.searchStudentListAsOf(any(), any()))
+                .thenAnswer(invocation -> invocation.getArgument(1, Supplier.class).get());
+    }
+
     @Test
     void 受講生詳細の一覧検索が実行できて空のリストが返ってくること() throws Exception{
         // モックサービスでメソッドの戻り値を設定
@@ -67,15 +107,178 @@ class StudentControllerTest {
                 "仮申込");
     }
 
+    @Test
+    void 受講生詳細の一覧検索で取得件数を指定した場合に次のページのカーソルがヘッダーに設定されること() throws Exception {
+        when(service.searchStudentPage(null, null, null, null, null, 10, 2))
+                .thenReturn(new StudentDetailPage(Collections.emptyList(), 12));
+
+        mockMvc.perform(get("/studentList")
+                        .param("limit", "2")
+                        .param("after", "10"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Next-Cursor", "12"))
+                .andExpect(content().json("[]"));
+
+        verify(service, times(1)).searchStudentPage(null, null, null, null, null, 10, 2);
+        verify(service, never()).searchStudentList(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void 受講生詳細の一覧検索で最後のページの場合はカーソルがヘッダーに設定されないこと() throws Exception {
+        when(service.searchStudentPage(null, null, null, null, null, null, 2))
+                .thenReturn(new StudentDetailPage(Collections.emptyList(), null));
+
+        mockMvc.perform(get("/studentList")
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
+    @Test
+    void 受講生詳細の一覧検索で項目を指定した場合は指定した項目のみが出力されること() throws Exception {
+        Student student = new Student();
+        student.setId(1);
+        student.setName("大野");
+        student.setKanaName("オオノ");
+        StudentCourse studentCourse = new StudentCourse();
+        studentCourse.setId(10);
+        studentCourse.setStudentId(1);
+        studentCourse.setCurrentStatus(CourseStatusType.CONFIRMED);
+        when(service.searchStudentFields(any(), any(), any(), any(), any(), any(), any(), any()))
+                .thenReturn(new StudentDetailPage(List.of(new StudentDetail(student, List.of(studentCourse))), null));
+
+        mockMvc.perform(get("/studentList")
+                        .param("fields", "student.name,student.kanaName,studentCourseList.currentStatus"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("""
+                        [{"student":{"id":"1","name":"大野","kanaName":"オオノ"},
+                          "studentCourseList":[{"id":"10","currentStatus":"本申込"}]}]
+                        """, true));
+
+        verify(service, never()).searchStudentList(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void 受講生詳細の一覧検索で受講生の項目のみを指定した場合は受講生コース情報が出力されないこと() throws Exception {
+        Student student = new Student();
+        student.setId(1);
+        student.setName("大野");
+        student.setRemark("出力されない備考");
+        when(service.searchStudentFields(any(), any(), any(), any(), any(), any(), any(), any()))
+                .thenReturn(new StudentDetailPage(List.of(new StudentDetail(student, null)), null));
+
+        mockMvc.perform(get("/studentList")
+                        .param("courseName", "Aコース")
+                        .param("fields", "student.name"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("""
+                        [{"student":{"id":"1","name":"大野"}}]
+                        """, true));
+    }
+
+    @Test
+    void 受講生詳細の一覧検索で指定できない項目を指定した場合は400になり検索されないこと() throws Exception {
+        mockMvc.perform(get("/studentList")
+                        .param("fields", "student.password"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("エラー: 指定できない項目です: student.password"));
+
+        verify(service, never()).searchStudentFields(any(), any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void 受講生詳細のエクスポートがNDJSON形式で1行に1件ずつ出力されること() throws Exception {
+        Student student1 = new Student();
+        student1.setId(1);
+        student1.setName("森本光雄");
+        Student student2 = new Student();
+        student2.setId(2);
+        student2.setName("森田");
+        doAnswer(invocation -> {
+            Consumer<StudentDetail> consumer = invocation.getArgument(0);
+            consumer.accept(new StudentDetail(student1, List.of()));
+            consumer.accept(new StudentDetail(student2, List.of()));
+            return null;
+        }).when(service).exportStudentDetails(any());
+
+        MvcResult result = mockMvc.perform(get("/studentList/export"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                .andReturn();
+
+        String[] lines = result.getResponse().getContentAsString(StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).contains("\"name\":\"森本光雄\"");
+        assertThat(lines[1]).contains("\"name\":\"森田\"");
+    }
+
     @Test
     void 受講生詳細の検索が実行できて空で返ってくること() throws Exception {
-        String id = "123";
+        Integer id = 123;
         mockMvc.perform(get("/student/{id}", id))
                 .andExpect(status().isOk());
 
         verify(service, times(1)).searchStudent(id);
     }
 
+    @Test
+    void 受講生詳細の検索でETagが返ること() throws Exception {
+        when(service.getStudentETag(123)).thenReturn("W/\"s1-123-0\"");
+
+        mockMvc.perform(get("/student/{id}", 123))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"s1-123-0\""));
+    }
+
+    @Test
+    void 受講生詳細の検索でETagが一致する場合は検索せずに304が返ること() throws Exception {
+        when(service.getStudentETag(123)).thenReturn("W/\"s1-123-0\"");
+
+        mockMvc.perform(get("/student/{id}", 123).header("If-None-Match", "W/\"s1-123-0\""))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        verify(service, never()).searchStudent(any());
+    }
+
+    @Test
+    void 受講生詳細の検索でETagが一致しない場合は検索して200が返ること() throws Exception {
+        when(service.getStudentETag(123)).thenReturn("W/\"s1-123-1\"");
+
+        mockMvc.perform(get("/student/{id}", 123).header("If-None-Match", "W/\"s1-123-0\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"s1-123-1\""));
+
+        verify(service, times(1)).searchStudent(123);
+    }
+
+    @Test
+    void 受講生詳細の一覧検索でETagが一致する場合は検索せずに304が返ること() throws Exception {
+        when(service.getStudentListETag()).thenReturn("W/\"l1-5\"");
+
+        mockMvc.perform(get("/studentList")
+                        .param("status", "仮申込")
+                        .header("If-None-Match", "W/\"l1-5\""))
+                .andExpect(status().isNotModified());
+
+        verify(service, never()).searchStudentList(any(), any(), any(), any(), any());
+        verify(service, never()).searchStudentPage(any(), any(), any(), any(), any(), any(), anyInt());
+    }
+
+    @Test
+    void 受講生詳細の一覧検索でETagが一致しない場合はETagの時点以降の内容で検索されること() throws Exception {
+        when(service.getStudentListETag()).thenReturn("W/\"l6\"");
+        when(service.searchStudentList(any(), any(), any(), any(), any())).thenReturn(Collections.emptyList());
+
+        mockMvc.perform(get("/studentList")
+                        .header("If-None-Match", "W/\"l5\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "W/\"l6\""));
+
+        verify(service, times(1)).searchStudentListAsOf(eq("W/\"l6\""), any());
+        verify(service, times(1)).searchStudentList(null, null, null, null, null);
+    }
+
     @Test
     void 受講生詳細の登録が実行できて空で返ってくること() throws Exception {
         // リクエストデータは適切に構築して入力チェックの検証も兼ねている。
@@ -108,6 +311,61 @@ class StudentControllerTest {
         verify(service, times(1)).registerStudent(any());  // サービス層が呼び出されたか検証
     }
 
+    @Test
+    void 受講生詳細のCSVを一括登録すると1行ずつ受講生詳細に変換されて結果レポートが返ること() throws Exception {
+        List<StudentDetail> received = new ArrayList<>();
+        when(importService.importStudents(any())).thenAnswer(invocation -> {
+            Iterator<StudentDetail> studentDetails = invocation.getArgument(0);
+            studentDetails.forEachRemaining(received::add);
+            List<StudentImportResult> results = new ArrayList<>();
+            for (int i = 0; i < received.size(); i++) {
+                StudentImportResult result = new StudentImportResult(i);
+                result.setSuccess(true);
+                results.add(result);
+            }
+            return new StudentImportReport(results);
+        });
+
+        String csv = """
+                name,kanaName,nickname,mailAddress,address,age,gender,remark,courseNames
+                森本光雄,モリモトミツオ,モリモト,test@example.com,兵庫県,40,男,,Aコース|Bコース
+                森田,モリタ,モリ,mori@example.com,東京都,20,女,備考,
+                """;
+        mockMvc.perform(post("/importStudents").contentType("text/csv").content(csv.getBytes(StandardCharsets.UTF_8)))
+                .andExpect(status().isOk())
+                .andExpect(content().json("""
+                        {"total": 2, "succeeded": 2, "failed": 0}
+                        """));
+
+        assertThat(received).hasSize(2);
+        assertThat(received.get(0).getStudent().getName()).isEqualTo("森本光雄");
+        assertThat(received.get(0).getStudent().getAge()).isEqualTo(40);
+        assertThat(received.get(0).getStudentCourseList()).extracting(course -> course.getCourseName())
+                .containsExactly("Aコース", "Bコース");
+        assertThat(received.get(1).getStudentCourseList()).isEmpty();
+    }
+
+    @Test
+    void 受講生詳細のJSON配列を一括登録すると1件ずつ読み込まれること() throws Exception {
+        List<StudentDetail> received = new ArrayList<>();
+        when(importService.importStudents(any())).thenAnswer(invocation -> {
+            Iterator<StudentDetail> studentDetails = invocation.getArgument(0);
+            studentDetails.forEachRemaining(received::add);
+            return new StudentImportReport(new ArrayList<>());
+        });
+
+        mockMvc.perform(post("/importStudents").contentType(MediaType.APPLICATION_JSON).content(
+                """
+                    [
+                        {"student": {"name": "森本光雄"}, "studentCourseList": [{"courseName": "Aコース"}]},
+                        {"student": {"name": "森田"}, "studentCourseList": []}
+                    ]
+                    """))
+                .andExpect(status().isOk());
+
+        assertThat(received).extracting(detail -> detail.getStudent().getName()).containsExactly("森本光雄", "森田");
+    }
+
     @Test
     void 受講生詳細の更新が実行できて成功メッセージが返ること() throws Exception {
         // リクエストデータは適切に構築して入力チェックの検証も兼ねている。
@@ -143,6 +401,30 @@ class StudentControllerTest {
         verify(service, times(1)).updateStudent(any());  // サービス層が呼び出されたか検証
     }
 
+    @Test
+    void 受講生詳細の更新で受講生のIDが指定されていない場合は400でエラーメッセージが返ること() throws Exception {
+        doThrow(new IllegalArgumentException("更新する受講生のIDを指定してください。")).when(service).updateStudent(any());
+
+        mockMvc.perform(put("/updateStudent").contentType(MediaType.APPLICATION_JSON).content(
+                        """
+                            {
+                                "student": {
+                                    "name": "森本光雄",
+                                    "kanaName": "モリモトミツオ",
+                                    "nickname": "モリモト",
+                                    "mailAddress": "test@example.com",
+                                    "address": "兵庫県",
+                                    "age": "40",
+                                    "gender": "男",
+                                    "remark": ""
+                                },
+                                "studentCourseList": []
+                            }
+                            """))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("エラー: 更新する受講生のIDを指定してください。"));
+    }
+
     @Test
     void 受講生詳細の例外APIが実行できてステータスが400で返ってくること() throws Exception {
         mockMvc.perform(get("/studentListException"))
@@ -154,7 +436,7 @@ class StudentControllerTest {
     void 受講生詳細の受講生で適切な値を入力したときに入力チェックに異常が発生しないこと() {
 
         Student student = new Student();
-        student.setId("1");
+        student.setId(1);
         student.setName("森本光雄");
         student.setKanaName("モリモトミツオ");
         student.setNickname("モリモト");
@@ -168,22 +450,80 @@ class StudentControllerTest {
     }
 
     @Test
-    void 受講生詳細の受講生でIDに数字以外を用いたときに入力チェックにかかること() {
+    void 受講生詳細の受講生コース情報に含まれるコースステータスは受講生詳細の入力チェックの対象外であること() {
+        StudentCourse studentCourse = new StudentCourse();
+        studentCourse.setCourseStatusList(List.of(new CourseStatus()));
+
+        Set<ConstraintViolation<StudentCourse>> violations = validator.validate(studentCourse);
+
+        assertThat(violations).isEmpty();
+    }
+
+    @Test
+    void 受講生詳細の登録でIDに数字以外を用いたときに400が返ること() throws Exception {
+        mockMvc.perform(post("/registerStudent").contentType(MediaType.APPLICATION_JSON).content(
+                        """
+                            {"student": {"id": "テストです。", "name": "森本光雄"}, "studentCourseList": []}
+                            """))
+                .andExpect(status().isBadRequest());
+
+        verify(service, never()).registerStudent(any());
+    }
 
+    @Test
+    void 受講生詳細の検索で数値のIDが従来どおり文字列として返ること() throws Exception {
         Student student = new Student();
-        student.setId("テストです。");
-        student.setName("森本光雄");
-        student.setKanaName("モリモトミツオ");
-        student.setNickname("モリモト");
-        student.setMailAddress("test@example.com");
-        student.setAddress("兵庫県");
-        student.setGender("男");
+        student.setId(123);
+        StudentCourse studentCourse = new StudentCourse();
+        studentCourse.setId(345);
+        studentCourse.setStudentId(123);
+        CourseStatus courseStatus = new CourseStatus();
+        courseStatus.setId(678);
+        courseStatus.setStudentsCoursesId(345);
+        studentCourse.setCourseStatusList(List.of(courseStatus));
+        when(service.searchStudent(123)).thenReturn(new StudentDetail(student, List.of(studentCourse)));
 
-        Set<ConstraintViolation<Student>> violations = validator.validate(student);
+        mockMvc.perform(get("/student/{id}", "123"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("""
+                        {"student": {"id": "123"},
+                         "studentCourseList": [{"id": "345", "studentId": "123",
+                                                "courseStatusList": [{"id": "678", "studentsCoursesId": "345"}]}]}
+                        """));
+    }
+
+    @Test
+    void 受講生詳細の検索でコースステータスが従来どおり表示名で返ること() throws Exception {
+        StudentCourse studentCourse = new StudentCourse();
+        studentCourse.setCurrentStatus(CourseStatusType.CONFIRMED);
+        CourseStatus courseStatus = new CourseStatus();
+        courseStatus.setStatus(CourseStatusType.CONFIRMED);
+        studentCourse.setCourseStatusList(List.of(courseStatus));
+        when(service.searchStudent(123)).thenReturn(new StudentDetail(new Student(), List.of(studentCourse)));
+
+        mockMvc.perform(get("/student/{id}", "123"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("""
+                        {"studentCourseList": [{"currentStatus": "本申込", "courseStatusList": [{"status": "本申込"}]}]}
+                        """));
+    }
+
+    @Test
+    void コースステータスの登録で無効なステータスを指定したときに400が返ること() throws Exception {
+        mockMvc.perform(post("/registerCourseStatus").contentType(MediaType.APPLICATION_JSON).content("""
+                        {"studentsCoursesId": "1", "status": "退会"}
+                        """))
+                .andExpect(status().isBadRequest());
+
+        verify(service, never()).registerCourseStatus(any());
+    }
 
-        assertThat(violations.size()).isEqualTo(1);
-        assertThat(violations).extracting("message")
-                .containsOnly("数字のみ入力するようにしてください。");
+    @Test
+    void 受講生詳細の検索でIDに数字以外を用いたときに400が返ること() throws Exception {
+        mockMvc.perform(get("/student/{id}", "abc"))
+                .andExpect(status().isBadRequest());
+
+        verify(service, never()).searchStudent(any());
     }
 
     @Test
@@ -192,6 +532,77 @@ class StudentControllerTest {
                         .param("status", "本申込"))
                 .andExpect(status().isOk())
                 .andExpect(content().string("コースステータスを更新しました。"));
+
+        verify(service, times(1)).updateCourseStatus(123, CourseStatusType.CONFIRMED);
+    }
+
+    @Test
+    void コースステータス更新で無効なステータスを指定したときに400が返ること() throws Exception {
+        mockMvc.perform(put("/updateCourseStatus/{courseId}", "123")
+                        .param("status", "退会"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string("エラー: 無効なステータス値です: 退会"));
+
+        verify(service, never()).updateCourseStatus(any(), any());
+    }
+
+    @Test
+    void 受講状況の統計が取得できること() throws Exception {
+        when(service.getStudentStatistics()).thenReturn(new StudentStatisticsSummary(
+                Map.of("Javaコース", 3L), Map.of("仮申込", 2L, "本申込", 1L), Map.of("2024-04", 3L)));
+
+        mockMvc.perform(get("/statistics"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("""
+                        {"courseCounts": {"Javaコース": 3}, "statusCounts": {"仮申込": 2, "本申込": 1},
+                         "monthlyActiveCounts": {"2024-04": 3}}
+                        """));
+    }
+
+    @Test
+    void 変更履歴の取得で指定した変更連番より後の変更履歴と次回の変更連番が返ること() throws Exception {
+        ChangeLog changeLog = new ChangeLog(1, ChangeLog.EntityType.COURSE_STATUS, 10, ChangeLog.Operation.UPDATE);
+        changeLog.setSeq(6L);
+        when(changeFeed.searchChanges(5L, StudentChangeFeed.MAX_LIMIT))
+                .thenReturn(new ChangeLogPage(List.of(changeLog), 6L, false));
+
+        mockMvc.perform(get("/changes").param("since", "5"))
+                .andExpect(status().isOk())
+                .andExpect(content().json("""
+                        {"changeLogList": [{"seq": 6, "studentId": "1", "entityType": "COURSE_STATUS", "entityId": "10", "operation": "UPDATE"}],
+                         "nextSince": 6, "hasMore": false}
+                        """));
+    }
+
+    @Test
+    void 変更履歴の購読で再接続時はLastEventIDの変更連番から再開されること() throws Exception {
+        when(changeFeed.subscribe(anyLong())).thenReturn(new SseEmitter());
+
+        mockMvc.perform(get("/changes/stream").param("since", "1").header("Last-Event-ID", "42"))
+                .andExpect(status().isOk());
+
+        verify(changeFeed, times(1)).subscribe(42L);
+    }
+
+    @Test
+    void コースステータスの一括更新が成功し更新件数が返ること() throws Exception {
+        when(service.transitionCourseStatuses(CourseStatusType.CONFIRMED, CourseStatusType.IN_PROGRESS)).thenReturn(3);
+
+        mockMvc.perform(put("/transitionCourseStatuses")
+                        .param("from", "本申込")
+                        .param("to", "受講中"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("3件のコースステータスを更新しました。"));
+    }
+
+    @Test
+    void コースステータス更新が同時に更新されて競合した場合は409が返ること() throws Exception {
+        doThrow(new OptimisticLockingFailureException("コースステータスが同時に更新されました: 123"))
+                .when(service).updateCourseStatus(123, CourseStatusType.CONFIRMED);
+
+        mockMvc.perform(put("/updateCourseStatus/{courseId}", "123")
+                        .param("status", "本申込"))
+                .andExpect(status().isConflict());
     }
 
 }
\ No newline at end of file
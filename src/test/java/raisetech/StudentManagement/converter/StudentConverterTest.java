@@ -3,6 +3,7 @@ package raisetech.StudentManagement.converter;
 import org.junit.jupiter.api.Test;
 import raisetech.StudentManagement.controller.converter.StudentConverter;
 import raisetech.StudentManagement.data.CourseStatus;
+import raisetech.StudentManagement.data.CourseStatusType;
 import raisetech.StudentManagement.data.Student;
 import raisetech.StudentManagement.data.StudentCourse;
 import raisetech.StudentManagement.domein.StudentDetail;
@@ -10,7 +11,10 @@ import raisetech.StudentManagement.domein.StudentDetail;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -21,18 +25,18 @@ class StudentConverterTest {
     @Test
     void 有効なデータを渡した場合に受講生詳細情報を正しく変換できること() {
         //テストデータ作成
-        Student student1 = createStudent("1", "森本", "モリモト", "モリ", "mori@example.com", "東京", 20, "女", "Remark1", false);
-        Student student2 = createStudent("2", "森田", "モリモト", "モリ", "mori@example.com", "東京", 20, "女", "Remark1", false);
+        Student student1 = createStudent(1, "森本", "モリモト", "モリ", "mori@example.com", "東京", 20, "女", "Remark1", false);
+        Student student2 = createStudent(2, "森田", "モリモト", "モリ", "mori@example.com", "東京", 20, "女", "Remark1", false);
         List<Student> studentList = Arrays.asList(student1, student2);
 
-        StudentCourse course1 = createStudentCourse("123", "1", "A", LocalDateTime.now(), LocalDateTime.now().plusMonths(1));
-        StudentCourse course2 = createStudentCourse("135", "1", "B", LocalDateTime.now(), LocalDateTime.now().plusMonths(2));
-        StudentCourse course3 = createStudentCourse("155", "2", "C", LocalDateTime.now(), LocalDateTime.now().plusMonths(3));
+        StudentCourse course1 = createStudentCourse(123, 1, "A", LocalDateTime.now(), LocalDateTime.now().plusMonths(1));
+        StudentCourse course2 = createStudentCourse(135, 1, "B", LocalDateTime.now(), LocalDateTime.now().plusMonths(2));
+        StudentCourse course3 = createStudentCourse(155, 2, "C", LocalDateTime.now(), LocalDateTime.now().plusMonths(3));
         List<StudentCourse> studentCourseList = Arrays.asList(course1, course2, course3);
 
-        CourseStatus status1 = createCourseStatus("1", "123", "受講中");
-        CourseStatus status2 = createCourseStatus("2", "135", "仮申込");
-        CourseStatus status3 = createCourseStatus("3", "155", "受講終了");
+        CourseStatus status1 = createCourseStatus(1, 123, CourseStatusType.IN_PROGRESS);
+        CourseStatus status2 = createCourseStatus(2, 135, CourseStatusType.PROVISIONAL);
+        CourseStatus status3 = createCourseStatus(3, 155, CourseStatusType.COMPLETED);
         List<CourseStatus> courseStatusList = Arrays.asList(status1, status2, status3);
 
 
@@ -77,12 +81,12 @@ class StudentConverterTest {
     @Test
     void 受講生に対応するコースが存在しない場合にコース情報が空になること() {
         //テストデータ作成
-        Student student1 = createStudent("1", "森本", "モリモト", "モリ", "mori@example.com", "東京", 20, "女", "Remark1", false);
+        Student student1 = createStudent(1, "森本", "モリモト", "モリ", "mori@example.com", "東京", 20, "女", "Remark1", false);
 
         List<Student> studentList = List.of(student1);
 
         //不一致のstudentIdを持つコース
-        StudentCourse course1 = createStudentCourse("123", "1", "A", LocalDateTime.now(), LocalDateTime.now().plusMonths(1));
+        StudentCourse course1 = createStudentCourse(123, 1, "A", LocalDateTime.now(), LocalDateTime.now().plusMonths(1));
         List<StudentCourse> studentCourseList = List.of(course1);
 
         // 空のCourseStatusリストを渡す
@@ -99,8 +103,78 @@ class StudentConverterTest {
         assertThat(detail1.getStudentCourseList().isEmpty());  // コース情報が空であること
     }
 
+    @Test
+    void 大量データを変換した場合に従来の全件走査による変換と同じ結果になること() {
+        //同じシードで同一内容のテストデータを2組作成（コンバーターはコース情報を更新するため別インスタンスにする）
+        TestData expectedData = createLargeTestData(42);
+        TestData actualData = createLargeTestData(42);
+
+        //メソッド呼び出し
+        List<StudentDetail> expected = convertStudentDetailsByFullScan(expectedData.studentList(), expectedData.studentCourseList(), expectedData.courseStatusList());
+        List<StudentDetail> actual = studentConverter.convertStudentDetails(actualData.studentList(), actualData.studentCourseList(), actualData.courseStatusList());
+
+        //検証（受講生・コース・ステータスの並び順と内容が一致すること）
+        assertThat(toIdTree(actual)).isEqualTo(toIdTree(expected));
+    }
+
     //ヘルパーメソッド
-    private Student createStudent(String id, String name, String kanaName, String nickname, String mailAddress, String address, int age, String gender, String remark, boolean isDeleted) {
+    private record TestData(List<Student> studentList, List<StudentCourse> studentCourseList, List<CourseStatus> courseStatusList) {
+    }
+
+    private TestData createLargeTestData(long seed) {
+        Random random = new Random(seed);
+        int studentCount = 2000;
+        List<Student> studentList = new ArrayList<>();
+        List<StudentCourse> studentCourseList = new ArrayList<>();
+        List<CourseStatus> courseStatusList = new ArrayList<>();
+
+        int courseId = 0;
+        int statusId = 0;
+        for (int i = 1; i <= studentCount; i++) {
+            studentList.add(createStudent(i, "受講生" + i, "ジュコウセイ", "ニックネーム", "test@example.com", "東京", 20, "男", "", false));
+        }
+        //受講生が存在しないコースや、ステータスを持たないコースも含める
+        for (int i = 0; i < studentCount * 3; i++) {
+            int studentId = random.nextInt(studentCount + 100) + 1;
+            courseId++;
+            studentCourseList.add(createStudentCourse(courseId, studentId, "コース" + courseId, LocalDateTime.of(2024, 4, 1, 0, 0), LocalDateTime.of(2025, 3, 31, 0, 0)));
+        }
+        for (int i = 0; i < studentCount * 5; i++) {
+            statusId++;
+            courseStatusList.add(createCourseStatus(statusId, random.nextInt(courseId + 100) + 1, CourseStatusType.PROVISIONAL));
+        }
+        Collections.shuffle(studentList, random);
+        Collections.shuffle(studentCourseList, random);
+        Collections.shuffle(courseStatusList, random);
+        return new TestData(studentList, studentCourseList, courseStatusList);
+    }
+
+    //従来の実装（受講生ごとに全コース、コースごとに全ステータスを走査する）
+    private List<StudentDetail> convertStudentDetailsByFullScan(List<Student> studentList, List<StudentCourse> studentCourseList, List<CourseStatus> courseStatusList) {
+        List<StudentDetail> studentDetails = new ArrayList<>();
+        studentList.forEach(student -> {
+            List<StudentCourse> convertStudentCourseList = studentCourseList.stream()
+                    .filter(studentCourse -> student.getId().equals(studentCourse.getStudentId()))
+                    .peek(studentCourse -> studentCourse.setCourseStatusList(courseStatusList.stream()
+                            .filter(courseStatus -> studentCourse.getId().equals(courseStatus.getStudentsCoursesId()))
+                            .collect(Collectors.toList())))
+                    .collect(Collectors.toList());
+            studentDetails.add(new StudentDetail(student, convertStudentCourseList));
+        });
+        return studentDetails;
+    }
+
+    private List<String> toIdTree(List<StudentDetail> studentDetails) {
+        return studentDetails.stream()
+                .map(detail -> detail.getStudent().getId() + ":" + detail.getStudentCourseList().stream()
+                        .map(course -> course.getId() + course.getCourseStatusList().stream()
+                                .map(courseStatus -> String.valueOf(courseStatus.getId()))
+                                .collect(Collectors.joining(",", "[", "]")))
+                        .collect(Collectors.joining(";")))
+                .collect(Collectors.toList());
+    }
+
+    private Student createStudent(Integer id, String name, String kanaName, String nickname, String mailAddress, String address, int age, String gender, String remark, boolean isDeleted) {
         Student student = new Student();
         student.setId(id);
         student.setName(name);
@@ -115,7 +189,7 @@ class StudentConverterTest {
         return student;
     }
 
-    private StudentCourse createStudentCourse(String id, String studentId, String courseName, LocalDateTime startAt, LocalDateTime endAt) {
+    private StudentCourse createStudentCourse(Integer id, Integer studentId, String courseName, LocalDateTime startAt, LocalDateTime endAt) {
         StudentCourse course = new StudentCourse();
         course.setId(id);
         course.setStudentId(studentId);
@@ -125,7 +199,7 @@ class StudentConverterTest {
         return course;
     }
 
-    private CourseStatus createCourseStatus(String id, String studentsCoursesId, String status) {
+    private CourseStatus createCourseStatus(Integer id, Integer studentsCoursesId, CourseStatusType status) {
         CourseStatus courseStatus = new CourseStatus();
         courseStatus.setId(id);
         courseStatus.setStudentsCoursesId(studentsCoursesId);
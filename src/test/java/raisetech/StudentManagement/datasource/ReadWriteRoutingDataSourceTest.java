@@ -0,0 +1,120 @@
+package raisetech.StudentManagement.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.Callable;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReadWriteRoutingDataSourceTest {
+
+    private DataSource primary = mock(DataSource.class);
+    private DataSource replica = mock(DataSource.class);
+    private Connection primaryConnection = mock(Connection.class);
+    private Connection replicaConnection = mock(Connection.class);
+
+    @BeforeEach
+    void before() throws SQLException {
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        when(replica.getConnection()).thenReturn(replicaConnection);
+    }
+
+    @AfterEach
+    void after() {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        DataSourceRouting.clear();
+    }
+
+    @Test
+    void 読み取り専用のトランザクションはレプリカでそれ以外はプライマリで実行されること() throws SQLException {
+        ReadWriteRoutingDataSource sut = new ReadWriteRoutingDataSource(primary, replica, true, Duration.ofSeconds(30));
+
+        assertThat(sut.getConnection()).isSameAs(primaryConnection);
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        assertThat(sut.getConnection()).isSameAs(replicaConnection);
+    }
+
+    @Test
+    void 更新したクライアントの検索は読み取り専用のトランザクションでもプライマリで実行されること() throws SQLException {
+        ReadWriteRoutingDataSource sut = new ReadWriteRoutingDataSource(primary, replica, true, Duration.ofSeconds(30));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        DataSourceRouting.requirePrimary();
+
+        assertThat(sut.getConnection()).isSameAs(primaryConnection);
+    }
+
+    @Test
+    void 別のスレッドで実行する検索に呼び出し元の振り分け先が引き継がれること() throws Exception {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        Callable<DataSourceRouting.Route> task = DataSourceRouting.inheritRoute(DataSourceRouting::currentRoute);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+
+        assertThat(task.call()).isEqualTo(DataSourceRouting.Route.REPLICA);
+        assertThat(DataSourceRouting.currentRoute()).isEqualTo(DataSourceRouting.Route.PRIMARY);
+    }
+
+    @Test
+    void プライマリで実行する処理の中の検索は読み取り専用のトランザクションでもプライマリで実行されること() throws SQLException {
+        ReadWriteRoutingDataSource sut = new ReadWriteRoutingDataSource(primary, replica, true, Duration.ofSeconds(30));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        Connection connection = DataSourceRouting.onPrimary(() -> {
+            try {
+                return sut.getConnection();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        assertThat(connection).isSameAs(primaryConnection);
+        // 処理の終了後は元の振り分け先に戻ること
+        assertThat(sut.getConnection()).isSameAs(replicaConnection);
+    }
+
+    @Test
+    void プライマリで実行する処理から並列に実行する検索もプライマリで実行されること() throws Exception {
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        Callable<DataSourceRouting.Route> task = DataSourceRouting.onPrimary(
+                () -> DataSourceRouting.inheritRoute(DataSourceRouting::currentRoute));
+
+        assertThat(task.call()).isEqualTo(DataSourceRouting.Route.PRIMARY);
+    }
+
+    @Test
+    void レプリカに接続できない場合はプライマリで検索し一定時間はレプリカへの接続を試みないこと() throws SQLException {
+        ReadWriteRoutingDataSource sut = new ReadWriteRoutingDataSource(primary, replica, true, Duration.ofSeconds(30));
+        when(replica.getConnection()).thenThrow(new SQLException("レプリカに接続できません"));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThat(sut.getConnection()).isSameAs(primaryConnection);
+        assertThat(sut.getConnection()).isSameAs(primaryConnection);
+
+        verify(replica, times(1)).getConnection();
+        assertThat(sut.isReplicaSuspended()).isTrue();
+    }
+
+    @Test
+    void プライマリで検索しない設定の場合はレプリカに接続できないとエラーになること() throws SQLException {
+        ReadWriteRoutingDataSource sut = new ReadWriteRoutingDataSource(primary, replica, false, Duration.ofSeconds(30));
+        when(replica.getConnection()).thenThrow(new SQLException("レプリカに接続できません"));
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+
+        assertThatThrownBy(sut::getConnection).isInstanceOf(SQLException.class);
+        verify(primary, times(0)).getConnection();
+    }
+}
@@ -0,0 +1,49 @@
+package raisetech.StudentManagement.datasource;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.StringHttpMessageConverter;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReadYourWritesCookieAdviceTest {
+
+    private static final Instant NOW = Instant.parse("2024-10-01T00:00:00Z");
+
+    private ReadYourWritesCookieAdvice sut = new ReadYourWritesCookieAdvice(Duration.ofSeconds(5), Clock.fixed(NOW, ZoneOffset.UTC));
+
+    @Test
+    void 更新が成功した場合はプライマリで検索する期限がクッキーに設定されること() {
+        MockHttpServletResponse response = write("PUT", 200);
+
+        Cookie cookie = response.getCookie(ReadYourWritesInterceptor.COOKIE_NAME);
+        assertThat(cookie).isNotNull();
+        assertThat(cookie.getValue()).isEqualTo(String.valueOf(NOW.toEpochMilli() + 5000));
+    }
+
+    @Test
+    void 更新が失敗した場合と検索の場合はクッキーが設定されないこと() {
+        assertThat(write("PUT", 400).getCookie(ReadYourWritesInterceptor.COOKIE_NAME)).isNull();
+        assertThat(write("POST", 500).getCookie(ReadYourWritesInterceptor.COOKIE_NAME)).isNull();
+        assertThat(write("GET", 200).getCookie(ReadYourWritesInterceptor.COOKIE_NAME)).isNull();
+    }
+
+    private MockHttpServletResponse write(String method, int status) {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.setStatus(status);
+        sut.beforeBodyWrite("本文", null, MediaType.TEXT_PLAIN, StringHttpMessageConverter.class,
+                new ServletServerHttpRequest(new MockHttpServletRequest(method, "/updateStudent")),
+                new ServletServerHttpResponse(response));
+        return response;
+    }
+}
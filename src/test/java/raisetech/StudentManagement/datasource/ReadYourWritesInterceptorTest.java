@@ -0,0 +1,58 @@
+package raisetech.StudentManagement.datasource;
+
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReadYourWritesInterceptorTest {
+
+    private static final Instant NOW = Instant.parse("2024-10-01T00:00:00Z");
+
+    private ReadYourWritesInterceptor sut = new ReadYourWritesInterceptor(Clock.fixed(NOW, ZoneOffset.UTC));
+
+    @AfterEach
+    void after() {
+        DataSourceRouting.clear();
+    }
+
+    @Test
+    void 更新のリクエストはプライマリで実行されクッキーは設定されないこと() {
+        MockHttpServletRequest request = new MockHttpServletRequest("PUT", "/updateStudent");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        sut.preHandle(request, response, new Object());
+
+        assertThat(response.getCookie(ReadYourWritesInterceptor.COOKIE_NAME)).isNull();
+        assertThat(DataSourceRouting.currentRoute()).isEqualTo(DataSourceRouting.Route.PRIMARY);
+    }
+
+    @Test
+    void 期限内のクッキーを持つ検索はプライマリで実行され期限を過ぎると振り分けられること() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/studentList");
+        request.setCookies(new Cookie(ReadYourWritesInterceptor.COOKIE_NAME, String.valueOf(NOW.toEpochMilli() + 1)));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        sut.preHandle(request, response, new Object());
+        assertThat(response.getCookie(ReadYourWritesInterceptor.COOKIE_NAME)).isNull();
+        assertThat(DataSourceRouting.currentRoute()).isEqualTo(DataSourceRouting.Route.PRIMARY);
+        sut.afterCompletion(request, response, new Object(), null);
+
+        request.setCookies(new Cookie(ReadYourWritesInterceptor.COOKIE_NAME, String.valueOf(NOW.toEpochMilli())));
+        sut.preHandle(request, response, new Object());
+        try {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+            assertThat(DataSourceRouting.currentRoute()).isEqualTo(DataSourceRouting.Route.REPLICA);
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package raisetech.StudentManagement.domein;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StudentFieldSetTest {
+
+    @Test
+    void 指定した項目の列と組み立てに必要なIDの列のみが検索されること() {
+        StudentFieldSet sut = StudentFieldSet.parse("student.name, student.kanaName,studentCourseList.currentStatus");
+
+        assertThat(sut.getStudentColumns()).containsExactly("id", "name", "kana_name");
+        assertThat(sut.getStudentCourseColumns()).containsExactly("id", "current_status", "student_id");
+        assertThat(sut.getStudentProperties()).containsExactlyInAnyOrder("id", "name", "kanaName");
+        assertThat(sut.getStudentCourseProperties()).containsExactlyInAnyOrder("id", "currentStatus");
+        assertThat(sut.includesStudentCourses()).isTrue();
+        assertThat(sut.includesCourseStatuses()).isFalse();
+    }
+
+    @Test
+    void 受講生の項目のみを指定した場合は受講生コース情報とコースステータスを検索しないこと() {
+        StudentFieldSet sut = StudentFieldSet.parse("student");
+
+        assertThat(sut.getStudentColumns()).containsExactly("id", "name", "kana_name", "nickname", "mail_address",
+                "address", "age", "gender", "remark", "isDeleted");
+        assertThat(sut.includesStudentCourses()).isFalse();
+        assertThat(sut.includesCourseStatuses()).isFalse();
+    }
+
+    @Test
+    void 受講生コース情報を指定した場合はコースステータスも検索すること() {
+        StudentFieldSet sut = StudentFieldSet.parse("studentCourseList");
+
+        assertThat(sut.getStudentColumns()).containsExactly("id");
+        assertThat(sut.getStudentCourseColumns()).containsExactly("id", "student_id", "course_name", "course_start_at",
+                "course_end_at", "current_status");
+        assertThat(sut.includesCourseStatuses()).isTrue();
+    }
+
+    @Test
+    void 指定できない項目や空の指定はエラーになること() {
+        assertThatThrownBy(() -> StudentFieldSet.parse("student.password"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("指定できない項目です: student.password");
+        assertThatThrownBy(() -> StudentFieldSet.parse("student.name;DROP TABLE students"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> StudentFieldSet.parse(" , "))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("取得する項目を指定してください。");
+    }
+}
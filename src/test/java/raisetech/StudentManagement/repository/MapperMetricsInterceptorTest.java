@@ -0,0 +1,85 @@
+package raisetech.StudentManagement.repository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataRetrievalFailureException;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class MapperMetricsInterceptorTest {
+
+    private SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private MapperMetricsInterceptor sut = new MapperMetricsInterceptor(registry);
+
+    private Executor executor = mock(Executor.class);
+
+    @Test
+    void 検索の実行時間と取得件数がステートメントごとに記録されること() throws Throwable {
+        MappedStatement statement = createMappedStatement("searchStudentCourse", SqlCommandType.SELECT);
+        when(executor.query(any(), any(), any(), any())).thenReturn(List.of("1", "2", "3"));
+
+        sut.intercept(queryInvocation(statement));
+        sut.intercept(queryInvocation(statement));
+
+        assertThat(registry.get(MapperMetricsInterceptor.STATEMENT_TIMER)
+                .tags("statement", "searchStudentCourse", "type", "SELECT", "outcome", "success")
+                .timer().count()).isEqualTo(2);
+        assertThat(registry.get(MapperMetricsInterceptor.ROWS_SUMMARY)
+                .tags("statement", "searchStudentCourse")
+                .summary().totalAmount()).isEqualTo(6);
+    }
+
+    @Test
+    void 更新件数が記録されること() throws Throwable {
+        MappedStatement statement = createMappedStatement("updateCourseStatus", SqlCommandType.UPDATE);
+        when(executor.update(any(), any())).thenReturn(1);
+        Method update = Executor.class.getMethod("update", MappedStatement.class, Object.class);
+
+        sut.intercept(new Invocation(executor, update, new Object[]{statement, null}));
+
+        assertThat(registry.get(MapperMetricsInterceptor.ROWS_SUMMARY)
+                .tags("statement", "updateCourseStatus", "type", "UPDATE")
+                .summary().totalAmount()).isEqualTo(1);
+    }
+
+    @Test
+    void 失敗した検索は結果をerrorとして記録されること() throws Throwable {
+        MappedStatement statement = createMappedStatement("searchStudent", SqlCommandType.SELECT);
+        when(executor.query(any(), any(), any(), any())).thenThrow(new DataRetrievalFailureException("検索エラー"));
+
+        assertThatThrownBy(() -> sut.intercept(queryInvocation(statement)))
+                .isInstanceOf(InvocationTargetException.class);
+
+        assertThat(registry.get(MapperMetricsInterceptor.STATEMENT_TIMER)
+                .tags("statement", "searchStudent", "outcome", "error")
+                .timer().count()).isEqualTo(1);
+        assertThat(registry.find(MapperMetricsInterceptor.ROWS_SUMMARY).summary()).isNull();
+    }
+
+    private Invocation queryInvocation(MappedStatement statement) throws NoSuchMethodException {
+        Method query = Executor.class.getMethod("query", MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class);
+        return new Invocation(executor, query, new Object[]{statement, null, RowBounds.DEFAULT, Executor.NO_RESULT_HANDLER});
+    }
+
+    private MappedStatement createMappedStatement(String methodName, SqlCommandType type) {
+        return new MappedStatement.Builder(new Configuration(), StudentRepository.class.getName() + "." + methodName,
+                mock(SqlSource.class), type).build();
+    }
+}
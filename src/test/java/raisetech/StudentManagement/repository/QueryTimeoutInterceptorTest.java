@@ -0,0 +1,57 @@
+package raisetech.StudentManagement.repository;
+
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.plugin.Invocation;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class QueryTimeoutInterceptorTest {
+
+    private QueryTimeoutInterceptor sut = new QueryTimeoutInterceptor();
+
+    private StatementHandler statementHandler = mock(StatementHandler.class);
+
+    private Statement statement = mock(Statement.class);
+
+    @Test
+    void 実行時間の上限を指定した処理の中のSQLには秒単位に切り上げた上限が設定されること() throws Exception {
+        when(statementHandler.prepare(any(), any())).thenReturn(statement);
+
+        Object actual = QueryTimeoutInterceptor.withQueryTimeout(Duration.ofMillis(2500), () -> {
+            try {
+                return sut.intercept(prepareInvocation());
+            } catch (Throwable e) {
+                throw new IllegalStateException(e);
+            }
+        }).call();
+
+        assertThat(actual).isSameAs(statement);
+        verify(statement).setQueryTimeout(3);
+    }
+
+    @Test
+    void 実行時間の上限を指定していないSQLには上限が設定されないこと() throws Throwable {
+        when(statementHandler.prepare(any(), any())).thenReturn(statement);
+
+        sut.intercept(prepareInvocation());
+
+        verify(statement, never()).setQueryTimeout(anyInt());
+    }
+
+    private Invocation prepareInvocation() throws NoSuchMethodException {
+        Method prepare = StatementHandler.class.getMethod("prepare", Connection.class, Integer.class);
+        return new Invocation(statementHandler, prepare, new Object[]{mock(Connection.class), null});
+    }
+}
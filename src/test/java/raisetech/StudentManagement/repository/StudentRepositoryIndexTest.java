@@ -0,0 +1,145 @@
+package raisetech.StudentManagement.repository;
+
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.junit.jupiter.api.Test;
+import org.mybatis.spring.boot.test.autoconfigure.MybatisTest;
+import org.springframework.beans.factory.annotation.Autowired;
+import raisetech.StudentManagement.data.CourseStatusType;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * マッパーのSQLの実行計画を確認し、結合列のインデックスが使われていることを検証するテストです。
+ * マッパーに定義されたSQLをそのままEXPLAINするため、SQLやインデックスの変更で全件走査に戻った場合に検知できます。
+ */
+@MybatisTest
+class StudentRepositoryIndexTest {
+
+    private static final String STATEMENT_PREFIX = StudentRepository.class.getName() + ".";
+
+    @Autowired
+    private SqlSessionFactory sqlSessionFactory;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void 受講生IDによる受講生コース情報の検索で受講生IDのインデックスが使われること() throws SQLException {
+        String plan = explain("searchStudentCourse", 1);
+
+        assertThat(plan).contains("IDX_STUDENTS_COURSES_STUDENT_ID");
+        assertThat(plan).doesNotContain("STUDENTS_COURSES.TABLESCAN");
+    }
+
+    @Test
+    void 受講生IDによるコースステータスの検索で全件走査が行われないこと() throws SQLException {
+        String plan = explain("searchCourseStatusByStudentId", 1);
+
+        assertThat(plan).contains("IDX_STUDENTS_COURSES_STUDENT_ID", "IDX_COURSE_STATUS_STUDENTS_COURSES_ID");
+        assertThat(plan).doesNotContain("STUDENTS_COURSES.TABLESCAN", "COURSE_STATUS.TABLESCAN");
+    }
+
+    @Test
+    void 最新のコースステータスの検索で受講生コースIDのインデックスが使われること() throws SQLException {
+        String plan = explain("findLatestCourseStatusByCourseId", 1);
+
+        assertThat(plan).contains("IDX_COURSE_STATUS_STUDENTS_COURSES_ID");
+        assertThat(plan).doesNotContain("COURSE_STATUS.TABLESCAN");
+    }
+
+    @Test
+    void 受講生IDのリストによる検索で全件走査が行われないこと() throws SQLException {
+        Map<String, Object> parameter = new HashMap<>();
+        parameter.put("studentIdList", List.of(1, 2));
+        parameter.put("courseName", null);
+        parameter.put("startDate", null);
+        parameter.put("endDate", null);
+        parameter.put("status", null);
+
+        assertThat(explain("searchStudentCourseListByStudentIds", parameter))
+                .doesNotContain("STUDENTS_COURSES.TABLESCAN");
+        assertThat(explain("searchCourseStatusListByStudentIds", parameter))
+                .doesNotContain("STUDENTS_COURSES.TABLESCAN", "COURSE_STATUS.TABLESCAN");
+    }
+
+    @Test
+    void 受講生詳細の結合検索で受講生コース情報とコースステータスが全件走査されないこと() throws SQLException {
+        Map<String, Object> parameter = new HashMap<>();
+        parameter.put("name", null);
+        parameter.put("courseName", null);
+        parameter.put("startDate", null);
+        parameter.put("endDate", null);
+        parameter.put("status", null);
+        parameter.put("studentIdList", null);
+        parameter.put("studentCourseIdList", null);
+
+        String plan = explain("searchStudentDetailsWithConditions", parameter);
+
+        assertThat(plan).contains("IDX_STUDENTS_COURSES_STUDENT_ID", "IDX_COURSE_STATUS_STUDENTS_COURSES_ID");
+        assertThat(plan).doesNotContain("STUDENTS_COURSES.TABLESCAN", "COURSE_STATUS.TABLESCAN");
+    }
+
+    @Test
+    void ステータスによる絞り込みの準結合で全件走査が行われないこと() throws SQLException {
+        Map<String, Object> parameter = new HashMap<>();
+        parameter.put("name", null);
+        parameter.put("courseName", null);
+        parameter.put("startDate", null);
+        parameter.put("endDate", null);
+        parameter.put("status", CourseStatusType.CONFIRMED.getCode());
+        parameter.put("studentIdList", null);
+        parameter.put("studentCourseIdList", null);
+        parameter.put("after", null);
+        parameter.put("limit", 10);
+
+        assertThat(explain("searchStudentDetailsWithConditions", parameter))
+                .doesNotContain("STUDENTS_COURSES.TABLESCAN", "COURSE_STATUS.TABLESCAN");
+        assertThat(explain("searchWithConditionsAfter", parameter))
+                .doesNotContain("STUDENTS_COURSES.TABLESCAN", "COURSE_STATUS.TABLESCAN");
+    }
+
+    /**
+     * マッパーに定義されたSQLに引数を割り当ててEXPLAINし、実行計画を大文字で返します。
+     * @param statementId マッパーのステートメントID
+     * @param parameter SQLの引数
+     * @return 実行計画
+     */
+    private String explain(String statementId, Object parameter) throws SQLException {
+        BoundSql boundSql = sqlSessionFactory.getConfiguration()
+                .getMappedStatement(STATEMENT_PREFIX + statementId)
+                .getBoundSql(parameter);
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement statement = connection.prepareStatement("EXPLAIN " + boundSql.getSql())) {
+            List<ParameterMapping> parameterMappings = boundSql.getParameterMappings();
+            for (int i = 0; i < parameterMappings.size(); i++) {
+                statement.setObject(i + 1, parameterValue(boundSql, parameterMappings.get(i).getProperty(), parameter));
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                StringBuilder plan = new StringBuilder();
+                while (resultSet.next()) {
+                    plan.append(resultSet.getString(1)).append('\n');
+                }
+                return plan.toString().toUpperCase();
+            }
+        }
+    }
+
+    private Object parameterValue(BoundSql boundSql, String property, Object parameter) {
+        if (boundSql.hasAdditionalParameter(property)) {
+            return boundSql.getAdditionalParameter(property);
+        }
+        return parameter instanceof Map<?, ?> map ? map.get(property) : parameter;
+    }
+}
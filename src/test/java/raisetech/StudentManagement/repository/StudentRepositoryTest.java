@@ -1,14 +1,21 @@
 package raisetech.StudentManagement.repository;
 
+import org.apache.ibatis.cursor.Cursor;
 import org.junit.jupiter.api.Test;
 import org.mybatis.spring.boot.test.autoconfigure.MybatisTest;
 import org.springframework.beans.factory.annotation.Autowired;
+import raisetech.StudentManagement.data.ChangeLog;
 import raisetech.StudentManagement.data.CourseStatus;
+import raisetech.StudentManagement.data.CourseStatusType;
 import raisetech.StudentManagement.data.Student;
 import raisetech.StudentManagement.data.StudentCourse;
+import raisetech.StudentManagement.domein.StudentCourseCount;
+import raisetech.StudentManagement.domein.StudentDetail;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
@@ -37,6 +44,15 @@ class StudentRepositoryTest {
         assertThat(actual.get(0).getGender()).isEqualTo("男");
     }
 
+    @Test
+    void 受講生の全件をカーソルで受講生ID順に取得できること() throws Exception {
+        List<Integer> actual = new ArrayList<>();
+        try (Cursor<Student> cursor = sut.searchStudentCursor()) {
+            cursor.forEach(student -> actual.add(student.getId()));
+        }
+        assertThat(actual).containsExactly(1, 2, 3, 4, 5);
+    }
+
     @Test
     void 受講生の登録が行えること() {
         //新規登録する受講生の情報を作成
@@ -60,7 +76,7 @@ class StudentRepositoryTest {
 
     @Test
     void 受講生をIDで検索できること() {
-        Student actual = sut.searchStudent("1");
+        Student actual = sut.searchStudent(1);
         assertThat(actual).isNotNull();
         assertThat(actual.getName()).isEqualTo("大野 智");
         assertThat(actual.getKanaName()).isEqualTo("オオノ サトシ");
@@ -73,7 +89,7 @@ class StudentRepositoryTest {
 
     @Test
     void 存在しないIDで受講生を検索するとnullが返されること() {
-        Student actual = sut.searchStudent("999"); // 存在しないID
+        Student actual = sut.searchStudent(999); // 存在しないID
         assertThat(actual).isNull();
     }
 
@@ -96,13 +112,160 @@ class StudentRepositoryTest {
         assertThat(actual).hasSize(5); // 初期データに基づく全件数
     }
 
+    @Test
+    void 受講生詳細を1回のクエリでコースとステータスを含めて検索できること() {
+        List<StudentDetail> actual = sut.searchStudentDetailsWithConditions(null, null, null, null, null, null, null);
+
+        // 受講生は全件、受講生ID順で取得されること
+        assertThat(actual).hasSize(5);
+        assertThat(actual).extracting(detail -> detail.getStudent().getName())
+                .containsExactly("大野 智", "相葉 雅紀", "松本 潤", "二宮 和也", "櫻井 翔");
+
+        // 受講生に紐づくコースとステータスが組み立てられていること
+        StudentDetail detail = actual.get(0);
+        assertThat(detail.getStudentCourseList()).hasSize(1);
+        StudentCourse studentCourse = detail.getStudentCourseList().get(0);
+        assertThat(studentCourse.getStudentId()).isEqualTo(1);
+        assertThat(studentCourse.getCourseName()).isEqualTo("Aコース");
+        assertThat(studentCourse.getCourseStartAt()).isEqualTo(LocalDateTime.of(2024, 4, 1, 0, 0));
+        assertThat(studentCourse.getCourseStatusList()).extracting(CourseStatus::getStatus).containsExactly(CourseStatusType.PROVISIONAL);
+
+        // ステータスを持たないコースは空のステータス一覧になること
+        assertThat(actual.get(2).getStudentCourseList()).hasSize(1);
+        assertThat(actual.get(2).getStudentCourseList().get(0).getCourseStatusList()).isEmpty();
+    }
+
+    @Test
+    void 受講生詳細の結合検索で条件に一致しないコースとステータスが除外されること() {
+        List<StudentDetail> actual = sut.searchStudentDetailsWithConditions("大野", "Bコース", null, null, null, null, null);
+        assertThat(actual).hasSize(1);
+        assertThat(actual.get(0).getStudent().getName()).isEqualTo("大野 智");
+        assertThat(actual.get(0).getStudentCourseList()).isEmpty();
+
+        // ステータスを指定した場合は、そのステータスのコースを持つ受講生とコースのみが取得されること
+        List<StudentDetail> filteredByStatus = sut.searchStudentDetailsWithConditions(null, null, null, null, CourseStatusType.CONFIRMED, null, null);
+        assertThat(filteredByStatus).extracting(detail -> detail.getStudent().getId()).containsExactly(2);
+        assertThat(filteredByStatus.get(0).getStudentCourseList()).extracting(StudentCourse::getId).containsExactly(2);
+        assertThat(filteredByStatus.get(0).getStudentCourseList().get(0).getCourseStatusList())
+                .extracting(CourseStatus::getStatus).containsExactly(CourseStatusType.CONFIRMED);
+
+        // コースの条件と組み合わせた場合は、両方に一致するコースを持つ受講生のみが取得されること
+        assertThat(sut.searchStudentDetailsWithConditions(null, "Aコース", null, null, CourseStatusType.CONFIRMED, null, null)).isEmpty();
+    }
+
+    @Test
+    void ステータスを指定したページ検索でそのステータスのコースを持つ受講生とコースのみが取得されること() {
+        List<Student> studentList = sut.searchWithConditionsAfter(null, null, null, null, CourseStatusType.PROVISIONAL, null, 10);
+        assertThat(studentList).extracting(Student::getId).containsExactly(1);
+
+        List<StudentCourse> studentCourseList = sut.searchStudentCourseListByStudentIds(List.of(1, 2), null, null, null, CourseStatusType.PROVISIONAL);
+        assertThat(studentCourseList).extracting(StudentCourse::getId).containsExactly(1);
+    }
+
+    @Test
+    void ステータスを指定した検索では過去のステータスではなく最新ステータスで絞り込まれること() {
+        // 受講生コース1を仮申込から本申込に進める
+        CourseStatus courseStatus = new CourseStatus();
+        courseStatus.setStudentsCoursesId(1);
+        courseStatus.setStatus(CourseStatusType.CONFIRMED);
+        sut.registerCourseStatus(courseStatus);
+        sut.updateCurrentCourseStatus(courseStatus);
+
+        assertThat(sut.searchWithConditionsAfter(null, null, null, null, CourseStatusType.PROVISIONAL, null, 10)).isEmpty();
+        assertThat(sut.searchStudentCourseListWithConditions(null, null, null, CourseStatusType.PROVISIONAL)).isEmpty();
+        assertThat(sut.searchStudentDetailsWithConditions(null, null, null, null, CourseStatusType.PROVISIONAL, null, null)).isEmpty();
+
+        assertThat(sut.searchWithConditionsAfter(null, null, null, null, CourseStatusType.CONFIRMED, null, 10))
+                .extracting(Student::getId).containsExactly(1, 2);
+        assertThat(sut.searchStudentCourseListByStudentIds(List.of(1, 2), null, null, null, CourseStatusType.CONFIRMED))
+                .extracting(StudentCourse::getId).containsExactly(1, 2);
+    }
+
+    @Test
+    void 受講生詳細の結合検索でIDの候補に含まれる受講生とコースのみが取得されること() {
+        List<StudentDetail> actual = sut.searchStudentDetailsWithConditions(null, null, null, null, null,
+                List.of(1, 3), List.of(1));
+        assertThat(actual).extracting(detail -> detail.getStudent().getId()).containsExactly(1, 3);
+        assertThat(actual.get(0).getStudentCourseList()).extracting(StudentCourse::getId).containsExactly(1);
+        assertThat(actual.get(1).getStudentCourseList()).isEmpty();
+
+        List<StudentDetail> noCourseCandidates = sut.searchStudentDetailsWithConditions(null, null, null, null, null,
+                null, List.of());
+        assertThat(noCourseCandidates).hasSize(5);
+        assertThat(noCourseCandidates).allSatisfy(detail -> assertThat(detail.getStudentCourseList()).isEmpty());
+    }
+
+    @Test
+    void 一覧検索のどの方法でもコースの条件に一致するコースを持つ受講生のみが取得されること() {
+        List<StudentDetail> details = sut.searchStudentDetailsWithConditions(null, "Aコース", null, null, null, null, null);
+        assertThat(details).extracting(detail -> detail.getStudent().getId()).containsExactly(1, 4);
+        assertThat(details).allSatisfy(detail -> assertThat(detail.getStudentCourseList())
+                .extracting(StudentCourse::getCourseName).containsOnly("Aコース"));
+
+        assertThat(sut.searchWithConditionsAfter(null, "Aコース", null, null, null, null, 10))
+                .extracting(Student::getId).containsExactly(1, 4);
+        assertThat(sut.searchStudentColumnsAfter(List.of("id"), null, "Aコース", null, null, null, null, null))
+                .extracting(Student::getId).containsExactly(1, 4);
+    }
+
+    @Test
+    void 受講生を指定したIDより後ろから受講生ID順に指定件数分検索できること() {
+        List<Student> firstPage = sut.searchWithConditionsAfter(null, null, null, null, null, null, 2);
+        assertThat(firstPage).extracting(Student::getId).containsExactly(1, 2);
+
+        List<Student> nextPage = sut.searchWithConditionsAfter(null, null, null, null, null, 2, 2);
+        assertThat(nextPage).extracting(Student::getId).containsExactly(3, 4);
+
+        List<Student> lastPage = sut.searchWithConditionsAfter(null, null, null, null, null, 4, 2);
+        assertThat(lastPage).extracting(Student::getId).containsExactly(5);
+    }
+
+    @Test
+    void 受講生の指定した列のみの検索ではステータスを指定しなくてもコースの条件で受講生が絞り込まれること() {
+        List<Student> byCourseName = sut.searchStudentColumnsAfter(List.of("id", "name"), null, "Aコース", null, null, null, null, null);
+        assertThat(byCourseName).extracting(Student::getId).containsExactly(1, 4);
+
+        List<Student> byStartDate = sut.searchStudentColumnsAfter(List.of("id"), null, null,
+                LocalDateTime.parse("2024-05-01T00:00:00"), null, null, null, null);
+        assertThat(byStartDate).extracting(Student::getId).containsExactly(3, 4, 5);
+
+        List<Student> byEndDate = sut.searchStudentColumnsAfter(List.of("id"), null, null, null,
+                LocalDateTime.parse("2024-09-30T00:00:00"), null, null, null);
+        assertThat(byEndDate).extracting(Student::getId).containsExactly(2);
+    }
+
+    @Test
+    void 受講生と受講生コース情報の指定した列のみを検索できること() {
+        List<Student> studentList = sut.searchStudentColumnsAfter(List.of("id", "name", "kana_name"), null, null, null, null, null, 3, null);
+        assertThat(studentList).extracting(Student::getId).containsExactly(4, 5);
+        assertThat(studentList.get(0).getName()).isEqualTo("二宮 和也");
+        assertThat(studentList.get(0).getKanaName()).isEqualTo("ニノミヤ カズナリ");
+        assertThat(studentList.get(0).getMailAddress()).isNull();
+
+        List<StudentCourse> studentCourseList = sut.searchStudentCourseColumnsByStudentIds(
+                List.of("id", "student_id", "current_status"), List.of(1, 2), null, null, null, null);
+        assertThat(studentCourseList).extracting(StudentCourse::getStudentId).containsExactly(1, 2);
+        assertThat(studentCourseList).extracting(StudentCourse::getCurrentStatus)
+                .containsExactly(CourseStatusType.PROVISIONAL, CourseStatusType.CONFIRMED);
+        assertThat(studentCourseList).extracting(StudentCourse::getCourseName).containsOnlyNulls();
+    }
+
+    @Test
+    void 受講生IDの一覧に紐づくコースとステータスのみを検索できること() {
+        List<StudentCourse> studentCourseList = sut.searchStudentCourseListByStudentIds(List.of(1, 2), null, null, null, null);
+        assertThat(studentCourseList).extracting(StudentCourse::getStudentId).containsExactly(1, 2);
+
+        List<CourseStatus> courseStatusList = sut.searchCourseStatusListByStudentIds(List.of(1, 2), CourseStatusType.CONFIRMED);
+        assertThat(courseStatusList).extracting(CourseStatus::getStatus).containsExactly(CourseStatusType.CONFIRMED);
+    }
+
     @Test
     void 受講生のコース情報を全件取得できること() {
         List<StudentCourse> actual = sut.searchStudentCourseList();
         assertThat(actual.size()).isEqualTo(11); //初期データに基づく件数
 
         // データの中身をチェック
-        assertThat(actual.get(0).getStudentId()).isEqualTo("1");
+        assertThat(actual.get(0).getStudentId()).isEqualTo(1);
         assertThat(actual.get(0).getCourseName()).isEqualTo("Aコース");
         assertThat(actual.get(0).getCourseStartAt()).isEqualTo(LocalDateTime.of(2024, 4, 1, 0, 0));
         assertThat(actual.get(0).getCourseEndAt()).isEqualTo(LocalDateTime.of(2025, 3, 31, 0, 0));
@@ -110,7 +273,7 @@ class StudentRepositoryTest {
 
     @Test
     void 受講生IDで紐づくコース情報を取得できること() {
-        List<StudentCourse> actual = sut.searchStudentCourse("1");
+        List<StudentCourse> actual = sut.searchStudentCourse(1);
         assertThat(actual.size()).isEqualTo(1); //ID=1の受講生のコース件数
         assertThat(actual.get(0).getCourseName()).isEqualTo("Aコース");
         assertThat(actual.get(0).getCourseStartAt()).isEqualTo(LocalDateTime.of(2024, 4, 1, 0, 0));
@@ -123,7 +286,7 @@ class StudentRepositoryTest {
         String courseName = "Aコース";
         LocalDateTime startDate = LocalDateTime.of(2024, 4, 1, 0, 0);
         LocalDateTime endDate = LocalDateTime.of(2025, 3, 31, 0, 0);
-        String status = "仮申込"; // 仮のステータス
+        CourseStatusType status = CourseStatusType.PROVISIONAL; // 仮のステータス
 
         // メソッド呼び出し
         List<StudentCourse> result = sut.searchStudentCourseListWithConditions(courseName, startDate, endDate, status);
@@ -137,7 +300,7 @@ class StudentRepositoryTest {
 
     @Test
     public void 条件付きでコースステータスを検索できること() {
-        List<CourseStatus> result = sut.searchCourseStatusListWithConditions("仮申込");
+        List<CourseStatus> result = sut.searchCourseStatusListWithConditions(CourseStatusType.PROVISIONAL);
         assertNotNull(result);
         assertFalse(result.isEmpty());
     }
@@ -145,65 +308,287 @@ class StudentRepositoryTest {
     @Test
     void 新しい受講生コース情報を登録できること() {
         StudentCourse studentCourse = new StudentCourse();
-        studentCourse.setStudentId("2");
+        studentCourse.setStudentId(2);
         studentCourse.setCourseName("Cコース");
         studentCourse.setCourseStartAt(LocalDateTime.of(2024, 12, 1, 9, 0));
         studentCourse.setCourseEndAt(LocalDateTime.of(2025, 5, 31, 18, 0));
 
         sut.registerStudentCourse(studentCourse);
 
-        List<StudentCourse> actual = sut.searchStudentCourse("2");
+        List<StudentCourse> actual = sut.searchStudentCourse(2);
         assertThat(actual.size()).isEqualTo(2); //登録後の件数に応じて調整
     }
 
+    @Test
+    void 受講生コース情報とコースステータスを1回でまとめて登録し採番されたIDが設定されること() {
+        StudentCourse course1 = new StudentCourse();
+        course1.setStudentId(3);
+        course1.setCourseName("Cコース");
+        course1.setCourseStartAt(LocalDateTime.of(2024, 12, 1, 9, 0));
+        course1.setCourseEndAt(LocalDateTime.of(2025, 5, 31, 18, 0));
+        StudentCourse course2 = new StudentCourse();
+        course2.setStudentId(3);
+        course2.setCourseName("Dコース");
+        course2.setCourseStartAt(LocalDateTime.of(2024, 12, 1, 9, 0));
+        course2.setCourseEndAt(LocalDateTime.of(2025, 5, 31, 18, 0));
+
+        sut.registerStudentCourseList(List.of(course1, course2));
+
+        assertThat(course1.getId()).isNotNull();
+        assertThat(course2.getId()).isNotNull().isNotEqualTo(course1.getId());
+        assertThat(sut.searchStudentCourse(3)).extracting(StudentCourse::getCourseName)
+                .containsExactlyInAnyOrder("Bコース", "Cコース", "Dコース");
+
+        CourseStatus status1 = new CourseStatus();
+        status1.setStudentsCoursesId(course1.getId());
+        status1.setStatus(CourseStatusType.PROVISIONAL);
+        CourseStatus status2 = new CourseStatus();
+        status2.setStudentsCoursesId(course2.getId());
+        status2.setStatus(CourseStatusType.PROVISIONAL);
+
+        sut.registerCourseStatusList(List.of(status1, status2));
+
+        assertThat(status1.getId()).isNotNull();
+        assertThat(status2.getId()).isNotNull();
+        assertThat(sut.findLatestCourseStatusByCourseId(course2.getId()).getId()).isEqualTo(status2.getId());
+    }
+
     @Test
     public void コースIDで最新のコースステータスを取得できること() {
-        CourseStatus latestStatus = sut.findLatestCourseStatusByCourseId("1");
+        CourseStatus latestStatus = sut.findLatestCourseStatusByCourseId(1);
         assertNotNull(latestStatus);
-        assertEquals("仮申込", latestStatus.getStatus());
+        assertEquals(CourseStatusType.PROVISIONAL, latestStatus.getStatus());
     }
 
     @Test
     void 受講生情報を更新できること() {
-        Student student = sut.searchStudent("1");
+        Student student = sut.searchStudent(1);
         assertThat(student).isNotNull();
 
         student.setAddress("新しい住所");
         sut.updateStudent(student);
 
-        Student updatedStudent = sut.searchStudent("1");
+        Student updatedStudent = sut.searchStudent(1);
         assertThat(updatedStudent.getAddress()).isEqualTo("新しい住所");
     }
 
+    @Test
+    void 受講生情報の指定した列のみを更新できること() {
+        Student student = sut.searchStudent(1);
+        student.setRemark("新しい備考");
+        student.setAddress("新しい住所");
+
+        sut.updateStudentColumns(student, Set.of("remark"));
+
+        Student updatedStudent = sut.searchStudent(1);
+        assertThat(updatedStudent.getRemark()).isEqualTo("新しい備考");
+        assertThat(updatedStudent.getAddress()).isEqualTo("東京都");
+    }
+
+    @Test
+    void 複数の受講生コース情報のコース名とコースステータスをまとめて更新できること() {
+        StudentCourse course1 = sut.searchStudentCourse(1).get(0);
+        StudentCourse course2 = sut.searchStudentCourse(2).get(0);
+        course1.setCourseName("Cコース");
+        course2.setCourseName("Dコース");
+
+        sut.updateStudentCourseNameList(List.of(course1, course2));
+
+        assertThat(sut.searchStudentCourse(1).get(0).getCourseName()).isEqualTo("Cコース");
+        assertThat(sut.searchStudentCourse(2).get(0).getCourseName()).isEqualTo("Dコース");
+        assertThat(sut.searchStudentCourse(3).get(0).getCourseName()).isEqualTo("Bコース");
+
+        CourseStatus status1 = sut.findLatestCourseStatusByCourseId(1);
+        CourseStatus status2 = sut.findLatestCourseStatusByCourseId(2);
+        status1.setStatus(CourseStatusType.CONFIRMED);
+        status2.setStatus(CourseStatusType.IN_PROGRESS);
+
+        sut.updateCourseStatusList(List.of(status1, status2));
+
+        assertEquals(CourseStatusType.CONFIRMED, sut.findLatestCourseStatusByCourseId(1).getStatus());
+        assertEquals(CourseStatusType.IN_PROGRESS, sut.findLatestCourseStatusByCourseId(2).getStatus());
+    }
+
     @Test
     void 受講生コース情報のコース名を更新できること() {
-        List<StudentCourse> courses = sut.searchStudentCourse("1");
+        List<StudentCourse> courses = sut.searchStudentCourse(1);
         assertThat(courses).isNotEmpty();
 
         StudentCourse course = courses.get(0);
         course.setCourseName("新しいコース名");
         sut.updateStudentCourse(course);
 
-        List<StudentCourse> updateCourses = sut.searchStudentCourse("1");
+        List<StudentCourse> updateCourses = sut.searchStudentCourse(1);
         assertThat(updateCourses.get(0).getCourseName()).isEqualTo("新しいコース名");
     }
 
     @Test
     public void コースステータスの登録と更新ができること() {
         CourseStatus courseStatus = new CourseStatus();
-        courseStatus.setStudentsCoursesId(String.valueOf(1));
-        courseStatus.setStatus("仮申込");
+        courseStatus.setStudentsCoursesId(1);
+        courseStatus.setStatus(CourseStatusType.PROVISIONAL);
 
         // 登録処理
         sut.registerCourseStatus(courseStatus);
 
         // 更新処理
-        courseStatus.setStatus("本申込");
+        courseStatus.setStatus(CourseStatusType.CONFIRMED);
         sut.updateCourseStatus(courseStatus);
 
         // 更新後データ確認
-        CourseStatus updatedStatus = sut.findLatestCourseStatusByCourseId("1");
-        assertEquals("本申込", updatedStatus.getStatus());
+        CourseStatus updatedStatus = sut.findLatestCourseStatusByCourseId(1);
+        assertEquals(CourseStatusType.CONFIRMED, updatedStatus.getStatus());
     }
 
-}
\ No newline at end of file
+    @Test
+    void 受講生コース情報の最新ステータスを主キーで取得し更新できること() {
+        // テストデータの最新ステータスが反映されていること
+        CourseStatus current = sut.findCurrentCourseStatusByCourseId(1);
+        assertEquals(1, current.getId());
+        assertEquals(1, current.getStudentsCoursesId());
+        assertEquals(CourseStatusType.PROVISIONAL, current.getStatus());
+        assertNull(sut.findCurrentCourseStatusByCourseId(3));
+
+        // 新しいコースステータスを反映すると最新ステータスが更新されること
+        CourseStatus courseStatus = new CourseStatus();
+        courseStatus.setStudentsCoursesId(1);
+        courseStatus.setStatus(CourseStatusType.CONFIRMED);
+        sut.registerCourseStatus(courseStatus);
+        sut.updateCurrentCourseStatus(courseStatus);
+        assertEquals(CourseStatusType.CONFIRMED, sut.findCurrentCourseStatusByCourseId(1).getStatus());
+
+        // 古いコースステータスでは最新ステータスが戻らないこと
+        sut.updateCurrentCourseStatus(current);
+        assertEquals(courseStatus.getId(), sut.findCurrentCourseStatusByCourseId(1).getId());
+    }
+
+    @Test
+    void 受講生の受講生コース情報の行ロックを取得できること() {
+        assertEquals(List.of(1), sut.lockStudentCourseListByStudentId(1));
+        assertEquals(List.of(), sut.lockStudentCourseListByStudentId(999));
+    }
+
+    @Test
+    void 受講生コース情報の行ロックを取得して最新ステータスを取得できること() {
+        CourseStatus current = sut.findCurrentCourseStatusByCourseIdForUpdate(1);
+        assertEquals(1, current.getId());
+        assertEquals(1, current.getStudentsCoursesId());
+        assertEquals(CourseStatusType.PROVISIONAL, current.getStatus());
+
+        // コースステータスがないコースはIDとステータスがnull、コースが存在しない場合はnullになること
+        CourseStatus none = sut.findCurrentCourseStatusByCourseIdForUpdate(3);
+        assertEquals(3, none.getStudentsCoursesId());
+        assertNull(none.getId());
+        assertNull(none.getStatus());
+        assertNull(sut.findCurrentCourseStatusByCourseIdForUpdate(999));
+    }
+
+    @Test
+    void 最新ステータスの条件付き更新は読み込んだ時点から変わっていない場合のみ成功すること() {
+        CourseStatus current = sut.findCurrentCourseStatusByCourseId(1);
+        CourseStatus concurrent = sut.findCurrentCourseStatusByCourseId(1);
+
+        assertEquals(1, sut.transitionCurrentCourseStatus(current, CourseStatusType.CONFIRMED));
+        assertEquals(CourseStatusType.CONFIRMED, sut.findCurrentCourseStatusByCourseId(1).getStatus());
+
+        // 同じ時点に読み込んだステータスからの更新は、先の更新が反映済みのため0件になること
+        assertEquals(0, sut.transitionCurrentCourseStatus(concurrent, CourseStatusType.CONFIRMED));
+        assertEquals(0, sut.transitionCurrentCourseStatus(concurrent, CourseStatusType.IN_PROGRESS));
+        assertEquals(CourseStatusType.CONFIRMED, sut.findCurrentCourseStatusByCourseId(1).getStatus());
+    }
+
+    @Test
+    void 最新ステータスが遷移元のコースをまとめて遷移先のステータスに更新できること() {
+        // テストデータでは受講生コース2のみが本申込
+        assertEquals(1, sut.transitionAllCurrentCourseStatuses(CourseStatusType.CONFIRMED, CourseStatusType.IN_PROGRESS));
+        assertEquals(1, sut.transitionAllLatestCourseStatuses(CourseStatusType.CONFIRMED, CourseStatusType.IN_PROGRESS));
+
+        assertEquals(CourseStatusType.IN_PROGRESS, sut.findCurrentCourseStatusByCourseId(2).getStatus());
+        assertEquals(CourseStatusType.IN_PROGRESS, sut.findLatestCourseStatusByCourseId(2).getStatus());
+        assertEquals(CourseStatusType.PROVISIONAL, sut.findCurrentCourseStatusByCourseId(1).getStatus());
+        assertEquals(0, sut.transitionAllCurrentCourseStatuses(CourseStatusType.CONFIRMED, CourseStatusType.IN_PROGRESS));
+    }
+
+    @Test
+    void 受講生コース情報の最新ステータスをコースステータスの履歴から再計算できること() {
+        CourseStatus courseStatus = new CourseStatus();
+        courseStatus.setStudentsCoursesId(3);
+        courseStatus.setStatus(CourseStatusType.IN_PROGRESS);
+        sut.registerCourseStatus(courseStatus);
+        // コースステータスがあるのに最新ステータスが反映されていないのは受講生コース3のみ
+        assertThat(sut.searchStudentCourseIdsAfter(0, 100, true)).containsExactly(3);
+
+        sut.refreshCurrentCourseStatusList(List.of(1, 3));
+
+        assertEquals(CourseStatusType.PROVISIONAL, sut.findCurrentCourseStatusByCourseId(1).getStatus());
+        assertEquals(CourseStatusType.IN_PROGRESS, sut.findCurrentCourseStatusByCourseId(3).getStatus());
+        assertThat(sut.searchStudentCourse(3).get(0).getCurrentStatus()).isEqualTo(CourseStatusType.IN_PROGRESS);
+        assertThat(sut.searchStudentCourseIdsAfter(1, 2, false)).containsExactly(2, 3);
+        assertThat(sut.searchStudentCourseIdsAfter(0, 100, true)).isEmpty();
+    }
+
+    @Test
+    void 最新ステータスが指定されたステータスの受講生コース情報を検索できること() {
+        // テストデータでは受講生コース2のみが本申込
+        List<StudentCourse> studentCourseList = sut.searchStudentCourseListByCurrentStatusForUpdate(CourseStatusType.CONFIRMED);
+
+        assertThat(studentCourseList).extracting(StudentCourse::getId).containsExactly(2);
+        assertThat(studentCourseList).extracting(StudentCourse::getStudentId).containsExactly(2);
+    }
+
+    @Test
+    void 受講生コース情報をコース名と最新ステータスと受講期間の年月ごとに集計できること() {
+        List<StudentCourseCount> countList = sut.countStudentCourses();
+
+        assertThat(countList.stream().mapToLong(StudentCourseCount::getCourseCount).sum()).isEqualTo(11);
+        assertThat(countList.stream()
+                .filter(count -> "Bコース".equals(count.getCourseName()))
+                .mapToLong(StudentCourseCount::getCourseCount).sum()).isEqualTo(5);
+        // 受講生コース1（Aコース、2024年4月〜2025年3月）は仮申込
+        assertThat(countList).anySatisfy(count -> {
+            assertThat(count.getCourseName()).isEqualTo("Aコース");
+            assertThat(count.getCurrentStatus()).isEqualTo(CourseStatusType.PROVISIONAL);
+            assertThat(count.getStartYear()).isEqualTo(2024);
+            assertThat(count.getStartMonth()).isEqualTo(4);
+            assertThat(count.getEndYear()).isEqualTo(2025);
+            assertThat(count.getEndMonth()).isEqualTo(3);
+            assertThat(count.getCourseCount()).isEqualTo(1);
+        });
+    }
+
+    @Test
+    void 変更履歴を登録し変更連番より後の変更履歴を変更連番順に検索できること() {
+        sut.registerChangeLogList(List.of(
+                new ChangeLog(1, ChangeLog.EntityType.STUDENT, 1, ChangeLog.Operation.UPDATE),
+                new ChangeLog(2, ChangeLog.EntityType.COURSE_STATUS, 2, ChangeLog.Operation.INSERT),
+                new ChangeLog(3, ChangeLog.EntityType.STUDENT_COURSE, 3, ChangeLog.Operation.UPDATE)));
+
+        List<ChangeLog> changeLogList = sut.searchChangeLogsAfter(0, 10);
+        assertThat(changeLogList).extracting(ChangeLog::getStudentId).containsExactly(1, 2, 3);
+        assertThat(changeLogList).extracting(ChangeLog::getEntityType).containsExactly(
+                ChangeLog.EntityType.STUDENT, ChangeLog.EntityType.COURSE_STATUS, ChangeLog.EntityType.STUDENT_COURSE);
+        assertThat(changeLogList.get(0).getChangedAt()).isNotNull();
+        // 登録時刻と比較するデータベースの現在時刻が、同じ時計で取得できること
+        assertThat(sut.findCurrentTimestamp()).isAfterOrEqualTo(changeLogList.get(0).getChangedAt());
+
+        // 変更連番より後の変更履歴のみを最大件数分取得できること
+        List<ChangeLog> after = sut.searchChangeLogsAfter(changeLogList.get(0).getSeq(), 1);
+        assertThat(after).extracting(ChangeLog::getSeq).containsExactly(changeLogList.get(1).getSeq());
+    }
+
+    @Test
+    void 最新の変更連番を全体と受講生ごとに取得できること() {
+        // 変更履歴がない場合は0
+        assertEquals(0L, sut.findLatestChangeLogSeq());
+        assertEquals(0L, sut.findLatestChangeLogSeqByStudentId(1));
+
+        sut.registerChangeLogList(List.of(
+                new ChangeLog(1, ChangeLog.EntityType.STUDENT, 1, ChangeLog.Operation.UPDATE),
+                new ChangeLog(2, ChangeLog.EntityType.STUDENT, 2, ChangeLog.Operation.UPDATE)));
+        List<ChangeLog> changeLogList = sut.searchChangeLogsAfter(0, 10);
+
+        assertEquals(changeLogList.get(1).getSeq(), sut.findLatestChangeLogSeq());
+        assertEquals(changeLogList.get(0).getSeq(), sut.findLatestChangeLogSeqByStudentId(1));
+        assertEquals(0L, sut.findLatestChangeLogSeqByStudentId(3));
+    }
+}
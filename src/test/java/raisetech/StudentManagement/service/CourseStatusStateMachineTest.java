@@ -0,0 +1,41 @@
+package raisetech.StudentManagement.service;
+
+import org.junit.jupiter.api.Test;
+import raisetech.StudentManagement.data.CourseStatusType;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CourseStatusStateMachineTest {
+
+    @Test
+    void 仮申込から受講終了まで1つ先のステータスへの遷移のみが有効であること() {
+        List<String> transitions = new ArrayList<>();
+        for (CourseStatusType currentStatus : CourseStatusType.values()) {
+            for (CourseStatusType newStatus : CourseStatusType.values()) {
+                if (CourseStatusStateMachine.canTransition(currentStatus, newStatus)) {
+                    transitions.add(currentStatus.getLabel() + "->" + newStatus.getLabel());
+                }
+            }
+        }
+
+        assertThat(transitions).containsExactly("仮申込->本申込", "本申込->受講中", "受講中->受講終了");
+    }
+
+    @Test
+    void ステータスがnullの場合は無効な遷移と判定されること() {
+        assertThat(CourseStatusStateMachine.canTransition(null, CourseStatusType.CONFIRMED)).isFalse();
+        assertThat(CourseStatusStateMachine.canTransition(CourseStatusType.PROVISIONAL, null)).isFalse();
+    }
+
+    @Test
+    void コースステータスのコードと表示名が相互に変換できること() {
+        for (CourseStatusType type : CourseStatusType.values()) {
+            assertThat(CourseStatusType.fromCode(type.getCode())).isEqualTo(type);
+            assertThat(CourseStatusType.fromLabel(type.getLabel())).isEqualTo(type);
+        }
+        assertThat(CourseStatusType.findByLabel("退会")).isEmpty();
+    }
+}
@@ -0,0 +1,66 @@
+package raisetech.StudentManagement.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import raisetech.StudentManagement.repository.StudentRepository;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyBoolean;
+import static org.mockito.Mockito.anyInt;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class CurrentCourseStatusBackfillTest {
+
+    @Mock
+    private StudentRepository repository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void 受講生コースIDの順に指定件数ごとに最新ステータスが反映されること() {
+        CurrentCourseStatusBackfill sut = new CurrentCourseStatusBackfill(repository, transactionManager, 2, false);
+        when(repository.searchStudentCourseIdsAfter(0, 2, false)).thenReturn(List.of(1, 2));
+        when(repository.searchStudentCourseIdsAfter(2, 2, false)).thenReturn(List.of(5));
+        when(repository.searchStudentCourseIdsAfter(5, 2, false)).thenReturn(List.of());
+
+        int actual = sut.backfill();
+
+        assertThat(actual).isEqualTo(3);
+        verify(repository, times(1)).refreshCurrentCourseStatusList(List.of(1, 2));
+        verify(repository, times(1)).refreshCurrentCourseStatusList(List.of(5));
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    void 起動時のバックフィルが無効な場合は反映されないこと() {
+        CurrentCourseStatusBackfill sut = new CurrentCourseStatusBackfill(repository, transactionManager, 2, false);
+
+        sut.backfillOnStartup();
+
+        verify(repository, never()).searchStudentCourseIdsAfter(anyInt(), anyInt(), anyBoolean());
+    }
+
+    @Test
+    void 起動時のバックフィルは最新ステータスが反映されていない受講生コース情報のみを反映すること() {
+        CurrentCourseStatusBackfill sut = new CurrentCourseStatusBackfill(repository, transactionManager, 2, true);
+        when(repository.searchStudentCourseIdsAfter(0, 2, true)).thenReturn(List.of(7));
+        when(repository.searchStudentCourseIdsAfter(7, 2, true)).thenReturn(List.of());
+
+        sut.backfillOnStartup();
+
+        verify(repository, times(1)).refreshCurrentCourseStatusList(List.of(7));
+        verify(repository, never()).searchStudentCourseIdsAfter(anyInt(), anyInt(), eq(false));
+    }
+}
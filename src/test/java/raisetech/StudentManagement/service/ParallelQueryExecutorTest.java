@@ -0,0 +1,65 @@
+package raisetech.StudentManagement.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.dao.DataRetrievalFailureException;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ParallelQueryExecutorTest {
+
+    private ParallelQueryExecutor sut = new ParallelQueryExecutor(new SimpleAsyncTaskExecutor(), Duration.ofMillis(500));
+
+    @Test
+    void 並列に実行した検索の結果がすべて取得できること() {
+        CountDownLatch bothStarted = new CountDownLatch(2);
+        Future<String> first = sut.submit(() -> {
+            bothStarted.countDown();
+            return bothStarted.await(1, TimeUnit.SECONDS) ? "受講生" : "逐次実行";
+        });
+        Future<String> second = sut.submit(() -> {
+            bothStarted.countDown();
+            return bothStarted.await(1, TimeUnit.SECONDS) ? "コース" : "逐次実行";
+        });
+
+        sut.awaitAll(first, second);
+
+        assertThat(sut.get(first)).isEqualTo("受講生");
+        assertThat(sut.get(second)).isEqualTo("コース");
+    }
+
+    @Test
+    void タイムアウトまでに完了しない場合は例外となり残りの検索が取り消されること() {
+        Future<String> fast = sut.submit(() -> "受講生");
+        Future<String> slow = sut.submit(() -> {
+            Thread.sleep(10_000);
+            return "コース";
+        });
+
+        assertThatThrownBy(() -> sut.awaitAll(fast, slow)).isInstanceOf(QueryTimeoutException.class);
+        assertThat(slow.isCancelled()).isTrue();
+    }
+
+    @Test
+    void 検索が失敗した場合はその例外が送出され残りの検索が取り消されること() {
+        Future<String> failed = sut.submit(() -> {
+            throw new DataRetrievalFailureException("検索エラー");
+        });
+        Future<String> slow = sut.submit(() -> {
+            Thread.sleep(10_000);
+            return "コース";
+        });
+
+        assertThatThrownBy(() -> sut.awaitAll(failed, slow))
+                .isInstanceOf(DataRetrievalFailureException.class)
+                .hasMessage("検索エラー");
+        assertThat(slow.isCancelled()).isTrue();
+    }
+}
@@ -0,0 +1,152 @@
+package raisetech.StudentManagement.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import raisetech.StudentManagement.data.ChangeLog;
+import raisetech.StudentManagement.domein.ChangeLogPage;
+import raisetech.StudentManagement.repository.StudentRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.after;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyInt;
+import static org.mockito.Mockito.anyLong;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StudentChangeFeedTest {
+
+    @Mock
+    private StudentRepository repository;
+
+    private StudentChangeFeed sut;
+
+    @BeforeEach
+    void before() {
+        sut = new StudentChangeFeed(repository, Duration.ofMinutes(30), Duration.ofSeconds(10));
+    }
+
+    @Test
+    void 変更履歴は呼び出し元のトランザクションでまとめて登録されること() {
+        List<ChangeLog> changeLogList = List.of(new ChangeLog(1, ChangeLog.EntityType.STUDENT, 1, ChangeLog.Operation.UPDATE));
+
+        sut.record(changeLogList);
+
+        verify(repository, times(1)).registerChangeLogList(changeLogList);
+    }
+
+    @Test
+    void 変更履歴が空の場合は何も登録しないこと() {
+        sut.record(List.of());
+
+        verify(repository, never()).registerChangeLogList(any());
+    }
+
+    @Test
+    void 変更履歴の検索_最後の変更連番が次回の変更連番になり最大件数分取得した場合は続きがあると判定されること() {
+        when(repository.searchChangeLogsAfter(5L, 2)).thenReturn(List.of(changeLog(6L), changeLog(7L)));
+
+        ChangeLogPage page = sut.searchChanges(5L, 2);
+
+        assertThat(page.getChangeLogList()).extracting(ChangeLog::getSeq).containsExactly(6L, 7L);
+        assertThat(page.getNextSince()).isEqualTo(7L);
+        assertThat(page.isHasMore()).isTrue();
+        verify(repository, never()).findCurrentTimestamp();
+    }
+
+    @Test
+    void 変更履歴の検索_コミット待ちの可能性がある欠番の手前までが返されること() {
+        LocalDateTime now = LocalDateTime.of(2024, 4, 1, 10, 0, 0);
+        when(repository.findCurrentTimestamp()).thenReturn(now);
+        // 変更連番7は、先に採番されたトランザクションがまだコミットしていない
+        when(repository.searchChangeLogsAfter(5L, 100)).thenReturn(List.of(changeLog(6L), changeLog(8L, now.minusSeconds(1))));
+
+        ChangeLogPage page = sut.searchChanges(5L, 100);
+
+        assertThat(page.getChangeLogList()).extracting(ChangeLog::getSeq).containsExactly(6L);
+        assertThat(page.getNextSince()).isEqualTo(6L);
+        assertThat(page.isHasMore()).isFalse();
+    }
+
+    @Test
+    void 変更履歴の検索_一定時間が過ぎた欠番はロールバックされたものとして読み飛ばされること() {
+        LocalDateTime now = LocalDateTime.of(2024, 4, 1, 10, 0, 0);
+        when(repository.findCurrentTimestamp()).thenReturn(now);
+        when(repository.searchChangeLogsAfter(5L, 100)).thenReturn(List.of(changeLog(6L), changeLog(8L, now.minusSeconds(11))));
+
+        ChangeLogPage page = sut.searchChanges(5L, 100);
+
+        assertThat(page.getChangeLogList()).extracting(ChangeLog::getSeq).containsExactly(6L, 8L);
+        assertThat(page.getNextSince()).isEqualTo(8L);
+    }
+
+    @Test
+    void 変更履歴の検索_変更履歴がない場合は指定した変更連番が次回の変更連番になること() {
+        when(repository.searchChangeLogsAfter(anyLong(), anyInt())).thenReturn(List.of());
+
+        ChangeLogPage page = sut.searchChanges(10L, 100);
+
+        assertThat(page.getChangeLogList()).isEmpty();
+        assertThat(page.getNextSince()).isEqualTo(10L);
+        assertThat(page.isHasMore()).isFalse();
+    }
+
+    @Test
+    void 購読者がいない場合は変更履歴を検索しないこと() {
+        sut.publish();
+
+        verify(repository, never()).searchChangeLogsAfter(anyLong(), anyInt());
+    }
+
+    @Test
+    void 送信は専用のスレッドで行われ送信中の依頼は1回の送信にまとめられること() throws Exception {
+        CountDownLatch searching = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicReference<String> threadName = new AtomicReference<>();
+        when(repository.searchChangeLogsAfter(anyLong(), anyInt())).thenAnswer(invocation -> {
+            threadName.set(Thread.currentThread().getName());
+            searching.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return List.of();
+        });
+
+        // 購読の開始で送信が依頼され、送信中もポーリングの依頼は待たされずに戻ること
+        sut.subscribe(0L);
+        assertThat(searching.await(5, TimeUnit.SECONDS)).isTrue();
+        for (int i = 0; i < 10; i++) {
+            sut.poll();
+        }
+        release.countDown();
+
+        // 送信中の1回と、待機していた1回のみ検索されること
+        verify(repository, timeout(5000).times(2)).searchChangeLogsAfter(anyLong(), anyInt());
+        verify(repository, after(200).times(2)).searchChangeLogsAfter(anyLong(), anyInt());
+        assertThat(threadName.get()).startsWith("student-change-feed-");
+        sut.shutdown();
+    }
+
+    private ChangeLog changeLog(Long seq) {
+        return changeLog(seq, null);
+    }
+
+    private ChangeLog changeLog(Long seq, LocalDateTime changedAt) {
+        ChangeLog changeLog = new ChangeLog(1, ChangeLog.EntityType.STUDENT, 1, ChangeLog.Operation.UPDATE);
+        changeLog.setSeq(seq);
+        changeLog.setChangedAt(changedAt);
+        return changeLog;
+    }
+}
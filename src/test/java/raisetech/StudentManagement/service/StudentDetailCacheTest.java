@@ -0,0 +1,99 @@
+package raisetech.StudentManagement.service;
+
+import org.junit.jupiter.api.Test;
+import raisetech.StudentManagement.data.CourseStatus;
+import raisetech.StudentManagement.data.CourseStatusType;
+import raisetech.StudentManagement.data.Student;
+import raisetech.StudentManagement.data.StudentCourse;
+import raisetech.StudentManagement.domein.StudentDetail;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StudentDetailCacheTest {
+
+    private StudentDetailCache sut = new StudentDetailCache(100, Duration.ofMinutes(5));
+
+    @Test
+    void キャッシュにない場合のみ読み込まれヒット数とミス数が記録されること() {
+        AtomicInteger loadCount = new AtomicInteger();
+
+        sut.get(1, id -> {
+            loadCount.incrementAndGet();
+            return createStudentDetail(1, 10);
+        });
+        sut.get(1, id -> {
+            loadCount.incrementAndGet();
+            return createStudentDetail(1, 10);
+        });
+
+        assertThat(loadCount.get()).isEqualTo(1);
+        assertThat(sut.stats().getHitCount()).isEqualTo(1);
+        assertThat(sut.stats().getMissCount()).isEqualTo(1);
+        assertThat(sut.stats().getSize()).isEqualTo(1);
+    }
+
+    @Test
+    void 取得した受講生詳細を変更してもキャッシュの内容が変わらないこと() {
+        StudentDetail actual = sut.get(1, id -> createStudentDetail(1, 10));
+        actual.getStudentCourseList().get(0).getCourseStatusList().get(0).setStatus(CourseStatusType.IN_PROGRESS);
+        actual.getStudentCourseList().get(0).setCourseStatusList(new ArrayList<>());
+
+        StudentDetail cached = sut.get(1, id -> null);
+        assertThat(cached).isNotSameAs(actual);
+        assertThat(cached.getStudentCourseList().get(0).getCourseStatusList())
+                .extracting(CourseStatus::getStatus).containsExactly(CourseStatusType.PROVISIONAL);
+    }
+
+    @Test
+    void 読み込みの間に削除された受講生詳細は返されるがキャッシュに残らないこと() {
+        StudentDetail actual = sut.get(1, id -> {
+            // 読み込みの後にコミットされた更新による削除
+            sut.invalidate(1);
+            return createStudentDetail(1, 10);
+        });
+
+        assertThat(actual).isNotNull();
+        assertThat(sut.get(1, id -> null)).isNull();
+
+        // 削除後に読み込んだ受講生詳細はキャッシュに残ること
+        sut.get(1, id -> createStudentDetail(1, 10));
+        assertThat(sut.get(1, id -> null)).isNotNull();
+    }
+
+    @Test
+    void すべて削除すると読み込み中の受講生詳細もキャッシュに残らないこと() {
+        sut.get(1, id -> {
+            sut.invalidateAll();
+            return createStudentDetail(1, 10);
+        });
+
+        assertThat(sut.get(1, id -> null)).isNull();
+    }
+
+    @Test
+    void 受講生IDを指定して削除すると次の取得で読み込み直されること() {
+        sut.get(1, id -> createStudentDetail(1, 10));
+
+        sut.invalidate(1);
+
+        assertThat(sut.get(1, id -> null)).isNull();
+    }
+
+    private StudentDetail createStudentDetail(Integer studentId, Integer studentCourseId) {
+        Student student = new Student();
+        student.setId(studentId);
+        StudentCourse studentCourse = new StudentCourse();
+        studentCourse.setId(studentCourseId);
+        studentCourse.setStudentId(studentId);
+        CourseStatus courseStatus = new CourseStatus();
+        courseStatus.setStudentsCoursesId(studentCourseId);
+        courseStatus.setStatus(CourseStatusType.PROVISIONAL);
+        studentCourse.setCourseStatusList(new ArrayList<>(List.of(courseStatus)));
+        return new StudentDetail(student, new ArrayList<>(List.of(studentCourse)));
+    }
+}
@@ -0,0 +1,67 @@
+package raisetech.StudentManagement.service;
+
+import org.junit.jupiter.api.Test;
+import raisetech.StudentManagement.data.CourseStatus;
+import raisetech.StudentManagement.data.CourseStatusType;
+import raisetech.StudentManagement.data.Student;
+import raisetech.StudentManagement.data.StudentCourse;
+import raisetech.StudentManagement.domein.StudentDetail;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class StudentDetailChangesTest {
+
+    @Test
+    void 変更された受講生の列と受講生コース情報_コースステータスの行のみが差分になること() {
+        StudentDetail requested = studentDetail();
+        requested.getStudent().setMailAddress("new@example.com");
+        requested.getStudent().setDeleted(true);
+        requested.getStudentCourseList().get(0).getCourseStatusList().get(0).setStatus(CourseStatusType.CONFIRMED);
+
+        StudentDetailChanges changes = StudentDetailChanges.between(studentDetail(), requested);
+
+        assertThat(changes.getStudentColumns()).containsExactly("mailAddress", "isDeleted");
+        assertThat(changes.getStudentCourseList()).isEmpty();
+        assertThat(changes.getCourseStatusList()).extracting(CourseStatus::getId).containsExactly(100);
+        assertThat(changes.getStatusChangedStudentCourseIds()).containsExactly(10);
+        assertThat(changes.getCurrentStatuses()).containsExactly(Map.entry(10, CourseStatusType.CONFIRMED));
+        assertThat(changes.isEmpty()).isFalse();
+    }
+
+    @Test
+    void 保存されている受講生に紐づかない受講生コース情報とコースステータスは差分に含まれないこと() {
+        StudentDetail requested = studentDetail();
+        StudentCourse otherCourse = new StudentCourse();
+        otherCourse.setId(99);
+        otherCourse.setCourseName("他の受講生のコース");
+        requested.getStudentCourseList().add(otherCourse);
+        // 受講生コースID 10 のコースに、他の受講生コース情報のコースステータスIDを指定する
+        requested.getStudentCourseList().get(0).getCourseStatusList().get(0).setId(999);
+        requested.getStudentCourseList().get(0).getCourseStatusList().get(0).setStatus(CourseStatusType.COMPLETED);
+
+        StudentDetailChanges changes = StudentDetailChanges.between(studentDetail(), requested);
+
+        assertThat(changes.isEmpty()).isTrue();
+    }
+
+    private StudentDetail studentDetail() {
+        Student student = new Student();
+        student.setId(1);
+        student.setName("大野");
+        student.setMailAddress("ohno@example.com");
+        StudentCourse studentCourse = new StudentCourse();
+        studentCourse.setId(10);
+        studentCourse.setCourseName("Javaコース");
+        studentCourse.setCurrentStatus(CourseStatusType.PROVISIONAL);
+        CourseStatus courseStatus = new CourseStatus();
+        courseStatus.setId(100);
+        courseStatus.setStudentsCoursesId(10);
+        courseStatus.setStatus(CourseStatusType.PROVISIONAL);
+        studentCourse.setCourseStatusList(new ArrayList<>(List.of(courseStatus)));
+        return new StudentDetail(student, new ArrayList<>(List.of(studentCourse)));
+    }
+}
@@ -0,0 +1,207 @@
+package raisetech.StudentManagement.service;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.PlatformTransactionManager;
+import raisetech.StudentManagement.data.CourseStatus;
+import raisetech.StudentManagement.data.Student;
+import raisetech.StudentManagement.data.StudentCourse;
+import raisetech.StudentManagement.domein.StudentDetail;
+import raisetech.StudentManagement.domein.StudentImportReport;
+import raisetech.StudentManagement.repository.StudentRepository;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class StudentImportServiceTest {
+
+    @Mock
+    private StudentRepository repository;
+
+    @Mock
+    private StudentService studentService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    private StudentImportService sut;
+
+    @BeforeEach
+    void before() {
+        sut = new StudentImportService(repository, studentService, validator, transactionManager, 2);
+    }
+
+    @Test
+    void 入力チェックを通過した受講生詳細が指定件数ごとにまとめて登録されること() {
+        // 準備（3件目は入力チェックでエラー）
+        List<StudentDetail> studentDetailList = List.of(
+                createStudentDetail("森本光雄", "test1@example.com"),
+                createStudentDetail("森田", "test2@example.com"),
+                createStudentDetail("森山", "メールアドレスではない"),
+                createStudentDetail("森川", "test4@example.com"));
+        List<Integer> registeredSizes = new ArrayList<>();
+        doAnswer(invocation -> {
+            List<Student> studentList = invocation.getArgument(0);
+            registeredSizes.add(studentList.size());
+            studentList.forEach(student -> student.setId(100 + registeredSizes.size() * 10 + studentList.indexOf(student)));
+            return null;
+        }).when(repository).registerStudentList(any());
+
+        // 実行
+        StudentImportReport actual = sut.importStudents(studentDetailList.iterator());
+
+        // 検証
+        assertThat(registeredSizes).containsExactly(2, 1);
+        verify(studentService, times(2)).registerStudentCourses(any());
+        verify(transactionManager, times(2)).commit(any());
+
+        assertThat(actual.getTotal()).isEqualTo(4);
+        assertThat(actual.getSucceeded()).isEqualTo(3);
+        assertThat(actual.getFailed()).isEqualTo(1);
+        assertThat(actual.getResults().get(0).getStudentId()).isEqualTo(110);
+        assertThat(actual.getResults().get(1).getStudentId()).isEqualTo(111);
+        assertThat(actual.getResults().get(2).isSuccess()).isFalse();
+        assertThat(actual.getResults().get(2).getMessages()).singleElement().asString().startsWith("student.mailAddress: ");
+        assertThat(actual.getResults().get(3).getIndex()).isEqualTo(3);
+        assertThat(actual.getResults().get(3).getStudentId()).isEqualTo(120);
+    }
+
+    @Test
+    void 受講生コース情報に含まれるコースステータスも入力チェックされること() {
+        // 準備（2件目のコースステータスはステータスが未指定）
+        StudentDetail invalid = createStudentDetail("森田", "test2@example.com");
+        CourseStatus courseStatus = new CourseStatus();
+        courseStatus.setStudentsCoursesId(1);
+        invalid.getStudentCourseList().get(0).setCourseStatusList(List.of(courseStatus));
+
+        // 実行
+        StudentImportReport actual = sut.importStudents(
+                List.of(createStudentDetail("森本光雄", "test1@example.com"), invalid).iterator());
+
+        // 検証
+        assertThat(actual.getSucceeded()).isEqualTo(1);
+        assertThat(actual.getResults().get(1).isSuccess()).isFalse();
+        assertThat(actual.getResults().get(1).getMessages()).singleElement().asString()
+                .startsWith("studentCourseList[0].courseStatusList[0].status: ");
+    }
+
+    @Test
+    void 登録に失敗した場合はまとまりに含まれる受講生詳細のみが失敗となること() {
+        // 準備（1つ目のまとまりの登録で失敗する）
+        List<StudentDetail> studentDetailList = List.of(
+                createStudentDetail("森本光雄", "test1@example.com"),
+                createStudentDetail("森田", "test2@example.com"),
+                createStudentDetail("森川", "test3@example.com"));
+        doThrow(new DataIntegrityViolationException("登録エラー"))
+                .doNothing()
+                .when(repository).registerStudentList(any());
+
+        // 実行
+        StudentImportReport actual = sut.importStudents(studentDetailList.iterator());
+
+        // 検証
+        verify(transactionManager, times(1)).rollback(any());
+        assertThat(actual.getSucceeded()).isEqualTo(1);
+        assertThat(actual.getFailed()).isEqualTo(2);
+        assertThat(actual.getResults().get(0).getMessages()).containsExactly("登録に失敗しました: 登録エラー");
+        assertThat(actual.getResults().get(2).isSuccess()).isTrue();
+    }
+
+    @Test
+    void 受講生詳細に変換できない登録データはその1件のみが失敗となり続きが登録されること() throws Exception {
+        // 準備（2件目は年齢が数値でない）
+        String json = """
+                [
+                    {"student": {"name": "森本光雄", "kanaName": "モリ", "nickname": "モリ", "mailAddress": "test1@example.com",
+                                 "address": "東京都", "age": 20, "gender": "男"}},
+                    {"student": {"name": "森田", "age": "二十歳"}, "studentCourseList": [{"courseName": "Aコース"}]},
+                    {"student": {"name": "森川", "kanaName": "モリ", "nickname": "モリ", "mailAddress": "test3@example.com",
+                                 "address": "東京都", "age": 20, "gender": "男"}}
+                ]
+                """;
+        ObjectReader reader = JsonMapper.builder().findAndAddModules().build().readerFor(StudentDetail.class);
+
+        // 実行
+        StudentImportReport actual;
+        try (MappingIterator<StudentDetail> studentDetails = reader.readValues(json)) {
+            actual = sut.importStudents(studentDetails);
+        }
+
+        // 検証
+        assertThat(actual.getTotal()).isEqualTo(3);
+        assertThat(actual.getSucceeded()).isEqualTo(2);
+        assertThat(actual.getResults().get(1).isSuccess()).isFalse();
+        assertThat(actual.getResults().get(1).getMessages()).singleElement().asString().startsWith("登録データの形式が正しくありません: ");
+        assertThat(actual.getResults().get(2).isSuccess()).isTrue();
+        verify(repository, times(1)).registerStudentList(any());
+    }
+
+    @Test
+    void 登録データを読み込めなくなった場合はそれまでの受講生詳細が登録され以降は処理されないこと() {
+        // 準備（2件目を読み込もうとした時点で構文エラーになる）
+        Iterator<StudentDetail> studentDetails = new Iterator<>() {
+            private int count;
+
+            @Override
+            public boolean hasNext() {
+                if (count == 1) {
+                    throw new UncheckedIOException(new IOException("閉じられていない引用符があります"));
+                }
+                return true;
+            }
+
+            @Override
+            public StudentDetail next() {
+                count++;
+                return createStudentDetail("森本光雄", "test1@example.com");
+            }
+        };
+
+        // 実行
+        StudentImportReport actual = sut.importStudents(studentDetails);
+
+        // 検証
+        assertThat(actual.getTotal()).isEqualTo(2);
+        assertThat(actual.getSucceeded()).isEqualTo(1);
+        assertThat(actual.getResults().get(1).getMessages()).singleElement().asString()
+                .startsWith("登録データを読み込めないため、以降の登録データは処理していません: ");
+        verify(repository, times(1)).registerStudentList(any());
+    }
+
+    private StudentDetail createStudentDetail(String name, String mailAddress) {
+        Student student = new Student();
+        student.setName(name);
+        student.setKanaName("モリ");
+        student.setNickname("モリ");
+        student.setMailAddress(mailAddress);
+        student.setAddress("東京都");
+        student.setAge(20);
+        student.setGender("男");
+
+        StudentCourse studentCourse = new StudentCourse();
+        studentCourse.setCourseName("Aコース");
+        return new StudentDetail(student, List.of(studentCourse));
+    }
+}
@@ -0,0 +1,108 @@
+package raisetech.StudentManagement.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import raisetech.StudentManagement.data.Student;
+import raisetech.StudentManagement.data.StudentCourse;
+import raisetech.StudentManagement.repository.StudentRepository;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class StudentSearchIndexTest {
+
+    private StudentRepository repository = mock(StudentRepository.class);
+
+    private StudentSearchIndex sut = new StudentSearchIndex(repository, true);
+
+    @BeforeEach
+    void before() {
+        when(repository.search()).thenReturn(List.of(
+                createStudent(1, "大野 智", "オオノ サトシ"),
+                createStudent(2, "相葉 雅紀", "アイバ マサキ"),
+                createStudent(3, "松本 潤", "マツモト ジュン")));
+        when(repository.searchStudentCourseList()).thenReturn(List.of(
+                createStudentCourse(10, "Javaフルコース"),
+                createStudentCourse(11, "ＡＷＳコース")));
+        sut.rebuild();
+    }
+
+    @Test
+    void 名前とカナ名の部分文字列で受講生IDの候補が検索できること() {
+        assertThat(sut.findStudentIdCandidates("大野")).hasValue(Set.of(1));
+        assertThat(sut.findStudentIdCandidates("マサ")).hasValue(Set.of(2));
+        assertThat(sut.findStudentIdCandidates("本")).hasValue(Set.of(3));
+        assertThat(sut.findStudentIdCandidates("二宮")).hasValue(Set.of());
+    }
+
+    @Test
+    void 全角半角_大文字小文字_ひらがなカタカナの違いを同一視して検索できること() {
+        assertThat(sut.findStudentIdCandidates("おおの")).hasValue(Set.of(1));
+        assertThat(sut.findStudentCourseIdCandidates("java")).hasValue(Set.of(10));
+        assertThat(sut.findStudentCourseIdCandidates("aws")).hasValue(Set.of(11));
+        assertThat(sut.findStudentCourseIdCandidates("ｺｰｽ")).hasValue(Set.of(10, 11));
+    }
+
+    @Test
+    void 更新した受講生は以前の名前では検索されなくなること() {
+        sut.indexStudent(createStudent(1, "大宮 智", "オオミヤ サトシ"));
+
+        assertThat(sut.findStudentIdCandidates("大野")).hasValue(Set.of());
+        assertThat(sut.findStudentIdCandidates("大宮")).hasValue(Set.of(1));
+    }
+
+    @Test
+    void 検索文字列が空またはワイルドカードを含む場合は候補で絞り込まないこと() {
+        assertThat(sut.findStudentIdCandidates(null)).isEmpty();
+        assertThat(sut.findStudentIdCandidates("")).isEmpty();
+        assertThat(sut.findStudentIdCandidates("大%")).isEmpty();
+        assertThat(new StudentSearchIndex(repository, true).findStudentIdCandidates("大野")).isEmpty();
+    }
+
+    @Test
+    void 絞り込みが無効の場合はインデックスを構築せず候補を返さないこと() {
+        StudentSearchIndex disabled = new StudentSearchIndex(repository, false);
+
+        disabled.rebuild();
+        disabled.indexStudent(createStudent(1, "大野 智", "オオノ サトシ"));
+
+        assertThat(disabled.findStudentIdCandidates("大野")).isEmpty();
+        assertThat(disabled.isEnabled()).isFalse();
+    }
+
+    @Test
+    void 再構築中にコミットされた変更は読み込んだ時点の内容で上書きされないこと() {
+        // 準備（再構築で全件を読み込んだ後、入れ替える前に受講生1の名前が変更される）
+        when(repository.searchStudentCourseList()).thenAnswer(invocation -> {
+            sut.indexStudent(createStudent(1, "大宮 智", "オオミヤ サトシ"));
+            return List.of();
+        });
+
+        // 実行
+        sut.rebuild();
+
+        // 検証
+        assertThat(sut.findStudentIdCandidates("大宮")).hasValue(Set.of(1));
+        assertThat(sut.findStudentIdCandidates("大野")).hasValue(Set.of());
+        assertThat(sut.findStudentIdCandidates("相葉")).hasValue(Set.of(2));
+    }
+
+    private Student createStudent(Integer id, String name, String kanaName) {
+        Student student = new Student();
+        student.setId(id);
+        student.setName(name);
+        student.setKanaName(kanaName);
+        return student;
+    }
+
+    private StudentCourse createStudentCourse(Integer id, String courseName) {
+        StudentCourse studentCourse = new StudentCourse();
+        studentCourse.setId(id);
+        studentCourse.setCourseName(courseName);
+        return studentCourse;
+    }
+}
@@ -1,31 +1,51 @@
 package raisetech.StudentManagement.service;
 
+import org.apache.ibatis.cursor.Cursor;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import raisetech.StudentManagement.controller.converter.StudentConverter;
+import raisetech.StudentManagement.data.ChangeLog;
 import raisetech.StudentManagement.data.CourseStatus;
+import raisetech.StudentManagement.data.CourseStatusType;
 import raisetech.StudentManagement.data.Student;
 import raisetech.StudentManagement.data.StudentCourse;
+import raisetech.StudentManagement.datasource.DataSourceRouting;
 import raisetech.StudentManagement.domein.StudentDetail;
+import raisetech.StudentManagement.domein.StudentDetailPage;
+import raisetech.StudentManagement.domein.StudentFieldSet;
+import raisetech.StudentManagement.domein.StudentStatisticsSummary;
 import raisetech.StudentManagement.repository.StudentRepository;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.when;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.doNothing;
 import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.inOrder;
 
 @ExtendWith(MockitoExtension.class)
 class StudentServiceTest {
@@ -36,25 +56,26 @@ class StudentServiceTest {
     @Mock
     private StudentConverter converter;
 
+    private StudentSearchIndex searchIndex;
+
+    private StudentStatistics statistics;
+
     private StudentService sut;
 
 
     @BeforeEach
     void before(){
-        sut = new StudentService(repository, converter);
+        searchIndex = new StudentSearchIndex(repository, true);
+        statistics = new StudentStatistics(repository, mock(PlatformTransactionManager.class));
+        sut = new StudentService(repository, converter, new StudentDetailCache(100, Duration.ofMinutes(5)), searchIndex,
+                new ParallelQueryExecutor(new SimpleAsyncTaskExecutor(), Duration.ofSeconds(5)), new StudentVersionRegistry(repository),
+                new StudentChangeFeed(repository, Duration.ofMinutes(30), Duration.ofSeconds(10)), statistics);
     }
 
     @Test
-    void 受講生詳細の一覧検索_リポジトリとコンバーターの処理が適切に呼び出せていること(){
+    void 受講生詳細の一覧検索_リポジトリの結合検索が1回だけ呼び出されること(){
         // テストデータの準備
-        List<Student> studentList = new ArrayList<>();
-        List<StudentCourse> studentCourseList = new ArrayList<>();
-        List<CourseStatus> courseStatusList = new ArrayList<>();
-
-        // モックの設定
-        when(repository.searchWithConditions(null)).thenReturn(studentList);
-        when(repository.searchStudentCourseListWithConditions(null, null, null, null)).thenReturn(studentCourseList);
-        when(repository.searchCourseStatusListWithConditions(null)).thenReturn(courseStatusList);
+        List<StudentDetail> studentDetailList = new ArrayList<>();
 
         // 必要な引数を渡す
         String name = null;
@@ -63,41 +84,292 @@ class StudentServiceTest {
         LocalDateTime endDate = null;
         String status = null;
 
+        // モックの設定
+        when(repository.searchStudentDetailsWithConditions(name, courseName, startDate, endDate, null, null, null)).thenReturn(studentDetailList);
+
         // メソッド呼び出し
-        sut.searchStudentList(name, courseName, startDate, endDate, status);
+        List<StudentDetail> actual = sut.searchStudentList(name, courseName, startDate, endDate, status);
 
         // モックの呼び出し確認
-        verify(repository, times(1)).searchWithConditions(null);
-        verify(repository, times(1)).searchStudentCourseListWithConditions(null, null, null, null);
-        verify(repository, times(1)).searchCourseStatusListWithConditions(null);
-        verify(converter, times(1)).convertStudentDetails(studentList, studentCourseList, courseStatusList);
+        assertEquals(studentDetailList, actual);
+        verify(repository, times(1)).searchStudentDetailsWithConditions(null, null, null, null, null, null, null);
+        verify(repository, never()).searchWithConditions(any());
+        verify(repository, never()).searchCourseStatusListWithConditions(any());
+    }
+
+    @Test
+    void 受講生詳細の一覧検索_検索インデックスで絞り込んだIDの候補が結合検索の条件に渡されること(){
+        // 準備
+        Student student1 = new Student();
+        student1.setId(1);
+        student1.setName("大野 智");
+        student1.setKanaName("オオノ サトシ");
+        Student student2 = new Student();
+        student2.setId(2);
+        student2.setName("相葉 雅紀");
+        student2.setKanaName("アイバ マサキ");
+        StudentCourse course1 = new StudentCourse();
+        course1.setId(10);
+        course1.setCourseName("Javaコース");
+        StudentCourse course2 = new StudentCourse();
+        course2.setId(11);
+        course2.setCourseName("AWSコース");
+        when(repository.search()).thenReturn(List.of(student1, student2));
+        when(repository.searchStudentCourseList()).thenReturn(List.of(course1, course2));
+        searchIndex.rebuild();
+
+        // 実行
+        sut.searchStudentList("おおの", "java", null, null, null);
+        sut.searchStudentList("松本", "PHP", null, null, null);
+
+        // 検証（インデックスに候補がない場合は、インデックスに反映されていない行がありうるため絞り込まずにクエリを実行する）
+        verify(repository, times(1)).searchStudentDetailsWithConditions("おおの", "java", null, null, null, List.of(1), List.of(10));
+        verify(repository, times(1)).searchStudentDetailsWithConditions("松本", "PHP", null, null, null, null, null);
+    }
+
+    @Test
+    void 受講生詳細の一覧検索_ステータスの表示名がコースステータスに変換されて結合検索の条件に渡されること(){
+        sut.searchStudentList(null, null, null, null, "本申込");
+
+        verify(repository, times(1)).searchStudentDetailsWithConditions(null, null, null, null, CourseStatusType.CONFIRMED, null, null);
+    }
+
+    @Test
+    void 受講生詳細の一覧検索_該当しないステータスの場合はクエリを実行せず空のリストを返すこと(){
+        List<StudentDetail> actual = sut.searchStudentList(null, null, null, null, "退会");
+
+        assertEquals(0, actual.size());
+        verify(repository, never()).searchStudentDetailsWithConditions(any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void 受講生詳細のページ検索_ページの受講生IDに絞ってコースとステータスを検索し次のカーソルを返すこと() {
+        // 準備（1件多く取得できた場合は次のページが存在する）
+        Student student1 = new Student();
+        student1.setId(11);
+        Student student2 = new Student();
+        student2.setId(12);
+        Student student3 = new Student();
+        student3.setId(13);
+        List<StudentCourse> studentCourseList = new ArrayList<>();
+        List<CourseStatus> courseStatusList = new ArrayList<>();
+
+        when(repository.searchWithConditionsAfter(null, null, null, null, null, 10, 3)).thenReturn(new ArrayList<>(List.of(student1, student2, student3)));
+        when(repository.searchStudentCourseListByStudentIds(List.of(11, 12), null, null, null, null)).thenReturn(studentCourseList);
+        when(repository.searchCourseStatusListByStudentIds(List.of(11, 12), null)).thenReturn(courseStatusList);
+
+        // 実行
+        StudentDetailPage actual = sut.searchStudentPage(null, null, null, null, null, 10, 2);
+
+        // 検証
+        assertEquals(12, actual.getNextCursor());
+        verify(converter, times(1)).convertStudentDetails(List.of(student1, student2), studentCourseList, courseStatusList);
+    }
+
+    @Test
+    void 受講生詳細のページ検索_受講生が存在しない場合はコースとステータスを検索しないこと() {
+        when(repository.searchWithConditionsAfter(null, null, null, null, null, 100, 3)).thenReturn(new ArrayList<>());
+
+        StudentDetailPage actual = sut.searchStudentPage(null, null, null, null, null, 100, 2);
+
+        assertEquals(0, actual.getStudentDetailList().size());
+        assertNull(actual.getNextCursor());
+        verify(repository, never()).searchStudentCourseListByStudentIds(any(), any(), any(), any(), any());
+        verify(repository, never()).searchCourseStatusListByStudentIds(any(), any());
+    }
+
+    @Test
+    void 受講生詳細の項目指定検索_受講生の項目のみの場合はコースとステータスを検索しないこと() {
+        Student student = new Student();
+        student.setId(1);
+        student.setName("大野");
+        StudentFieldSet fields = StudentFieldSet.parse("student.name");
+        when(repository.searchStudentColumnsAfter(List.of("id", "name"), null, null, null, null, null, null, null))
+                .thenReturn(new ArrayList<>(List.of(student)));
+
+        StudentDetailPage actual = sut.searchStudentFields(null, null, null, null, null, null, null, fields);
+
+        assertEquals(1, actual.getStudentDetailList().size());
+        assertEquals(student, actual.getStudentDetailList().get(0).getStudent());
+        assertNull(actual.getNextCursor());
+        verify(repository, never()).searchStudentCourseColumnsByStudentIds(any(), any(), any(), any(), any(), any());
+        verify(repository, never()).searchCourseStatusListByStudentIds(any(), any());
+        verify(converter, never()).convertStudentDetails(any(), any(), any());
+    }
+
+    @Test
+    void 受講生詳細の項目指定検索_コースの項目のみの場合はステータスを検索せず次のカーソルを返すこと() {
+        Student student1 = new Student();
+        student1.setId(11);
+        Student student2 = new Student();
+        student2.setId(12);
+        List<StudentCourse> studentCourseList = new ArrayList<>();
+        StudentFieldSet fields = StudentFieldSet.parse("student.name,studentCourseList.currentStatus");
+        when(repository.searchStudentColumnsAfter(List.of("id", "name"), null, null, null, null, null, 10, 2))
+                .thenReturn(new ArrayList<>(List.of(student1, student2)));
+        when(repository.searchStudentCourseColumnsByStudentIds(List.of("id", "current_status", "student_id"), List.of(11),
+                null, null, null, null)).thenReturn(studentCourseList);
+
+        StudentDetailPage actual = sut.searchStudentFields(null, null, null, null, null, 10, 1, fields);
+
+        assertEquals(11, actual.getNextCursor());
+        verify(converter, times(1)).convertStudentDetails(List.of(student1), studentCourseList, List.of());
+        verify(repository, never()).searchCourseStatusListByStudentIds(any(), any());
+    }
+
+    @Test
+    void 受講生詳細のエクスポート_カーソルで読み込んだ受講生をまとめて組み立てて出力すること() {
+        // 準備
+        Student student1 = new Student();
+        student1.setId(1);
+        Student student2 = new Student();
+        student2.setId(2);
+        StudentDetail detail1 = new StudentDetail(student1, new ArrayList<>());
+        StudentDetail detail2 = new StudentDetail(student2, new ArrayList<>());
+        List<StudentCourse> studentCourseList = new ArrayList<>();
+        List<CourseStatus> courseStatusList = new ArrayList<>();
+
+        Cursor<Student> cursor = mock(Cursor.class);
+        when(cursor.iterator()).thenReturn(List.of(student1, student2).iterator());
+        when(repository.searchStudentCursor()).thenReturn(cursor);
+        when(repository.searchStudentCourseListByStudentIds(List.of(1, 2), null, null, null, null)).thenReturn(studentCourseList);
+        when(repository.searchCourseStatusListByStudentIds(List.of(1, 2), null)).thenReturn(courseStatusList);
+        when(converter.convertStudentDetails(List.of(student1, student2), studentCourseList, courseStatusList)).thenReturn(List.of(detail1, detail2));
+
+        // 実行
+        List<StudentDetail> actual = new ArrayList<>();
+        sut.exportStudentDetails(actual::add);
+
+        // 検証
+        assertEquals(List.of(detail1, detail2), actual);
+        verify(repository, times(1)).searchStudentCourseListByStudentIds(List.of(1, 2), null, null, null, null);
     }
 
     @Test
     void 受講生詳細の検索_リポジトリの処理が適切に呼び出され期待通りの結果を返すこと() {
         // 準備
-        String id = "123";
+        Integer id = 123;
         Student student = new Student();
         student.setId(id);
 
-        when(repository.searchStudent(id)).thenReturn(student);
-        when(repository.searchStudentCourse(id)).thenReturn(new ArrayList<>());
+        when(repository.searchStudentDetailsWithConditions(null, null, null, null, null, List.of(id), null))
+                .thenReturn(List.of(new StudentDetail(student, new ArrayList<>())));
 
         // 実行
-        StudentDetail expected = new StudentDetail(student, new ArrayList<>());
         StudentDetail actual = sut.searchStudent(id);
 
-        // 検証
-        verify(repository, times(1)).searchStudent(id);
-        verify(repository, times(1)).searchStudentCourse(id);
-        assertEquals(expected.getStudent().getId(), actual.getStudent().getId());
+        // 検証（受講生・受講生コース情報・コースステータスを1回のクエリで取得すること）
+        verify(repository, times(1)).searchStudentDetailsWithConditions(null, null, null, null, null, List.of(id), null);
+        verify(repository, never()).searchStudent(id);
+        verify(repository, never()).searchStudentCourse(id);
+        verify(repository, never()).searchCourseStatusByStudentId(id);
+        assertEquals(id, actual.getStudent().getId());
+    }
+
+    @Test
+    void 受講生詳細と一覧のETag_受講生詳細を検索せずに変更履歴の最新の変更連番から組み立てられること() {
+        when(repository.findLatestChangeLogSeqByStudentId(1)).thenReturn(5L);
+        when(repository.findLatestChangeLogSeq()).thenReturn(7L);
+
+        assertEquals("W/\"s1-5\"", sut.getStudentETag(1));
+        assertEquals("W/\"l7\"", sut.getStudentListETag());
+        verify(repository, never()).searchStudentDetailsWithConditions(any(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void 受講生詳細の検索_受講生が存在しない場合はnullを返すこと() {
+        when(repository.searchStudentDetailsWithConditions(null, null, null, null, null, List.of(999), null))
+                .thenReturn(List.of());
+
+        assertNull(sut.searchStudent(999));
+    }
+
+    @Test
+    void 受講生詳細の検索_キャッシュにない場合は読み取り専用のトランザクションでもプライマリで検索されること() {
+        Integer id = 123;
+        Student student = new Student();
+        student.setId(id);
+        List<DataSourceRouting.Route> routes = new ArrayList<>();
+        when(repository.searchStudentDetailsWithConditions(null, null, null, null, null, List.of(id), null))
+                .thenAnswer(invocation -> {
+                    routes.add(DataSourceRouting.currentRoute());
+                    return List.of(new StudentDetail(student, new ArrayList<>()));
+                });
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        try {
+            sut.searchStudent(id);
+            // 検索後は元の振り分け先に戻ること
+            assertEquals(DataSourceRouting.Route.REPLICA, DataSourceRouting.currentRoute());
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        }
+
+        assertEquals(List.of(DataSourceRouting.Route.PRIMARY), routes);
+    }
+
+    @Test
+    void 受講生詳細の一覧検索_レプリカがETagの時点の変更を反映済みの場合はレプリカで検索されること() {
+        when(repository.findLatestChangeLogSeq()).thenReturn(7L);
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        try {
+            DataSourceRouting.Route route = sut.searchStudentListAsOf("W/\"l7\"", DataSourceRouting::currentRoute);
+
+            assertEquals(DataSourceRouting.Route.REPLICA, route);
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        }
+    }
+
+    @Test
+    void 受講生詳細の一覧検索_レプリカがETagの時点の変更を反映していない場合はプライマリで検索されること() {
+        // プライマリのETagは変更連番8、レプリカは変更連番7までしか反映していない
+        when(repository.findLatestChangeLogSeq()).thenReturn(7L);
+
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(true);
+        try {
+            DataSourceRouting.Route route = sut.searchStudentListAsOf("W/\"l8\"", DataSourceRouting::currentRoute);
+
+            assertEquals(DataSourceRouting.Route.PRIMARY, route);
+        } finally {
+            TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        }
+    }
+
+    @Test
+    void 受講生詳細の検索_2回目以降はキャッシュから取得され受講生の更新でキャッシュが破棄されること() {
+        // 準備
+        Integer id = 123;
+        Student student = new Student();
+        student.setId(id);
+        when(repository.searchStudentDetailsWithConditions(null, null, null, null, null, List.of(id), null))
+                .thenAnswer(invocation -> List.of(new StudentDetail(student, new ArrayList<>())));
+
+        // 実行（2回目はキャッシュから取得される）
+        StudentDetail first = sut.searchStudent(id);
+        first.getStudent().setName("変更された名前");
+        StudentDetail second = sut.searchStudent(id);
+
+        // 検証（呼び出し元での変更はキャッシュに影響しないこと）
+        verify(repository, times(1)).searchStudentDetailsWithConditions(null, null, null, null, null, List.of(id), null);
+        assertNull(second.getStudent().getName());
+
+        // 更新後は再度リポジトリから読み込まれること
+        Student updated = new Student();
+        updated.setId(id);
+        updated.setName("更新後の名前");
+        sut.updateStudent(new StudentDetail(updated, new ArrayList<>()));
+        sut.searchStudent(id);
+        // 初回の読み込み・更新前の検索・更新後の読み込みの3回
+        verify(repository, times(3)).searchStudentDetailsWithConditions(null, null, null, null, null, List.of(id), null);
     }
 
     @Test
     void 受講生登録処理_リポジトリの処理が適切に呼び出され期待通りの結果を返すこと() {
         // 準備
         Student mockStudent = new Student();
-        mockStudent.setId("1"); // IDをStringとして設定
+        mockStudent.setId(1);
 
         StudentCourse course1 = new StudentCourse();
         StudentCourse course2 = new StudentCourse();
@@ -106,7 +378,7 @@ class StudentServiceTest {
         StudentDetail mockStudentDetail = new StudentDetail(mockStudent, courseList);
 
         doNothing().when(repository).registerStudent(mockStudent);
-        doNothing().when(repository).registerStudentCourse(any(StudentCourse.class));
+        doNothing().when(repository).registerStudentCourseList(courseList);
 
         // initStudentsCourse と同じロジックを適用して期待値を準備
         LocalDateTime now = LocalDateTime.now();
@@ -124,8 +396,27 @@ class StudentServiceTest {
         assertEquals(mockStudentDetail, result);
 
         // リポジトリの呼び出しを検証
+        // コース数にかかわらず受講生コース情報と初期ステータスはそれぞれ1回でまとめて登録されること
         verify(repository, times(1)).registerStudent(mockStudent);
-        verify(repository, times(2)).registerStudentCourse(any(StudentCourse.class));
+        verify(repository, times(1)).registerStudentCourseList(courseList);
+        verify(repository, never()).registerStudentCourse(any(StudentCourse.class));
+        ArgumentCaptor<List<CourseStatus>> captor = ArgumentCaptor.forClass(List.class);
+        verify(repository, times(1)).registerCourseStatusList(captor.capture());
+        assertEquals(2, captor.getValue().size());
+        captor.getValue().forEach(initialStatus -> assertEquals(CourseStatusType.PROVISIONAL, initialStatus.getStatus()));
+        verify(repository, never()).registerCourseStatus(any(CourseStatus.class));
+        verify(repository, times(1)).refreshCurrentCourseStatusList(any());
+
+        // 受講生・受講生コース情報・初期ステータスの登録が1回でまとめて変更履歴に記録されること
+        ArgumentCaptor<List<ChangeLog>> changeLogCaptor = ArgumentCaptor.forClass(List.class);
+        verify(repository, times(1)).registerChangeLogList(changeLogCaptor.capture());
+        assertEquals(List.of(ChangeLog.EntityType.STUDENT, ChangeLog.EntityType.STUDENT_COURSE, ChangeLog.EntityType.STUDENT_COURSE,
+                        ChangeLog.EntityType.COURSE_STATUS, ChangeLog.EntityType.COURSE_STATUS),
+                changeLogCaptor.getValue().stream().map(ChangeLog::getEntityType).toList());
+        changeLogCaptor.getValue().forEach(changeLog -> {
+            assertEquals(1, changeLog.getStudentId());
+            assertEquals(ChangeLog.Operation.INSERT, changeLog.getOperation());
+        });
 
         // 各 StudentCourse の初期化処理を検証
         courseList.forEach(course -> {
@@ -137,7 +428,7 @@ class StudentServiceTest {
 
     @Test
     void 受講生詳細の登録_初期化処理が行われること() {
-        String id = "123";
+        Integer id = 123;
         Student student = new Student();
         student.setId(id);
         StudentCourse studentCourse = new StudentCourse();
@@ -151,106 +442,429 @@ class StudentServiceTest {
 
 
     @Test
-    void 受講生情報更新処理_リポジトリの処理が適切に呼び出されること() {
+    void 受講生情報更新処理_変更された列と行のみがまとめて更新されること() {
         // 準備
-        Student mockStudent = new Student();
-        StudentCourse course1 = new StudentCourse();
-        StudentCourse course2 = new StudentCourse();
-        List<StudentCourse> courseList = List.of(course1, course2);
+        StudentDetail stored = storedStudentDetail();
+        when(repository.searchStudentDetailsWithConditions(null, null, null, null, null, List.of(1), null))
+                .thenReturn(List.of(stored));
+        StudentDetail requested = storedStudentDetail();
+        requested.getStudent().setRemark("変更後の備考");
+        StudentCourse changedCourse = requested.getStudentCourseList().get(1);
+        changedCourse.setCourseName("AWSコース");
+        CourseStatus changedStatus = requested.getStudentCourseList().get(0).getCourseStatusList().get(0);
+        changedStatus.setStatus(CourseStatusType.CONFIRMED);
 
-        StudentDetail mockStudentDetail = new StudentDetail(mockStudent, courseList);
+        // 実行
+        sut.updateStudent(requested);
+
+        // 検証
+        // 受講生コース情報をロックしてから保存されている受講生詳細を読み込むこと
+        InOrder lockThenRead = inOrder(repository);
+        lockThenRead.verify(repository).lockStudentCourseListByStudentId(1);
+        lockThenRead.verify(repository).searchStudentDetailsWithConditions(null, null, null, null, null, List.of(1), null);
+        verify(repository, times(1)).updateStudentColumns(requested.getStudent(), Set.of("remark"));
+        verify(repository, times(1)).updateStudentCourseNameList(List.of(changedCourse));
+        verify(repository, times(1)).updateCourseStatusList(List.of(changedStatus));
+        verify(repository, never()).updateStudent(any());
+        verify(repository, never()).updateStudentCourse(any());
+        verify(repository, never()).updateCourseStatus(any());
+
+        // 変更された受講生・受講生コース情報・コースステータスのみが変更履歴に記録されること
+        ArgumentCaptor<List<ChangeLog>> captor = ArgumentCaptor.forClass(List.class);
+        verify(repository, times(1)).registerChangeLogList(captor.capture());
+        assertEquals(List.of("STUDENT:1", "STUDENT_COURSE:11", "COURSE_STATUS:100"), captor.getValue().stream()
+                .map(changeLog -> changeLog.getEntityType() + ":" + changeLog.getEntityId())
+                .toList());
+    }
 
-        doNothing().when(repository).updateStudent(mockStudent);
-        doNothing().when(repository).updateStudentCourse(any(StudentCourse.class));
+    @Test
+    void 受講生情報更新処理_検索インデックスでの絞り込みが無効の場合はインデックスに反映しないこと() {
+        // 準備
+        StudentSearchIndex disabledIndex = mock(StudentSearchIndex.class);
+        sut = new StudentService(repository, converter, new StudentDetailCache(100, Duration.ofMinutes(5)), disabledIndex,
+                new ParallelQueryExecutor(new SimpleAsyncTaskExecutor(), Duration.ofSeconds(5)), new StudentVersionRegistry(repository),
+                new StudentChangeFeed(repository, Duration.ofMinutes(30), Duration.ofSeconds(10)), statistics);
+        when(repository.searchStudentDetailsWithConditions(null, null, null, null, null, List.of(1), null))
+                .thenReturn(List.of(storedStudentDetail()));
+        StudentDetail requested = storedStudentDetail();
+        requested.getStudent().setName("変更後の名前");
 
         // 実行
-        sut.updateStudent(mockStudentDetail);
+        sut.updateStudent(requested);
 
         // 検証
-        // `updateStudent` が一度呼び出されたことを確認
-        verify(repository, times(1)).updateStudent(mockStudent);
+        verify(repository, times(1)).updateStudentColumns(requested.getStudent(), Set.of("name"));
+        verify(disabledIndex, never()).indexStudent(any());
+        verify(disabledIndex, never()).indexStudentCourse(any());
+    }
 
-        // `updateStudentCourse` が各コースごとに呼び出されたことを確認
-        verify(repository, times(2)).updateStudentCourse(any(StudentCourse.class));
-        verify(repository, times(1)).updateStudentCourse(course1);
-        verify(repository, times(1)).updateStudentCourse(course2);
+    @Test
+    void 受講生情報更新処理_備考のみ変更した場合は受講生の備考のみが更新されること() {
+        // 準備
+        when(repository.searchStudentDetailsWithConditions(null, null, null, null, null, List.of(1), null))
+                .thenReturn(List.of(storedStudentDetail()));
+        StudentDetail requested = storedStudentDetail();
+        requested.getStudent().setRemark("変更後の備考");
+
+        // 実行
+        sut.updateStudent(requested);
+
+        // 検証
+        verify(repository, times(1)).updateStudentColumns(requested.getStudent(), Set.of("remark"));
+        verify(repository, never()).updateStudentCourseNameList(any());
+        verify(repository, never()).updateCourseStatusList(any());
+        verify(repository, never()).refreshCurrentCourseStatusList(any());
+    }
+
+    @Test
+    void 受講生情報更新処理_コース名と最新ステータスの変更が受講状況の統計に反映されること() {
+        // 準備
+        StudentDetail stored = storedStudentDetail();
+        stored.getStudentCourseList().get(0).setCurrentStatus(CourseStatusType.PROVISIONAL);
+        when(repository.searchStudentDetailsWithConditions(null, null, null, null, null, List.of(1), null))
+                .thenReturn(List.of(stored));
+        statistics.recordEnrollment("Javaコース", null, null, CourseStatusType.PROVISIONAL);
+        StudentDetail requested = storedStudentDetail();
+        requested.getStudentCourseList().get(0).setCourseName("AWSコース");
+        requested.getStudentCourseList().get(0).getCourseStatusList().get(0).setStatus(CourseStatusType.CONFIRMED);
+
+        // 実行
+        sut.updateStudent(requested);
+
+        // 検証
+        StudentStatisticsSummary summary = sut.getStudentStatistics();
+        assertEquals(Map.of("AWSコース", 1L), summary.getCourseCounts());
+        assertEquals(0L, summary.getStatusCounts().get("仮申込"));
+        assertEquals(1L, summary.getStatusCounts().get("本申込"));
+    }
+
+    @Test
+    void 受講生情報更新処理_変更がない場合は何も更新されないこと() {
+        // 準備
+        when(repository.searchStudentDetailsWithConditions(null, null, null, null, null, List.of(1), null))
+                .thenReturn(List.of(storedStudentDetail()));
+
+        // 実行
+        sut.updateStudent(storedStudentDetail());
+
+        // 検証
+        verify(repository, never()).updateStudentColumns(any(), any());
+        verify(repository, never()).updateStudentCourseNameList(any());
+        verify(repository, never()).updateCourseStatusList(any());
+        verify(repository, never()).registerChangeLogList(any());
+    }
+
+    @Test
+    void 受講生情報更新処理_コースステータスを更新したコースの最新ステータスが再計算されること() {
+        // 準備
+        when(repository.searchStudentDetailsWithConditions(null, null, null, null, null, List.of(1), null))
+                .thenReturn(List.of(storedStudentDetail()));
+        StudentDetail requested = storedStudentDetail();
+        requested.getStudentCourseList().get(0).getCourseStatusList().get(0).setStatus(CourseStatusType.CONFIRMED);
+
+        // 実行
+        sut.updateStudent(requested);
+
+        // 検証
+        verify(repository, times(1)).refreshCurrentCourseStatusList(List.of(10));
+    }
+
+    @Test
+    void 受講生情報更新処理_検索インデックスには保存されている受講生コース情報に変更を反映したもののみが登録されること() {
+        // 準備
+        searchIndex.rebuild();
+        when(repository.searchStudentDetailsWithConditions(null, null, null, null, null, List.of(1), null))
+                .thenReturn(List.of(storedStudentDetail()));
+        StudentDetail requested = storedStudentDetail();
+        requested.getStudentCourseList().get(1).setCourseName("AWSコース");
+        StudentCourse otherStudentCourse = new StudentCourse();
+        otherStudentCourse.setId(99);
+        otherStudentCourse.setStudentId(2);
+        otherStudentCourse.setCourseName("PHPコース");
+        requested.getStudentCourseList().add(otherStudentCourse);
+
+        // 実行
+        sut.updateStudent(requested);
+        sut.searchStudentList(null, "AWS", null, null, null);
+        sut.searchStudentList(null, "PHP", null, null, null);
+
+        // 検証（他の受講生の受講生コース情報はインデックスに登録されず、候補がないため絞り込まれないこと）
+        verify(repository, times(1)).searchStudentDetailsWithConditions(null, "AWS", null, null, null, null, List.of(11));
+        verify(repository, times(1)).searchStudentDetailsWithConditions(null, "PHP", null, null, null, null, null);
+    }
+
+    @Test
+    void 受講生情報更新処理_受講生のIDが指定されていない場合は例外が発生し何も更新されないこと() {
+        StudentDetail requested = storedStudentDetail();
+        requested.getStudent().setId(null);
+
+        assertThrows(IllegalArgumentException.class, () -> sut.updateStudent(requested));
+        verify(repository, never()).searchStudentDetailsWithConditions(any(), any(), any(), any(), any(), any(), any());
+        verify(repository, never()).updateStudentColumns(any(), any());
+    }
+
+    /**
+     * 受講生ID 1、受講生コースID 10（仮申込）と 11（本申込）の受講生詳細を作成します。
+     */
+    private StudentDetail storedStudentDetail() {
+        Student student = new Student();
+        student.setId(1);
+        student.setName("大野");
+        student.setRemark("備考");
+        StudentCourse course1 = new StudentCourse();
+        course1.setId(10);
+        course1.setStudentId(1);
+        course1.setCourseName("Javaコース");
+        course1.setCourseStatusList(new ArrayList<>(List.of(courseStatus(100, 10, CourseStatusType.PROVISIONAL))));
+        StudentCourse course2 = new StudentCourse();
+        course2.setId(11);
+        course2.setStudentId(1);
+        course2.setCourseName("デザインコース");
+        course2.setCourseStatusList(new ArrayList<>(List.of(courseStatus(101, 11, CourseStatusType.CONFIRMED))));
+        return new StudentDetail(student, new ArrayList<>(List.of(course1, course2)));
+    }
+
+    private CourseStatus courseStatus(Integer id, Integer studentsCoursesId, CourseStatusType status) {
+        CourseStatus courseStatus = new CourseStatus();
+        courseStatus.setId(id);
+        courseStatus.setStudentsCoursesId(studentsCoursesId);
+        courseStatus.setStatus(status);
+        return courseStatus;
+    }
+
+    @Test
+    void コースステータスの登録_登録したステータスが最新ステータスに反映されること() {
+        // ステータスがまだない受講生コース情報
+        when(repository.findCurrentCourseStatusByCourseIdForUpdate(10)).thenReturn(courseStatus(null, 10, null));
+        CourseStatus courseStatus = new CourseStatus();
+        courseStatus.setStudentsCoursesId(10);
+        courseStatus.setStatus(CourseStatusType.CONFIRMED);
+
+        sut.registerCourseStatus(courseStatus);
+
+        verify(repository, times(1)).registerCourseStatus(courseStatus);
+        verify(repository, times(1)).updateCurrentCourseStatus(courseStatus);
+    }
+
+    @Test
+    void コースステータスの登録_受講生コース情報が存在しない場合は登録も変更履歴の記録もせずに例外が発生すること() {
+        when(repository.findCurrentCourseStatusByCourseIdForUpdate(999)).thenReturn(null);
+        CourseStatus courseStatus = new CourseStatus();
+        courseStatus.setStudentsCoursesId(999);
+        courseStatus.setStatus(CourseStatusType.CONFIRMED);
+
+        assertThrows(IllegalArgumentException.class, () -> sut.registerCourseStatus(courseStatus));
+
+        verify(repository, never()).registerCourseStatus(any(CourseStatus.class));
+        verify(repository, never()).registerChangeLogList(any());
+    }
+
+    @Test
+    void コースステータスの登録_行ロックを取得して読み込んだ直前の最新ステータスから受講状況の統計が遷移すること() {
+        CourseStatus previous = courseStatus(100, 10, CourseStatusType.PROVISIONAL);
+        when(repository.findCurrentCourseStatusByCourseIdForUpdate(10)).thenReturn(previous);
+        statistics.recordEnrollment("Javaコース", null, null, CourseStatusType.PROVISIONAL);
+        CourseStatus courseStatus = new CourseStatus();
+        courseStatus.setStudentsCoursesId(10);
+        courseStatus.setStatus(CourseStatusType.CONFIRMED);
+
+        sut.registerCourseStatus(courseStatus);
+
+        InOrder inOrder = inOrder(repository);
+        inOrder.verify(repository).findCurrentCourseStatusByCourseIdForUpdate(10);
+        inOrder.verify(repository).registerCourseStatus(courseStatus);
+        verify(repository, never()).findCurrentCourseStatusByCourseId(10);
+        assertEquals(0L, sut.getStudentStatistics().getStatusCounts().get("仮申込"));
+        assertEquals(1L, sut.getStudentStatistics().getStatusCounts().get("本申込"));
     }
 
     @Test
     void 新規コース登録時の初期ステータスが仮申込であることを確認できること() {
         // 準備
         StudentCourse course = new StudentCourse();
-        sut.initStudentsCourse(course, "123");
+        sut.initStudentsCourse(course, 123);
 
         // 初期ステータスの登録処理
         CourseStatus initialStatus = new CourseStatus();
         initialStatus.setStudentsCoursesId(course.getId());
-        initialStatus.setStatus("仮申込");
+        initialStatus.setStatus(CourseStatusType.PROVISIONAL);
         course.setCourseStatusList(List.of(initialStatus));
 
         // 検証
-        assertEquals("123", course.getStudentId());
+        assertEquals(123, course.getStudentId());
         assertNotNull(course.getCourseStartAt());
         assertNotNull(course.getCourseEndAt());
         assertEquals(1, course.getCourseStatusList().size());
-        assertEquals("仮申込", course.getCourseStatusList().get(0).getStatus());
+        assertEquals(CourseStatusType.PROVISIONAL, course.getCourseStatusList().get(0).getStatus());
     }
 
     @Test
     @Transactional
     public void 指定したコースIDに対して新しいステータスを正しく更新できること() {
         //準備
-        String courseId = "1"; // テストデータのコースID
-        String newStatus = "本申込";
+        Integer courseId = 1; // テストデータのコースID
+        CourseStatusType newStatus = CourseStatusType.CONFIRMED;
 
         CourseStatus existingStatus = new CourseStatus();
         existingStatus.setStudentsCoursesId(courseId);
-        existingStatus.setStatus("仮申込");
+        existingStatus.setStatus(CourseStatusType.PROVISIONAL);
 
-        when(repository.findLatestCourseStatusByCourseId(courseId)).thenReturn(existingStatus);
+        when(repository.findCurrentCourseStatusByCourseId(courseId)).thenReturn(existingStatus);
+        when(repository.transitionCurrentCourseStatus(existingStatus, newStatus)).thenReturn(1);
 
         // 実行
         sut.updateCourseStatus(courseId, newStatus);
 
         //検証
         assertEquals(newStatus, existingStatus.getStatus());
+        verify(repository, times(1)).transitionCurrentCourseStatus(existingStatus, newStatus);
         verify(repository, times(1)).updateCourseStatus(existingStatus);
+        verify(repository, never()).updateCurrentCourseStatus(any());
+        verify(repository, never()).findLatestCourseStatusByCourseId(any());
+    }
+
+    @Test
+    void コースステータスの更新_同時に更新されて条件付き更新が0件の場合は競合として失敗すること() {
+        // 準備
+        Integer courseId = 123;
+        CourseStatus status = new CourseStatus();
+        status.setStudentsCoursesId(courseId);
+        status.setStatus(CourseStatusType.PROVISIONAL);
+
+        when(repository.findCurrentCourseStatusByCourseId(courseId)).thenReturn(status);
+        when(repository.transitionCurrentCourseStatus(status, CourseStatusType.CONFIRMED)).thenReturn(0);
+
+        // 実行、検証
+        assertThrows(OptimisticLockingFailureException.class, () -> sut.updateCourseStatus(courseId, CourseStatusType.CONFIRMED));
+        assertEquals(CourseStatusType.PROVISIONAL, status.getStatus());
+        verify(repository, never()).updateCourseStatus(any());
+    }
+
+    @Test
+    void コースステータスの更新_受講生詳細と一覧のETagのもとになる受講生の変更履歴が記録されること() {
+        // 準備
+        Integer courseId = 123;
+        CourseStatus status = new CourseStatus();
+        status.setStudentsCoursesId(courseId);
+        status.setStatus(CourseStatusType.PROVISIONAL);
+
+        when(repository.findCurrentCourseStatusByCourseId(courseId)).thenReturn(status);
+        when(repository.transitionCurrentCourseStatus(status, CourseStatusType.CONFIRMED)).thenReturn(1);
+        when(repository.searchStudentIdByStudentCourseId(courseId)).thenReturn(1);
+
+        // 実行
+        sut.updateCourseStatus(courseId, CourseStatusType.CONFIRMED);
+
+        // 検証
+        ArgumentCaptor<List<ChangeLog>> captor = ArgumentCaptor.forClass(List.class);
+        verify(repository, times(1)).registerChangeLogList(captor.capture());
+        assertEquals(1, captor.getValue().get(0).getStudentId());
+        assertEquals(ChangeLog.EntityType.COURSE_STATUS, captor.getValue().get(0).getEntityType());
+        assertEquals(ChangeLog.Operation.UPDATE, captor.getValue().get(0).getOperation());
+    }
+
+    @Test
+    void コースステータスの更新_受講生コース情報を持つ受講生の受講生詳細のみキャッシュから破棄されること() {
+        // 準備
+        Integer courseId = 123;
+        CourseStatus status = new CourseStatus();
+        status.setStudentsCoursesId(courseId);
+        status.setStatus(CourseStatusType.PROVISIONAL);
+        when(repository.findCurrentCourseStatusByCourseId(courseId)).thenReturn(status);
+        when(repository.transitionCurrentCourseStatus(status, CourseStatusType.CONFIRMED)).thenReturn(1);
+        when(repository.searchStudentIdByStudentCourseId(courseId)).thenReturn(1);
+        for (Integer id : List.of(1, 2)) {
+            Student student = new Student();
+            student.setId(id);
+            when(repository.searchStudentDetailsWithConditions(null, null, null, null, null, List.of(id), null))
+                    .thenAnswer(invocation -> List.of(new StudentDetail(student, new ArrayList<>())));
+            sut.searchStudent(id);
+        }
+
+        // 実行
+        sut.updateCourseStatus(courseId, CourseStatusType.CONFIRMED);
+        sut.searchStudent(1);
+        sut.searchStudent(2);
+
+        // 検証
+        verify(repository, times(2)).searchStudentDetailsWithConditions(null, null, null, null, null, List.of(1), null);
+        verify(repository, times(1)).searchStudentDetailsWithConditions(null, null, null, null, null, List.of(2), null);
+    }
+
+    @Test
+    void コースステータスの一括更新_最新ステータスと最新のコースステータスがまとめて更新されること() {
+        List<StudentCourse> targetList = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            StudentCourse studentCourse = new StudentCourse();
+            studentCourse.setId(10 + i);
+            studentCourse.setStudentId(i);
+            targetList.add(studentCourse);
+        }
+        when(repository.searchStudentCourseListByCurrentStatusForUpdate(CourseStatusType.CONFIRMED)).thenReturn(targetList);
+        when(repository.transitionAllCurrentCourseStatuses(CourseStatusType.CONFIRMED, CourseStatusType.IN_PROGRESS)).thenReturn(3);
+        int actual = sut.transitionCourseStatuses(CourseStatusType.CONFIRMED, CourseStatusType.IN_PROGRESS);
+
+        assertEquals(3, actual);
+        verify(repository, times(1)).transitionAllLatestCourseStatuses(CourseStatusType.CONFIRMED, CourseStatusType.IN_PROGRESS);
+        ArgumentCaptor<List<ChangeLog>> captor = ArgumentCaptor.forClass(List.class);
+        verify(repository, times(1)).registerChangeLogList(captor.capture());
+        assertEquals(List.of(11, 12, 13), captor.getValue().stream().map(ChangeLog::getEntityId).toList());
+        assertEquals(3L, sut.getStudentStatistics().getStatusCounts().get("受講中"));
+    }
+
+    @Test
+    void コースステータスの一括更新_無効なステータス遷移の場合は更新しないこと() {
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> sut.transitionCourseStatuses(CourseStatusType.PROVISIONAL, CourseStatusType.COMPLETED));
+
+        assertEquals("無効なステータス遷移：仮申込->受講終了", exception.getMessage());
+        verify(repository, never()).transitionAllCurrentCourseStatuses(any(), any());
+    }
+
+    @Test
+    void コースステータスの一括更新_対象のコースがない場合は更新も変更履歴の記録もしないこと() {
+        int actual = sut.transitionCourseStatuses(CourseStatusType.CONFIRMED, CourseStatusType.IN_PROGRESS);
+
+        assertEquals(0, actual);
+        verify(repository, never()).transitionAllCurrentCourseStatuses(any(), any());
+        verify(repository, never()).registerChangeLogList(any());
     }
 
     @Test
     void ステータス更新の確認_正しい順序で更新されていること() {
         // 準備
-        String courseId = "123";
+        Integer courseId = 123;
         CourseStatus status = new CourseStatus();
         status.setStudentsCoursesId(courseId);
-        status.setStatus("仮申込");
+        status.setStatus(CourseStatusType.PROVISIONAL);
 
-        when(repository.findLatestCourseStatusByCourseId(courseId)).thenReturn(status);
+        when(repository.findCurrentCourseStatusByCourseId(courseId)).thenReturn(status);
+        when(repository.transitionCurrentCourseStatus(any(), any())).thenReturn(1);
 
         // 実行、検証
-        sut.updateCourseStatus(courseId, "本申込");
-        assertEquals("本申込", status.getStatus());
+        sut.updateCourseStatus(courseId, CourseStatusType.CONFIRMED);
+        assertEquals(CourseStatusType.CONFIRMED, status.getStatus());
 
-        sut.updateCourseStatus(courseId, "受講中");
-        assertEquals("受講中", status.getStatus());
+        sut.updateCourseStatus(courseId, CourseStatusType.IN_PROGRESS);
+        assertEquals(CourseStatusType.IN_PROGRESS, status.getStatus());
 
-        sut.updateCourseStatus(courseId, "受講終了");
-        assertEquals("受講終了", status.getStatus());
+        sut.updateCourseStatus(courseId, CourseStatusType.COMPLETED);
+        assertEquals(CourseStatusType.COMPLETED, status.getStatus());
     }
 
     @Test
     void 不正なステータスを指定した場合の例外処理() {
         // 準備
-        String courseId = "123";
+        Integer courseId = 123;
         CourseStatus status = new CourseStatus();
         status.setStudentsCoursesId(courseId);
-        status.setStatus("仮申込");
+        status.setStatus(CourseStatusType.PROVISIONAL);
 
-        when(repository.findLatestCourseStatusByCourseId(courseId)).thenReturn(status);
+        when(repository.findCurrentCourseStatusByCourseId(courseId)).thenReturn(status);
 
         // 実行、検証
         IllegalStateException exception = assertThrows(IllegalStateException.class, () -> {
-            sut.updateCourseStatus(courseId, "受講終了");
+            sut.updateCourseStatus(courseId, CourseStatusType.COMPLETED);
         });
 
         assertEquals("無効なステータス遷移：仮申込->受講終了", exception.getMessage());
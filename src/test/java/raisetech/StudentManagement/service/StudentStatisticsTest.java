@@ -0,0 +1,159 @@
+package raisetech.StudentManagement.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import raisetech.StudentManagement.data.CourseStatusType;
+import raisetech.StudentManagement.domein.StudentCourseCount;
+import raisetech.StudentManagement.domein.StudentStatisticsSummary;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import raisetech.StudentManagement.repository.StudentRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StudentStatisticsTest {
+
+    @Mock
+    private StudentRepository repository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private StudentStatistics sut;
+
+    @BeforeEach
+    void before() {
+        sut = new StudentStatistics(repository, transactionManager);
+    }
+
+    @Test
+    void データベースの集計から再構築され受講期間の各月に件数が加算されること() {
+        when(repository.countStudentCourses()).thenReturn(List.of(
+                count("Javaコース", CourseStatusType.PROVISIONAL, 2024, 11, 2025, 1, 2),
+                count("AWSコース", CourseStatusType.CONFIRMED, 2024, 12, 2024, 12, 1),
+                count("Javaコース", null, 2025, 1, 2025, 2, 1)));
+
+        sut.rebuild();
+
+        StudentStatisticsSummary summary = sut.summary();
+        assertThat(summary.getCourseCounts()).containsExactly(Map.entry("AWSコース", 1L), Map.entry("Javaコース", 3L));
+        assertThat(summary.getStatusCounts()).containsExactly(Map.entry("仮申込", 2L), Map.entry("本申込", 1L),
+                Map.entry("受講中", 0L), Map.entry("受講終了", 0L));
+        assertThat(summary.getMonthlyActiveCounts()).containsExactly(Map.entry("2024-11", 2L), Map.entry("2024-12", 3L),
+                Map.entry("2025-01", 3L), Map.entry("2025-02", 1L));
+    }
+
+    @Test
+    void 登録とコース名の変更とステータスの遷移が件数に反映されること() {
+        sut.recordEnrollment("Javaコース", LocalDateTime.of(2024, 4, 1, 0, 0), LocalDateTime.of(2024, 5, 31, 0, 0),
+                CourseStatusType.PROVISIONAL);
+        sut.recordEnrollment("Javaコース", LocalDateTime.of(2024, 5, 1, 0, 0), LocalDateTime.of(2024, 5, 31, 0, 0),
+                CourseStatusType.PROVISIONAL);
+        sut.recordCourseRename("Javaコース", "AWSコース");
+        sut.recordStatusTransition(CourseStatusType.PROVISIONAL, CourseStatusType.CONFIRMED, 2);
+
+        StudentStatisticsSummary summary = sut.summary();
+        assertThat(summary.getCourseCounts()).containsExactly(Map.entry("AWSコース", 1L), Map.entry("Javaコース", 1L));
+        assertThat(summary.getStatusCounts()).containsEntry("仮申込", 0L).containsEntry("本申込", 2L);
+        assertThat(summary.getMonthlyActiveCounts()).containsExactly(Map.entry("2024-04", 1L), Map.entry("2024-05", 2L));
+    }
+
+    @Test
+    void 再構築すると記録した件数は集計の値に置き換えられること() {
+        sut.recordEnrollment("Javaコース", null, null, CourseStatusType.PROVISIONAL);
+        when(repository.countStudentCourses()).thenReturn(List.of());
+
+        sut.rebuild();
+
+        assertThat(sut.summary().getCourseCounts()).isEmpty();
+        assertThat(sut.summary().getStatusCounts()).containsEntry("仮申込", 0L);
+    }
+
+    @Test
+    void コミット中の変更の反映を待ってから集計のスナップショットが確定され集計に含まれた変更が二重に加算されないこと() throws Exception {
+        // 集計はコミット済みの1件を含む
+        when(repository.countStudentCourses()).thenReturn(List.of(
+                count("Javaコース", CourseStatusType.PROVISIONAL, 2024, 4, 2024, 4, 1)));
+        CompletableFuture<Void> rebuilt;
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            sut.recordEnrollment("Javaコース", null, null, CourseStatusType.PROVISIONAL);
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            synchronizations.forEach(synchronization -> synchronization.beforeCommit(false));
+
+            // コミットから件数の反映までの間は、再構築が待たされること
+            rebuilt = CompletableFuture.runAsync(sut::rebuild);
+            Thread.sleep(200);
+            assertThat(rebuilt).isNotDone();
+
+            synchronizations.forEach(TransactionSynchronization::afterCommit);
+            synchronizations.forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        rebuilt.get(5, TimeUnit.SECONDS);
+
+        assertThat(sut.summary().getCourseCounts()).containsExactly(Map.entry("Javaコース", 1L));
+        assertThat(sut.summary().getStatusCounts()).containsEntry("仮申込", 1L);
+    }
+
+    @Test
+    void 集計中にコミットされた変更は再構築後の件数にも反映され集計は変更のコミットを待たせないこと() {
+        // 集計中に別のトランザクションがコミットした変更は、確定済みのスナップショットの集計には含まれない
+        when(repository.countStudentCourses()).thenAnswer(invocation -> {
+            CompletableFuture.runAsync(() -> sut.recordStatusTransition(
+                    CourseStatusType.PROVISIONAL, CourseStatusType.CONFIRMED, 1)).get(5, TimeUnit.SECONDS);
+            return List.of(count("Javaコース", CourseStatusType.PROVISIONAL, 2024, 4, 2024, 4, 2));
+        });
+
+        sut.rebuild();
+
+        assertThat(sut.summary().getCourseCounts()).containsExactly(Map.entry("Javaコース", 2L));
+        assertThat(sut.summary().getStatusCounts()).containsEntry("仮申込", 1L).containsEntry("本申込", 1L);
+
+        // 再構築後の変更は保持されず、件数にのみ反映されること
+        sut.recordStatusTransition(CourseStatusType.PROVISIONAL, CourseStatusType.CONFIRMED, 1);
+        assertThat(sut.summary().getStatusCounts()).containsEntry("仮申込", 0L).containsEntry("本申込", 2L);
+    }
+
+    @Test
+    void ロールバックされた変更は件数に反映されず再構築も待たされないこと() throws Exception {
+        when(repository.countStudentCourses()).thenReturn(List.of());
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            sut.recordEnrollment("Javaコース", null, null, CourseStatusType.PROVISIONAL);
+            TransactionSynchronizationManager.getSynchronizations().forEach(synchronization ->
+                    synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        CompletableFuture.runAsync(sut::rebuild).get(5, TimeUnit.SECONDS);
+        assertThat(sut.summary().getCourseCounts()).isEmpty();
+    }
+
+    private StudentCourseCount count(String courseName, CourseStatusType currentStatus,
+                                     int startYear, int startMonth, int endYear, int endMonth, long courseCount) {
+        StudentCourseCount count = new StudentCourseCount();
+        count.setCourseName(courseName);
+        count.setCurrentStatus(currentStatus);
+        count.setStartYear(startYear);
+        count.setStartMonth(startMonth);
+        count.setEndYear(endYear);
+        count.setEndMonth(endMonth);
+        count.setCourseCount(courseCount);
+        return count;
+    }
+}
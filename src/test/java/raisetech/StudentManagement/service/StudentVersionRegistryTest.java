@@ -0,0 +1,53 @@
+package raisetech.StudentManagement.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import raisetech.StudentManagement.repository.StudentRepository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class StudentVersionRegistryTest {
+
+    @Mock
+    private StudentRepository repository;
+
+    private StudentVersionRegistry sut;
+
+    @BeforeEach
+    void before() {
+        sut = new StudentVersionRegistry(repository);
+    }
+
+    @Test
+    void 受講生詳細のETagが受講生の最新の変更連番から組み立てられること() {
+        when(repository.findLatestChangeLogSeqByStudentId(1)).thenReturn(10L, 12L);
+        when(repository.findLatestChangeLogSeqByStudentId(2)).thenReturn(10L);
+
+        String studentETag = sut.studentETag(1);
+
+        assertThat(studentETag).isEqualTo("W/\"s1-10\"");
+        assertThat(sut.studentETag(2)).isNotEqualTo(studentETag);
+        // 変更履歴が記録されるとETagが変わること
+        assertThat(sut.studentETag(1)).isEqualTo("W/\"s1-12\"");
+    }
+
+    @Test
+    void 受講生一覧のETagが最新の変更連番から組み立てられること() {
+        when(repository.findLatestChangeLogSeq()).thenReturn(0L, 3L);
+
+        assertThat(sut.listETag()).isEqualTo("W/\"l0\"");
+        assertThat(sut.listETag()).isEqualTo("W/\"l3\"");
+    }
+
+    @Test
+    void ETagが弱いETagの形式であり受講生詳細と一覧で異なること() {
+        assertThat(sut.studentETag(1)).startsWith("W/\"").endsWith("\"");
+        assertThat(sut.listETag()).startsWith("W/\"").endsWith("\"");
+        assertThat(sut.studentETag(1)).isNotEqualTo(sut.listETag());
+    }
+}
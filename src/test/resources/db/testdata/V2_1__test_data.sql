@@ -1,3 +1,4 @@
+-- テスト用の初期データ（V2の後に投入し、V3以降のマイグレーションが既存データとして移行する）
 INSERT INTO students (name, kana_name, nickname, mail_address, address, age, gender)
 VALUES ('大野 智', 'オオノ サトシ', 'リーダー', 'satoshiohno@ara.shi', '東京都', 43, '男'),
        ('相葉 雅紀', 'アイバ マサキ', 'アイバ', 'masakiaiaba@ara.shi', '千葉県', 41, '男'),
@@ -18,7 +19,7 @@ VALUES (1, 'Aコース', '2024-04-01 00:00:00', '2025-03-31 00:00:00'),
        (12, 'Bコース', '2024-10-17 18:20:55', '2025-10-17 18:20:55'),
        (13, 'Dコース', '2024-10-21 17:51:57', '2025-10-21 17:51:57');
 
+-- ステータスはV5で CourseStatusType のコードに変換される前の表示名で投入する
 INSERT INTO course_status (students_courses_id, status)
 VALUES (1, '仮申込'),
        (2, '本申込');
-